@@ -0,0 +1,52 @@
+package com.example.profitcalculator;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.profitcalculator.dto.ImportReportDTO;
+import com.example.profitcalculator.dto.RejectedRowDTO;
+import com.example.profitcalculator.service.CalculationImportService;
+
+/**
+ * Command line entry point for importing a calculations file without going through HTTP.
+ * Files ending in .csv are read as CSV, anything else as NDJSON. Arguments after the file are
+ * passed on to Spring, e.g. {@code --spring.datasource.url=...} to target a persistent database:
+ *
+ * <pre>
+ * java -cp profit-calculator-0.0.1-SNAPSHOT-exec.jar -Dloader.main=com.example.profitcalculator.ProfitCalculatorImport \
+ *     org.springframework.boot.loader.PropertiesLauncher ledger.csv --spring.datasource.url=...
+ * </pre>
+ */
+public class ProfitCalculatorImport {
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: ProfitCalculatorImport <file.csv|file.ndjson> [--spring.property=value ...]");
+            System.exit(2);
+        }
+        Path file = Path.of(args[0]);
+        String[] springArgs = Arrays.copyOfRange(args, 1, args.length);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProfitCalculatorApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(springArgs);
+             InputStream input = Files.newInputStream(file)) {
+            CalculationImportService importService = context.getBean(CalculationImportService.class);
+            ImportReportDTO report = file.getFileName().toString().toLowerCase().endsWith(".csv")
+                    ? importService.importCsv(input)
+                    : importService.importNdjson(input);
+
+            System.out.printf("Read %d rows, imported %d, rejected %d in %d ms (%.0f rows/s)%n",
+                    report.getRowsRead(), report.getRowsImported(), report.getRowsRejected(),
+                    report.getElapsedMillis(), report.getRowsPerSecond());
+            for (RejectedRowDTO rejected : report.getRejectedRows()) {
+                System.out.printf("  line %d: %s%n", rejected.getLine(), rejected.getReason());
+            }
+        }
+    }
+}
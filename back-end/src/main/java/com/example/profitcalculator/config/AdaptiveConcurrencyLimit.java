@@ -0,0 +1,92 @@
+package com.example.profitcalculator.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A concurrency limit that follows the latency of the requests it lets through, after the
+ * gradient limit of Netflix's concurrency-limits library. It keeps a short and a long moving
+ * average of the latency. While the short one stays within {@link #TOLERANCE} times the long one,
+ * the limit grows by a fifth of its square root per sample. Once the short average rises above
+ * that, the limit is cut in the same proportion, by at most half, and smoothed over several
+ * samples. Comparing against the long average rather than the fastest sample lets routes whose
+ * cost varies with the data, like a huge shipment's page, keep a useful limit.
+ *
+ * <p>The limit only grows while at least half of it is in use, so a quiet period does not leave
+ * it too high to protect anything when load returns.
+ */
+class AdaptiveConcurrencyLimit {
+    static final double TOLERANCE = 1.5;
+    // About the last 10 and the last 500 samples
+    private static final double SHORT_WEIGHT = 0.1;
+    private static final double LONG_WEIGHT = 0.002;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimatedLimit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max, but were "
+                    + minLimit + ", " + initialLimit + " and " + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void release(long latencyNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        update(latencyNanos, inFlightBefore);
+    }
+
+    synchronized void update(long latencyNanos, int inFlightBefore) {
+        if (longRttNanos == 0) {
+            shortRttNanos = latencyNanos;
+            longRttNanos = latencyNanos;
+            return;
+        }
+        shortRttNanos += (latencyNanos - shortRttNanos) * SHORT_WEIGHT;
+        longRttNanos += (latencyNanos - longRttNanos) * LONG_WEIGHT;
+        // After an overload has passed, let the long average come down with the short one
+        if (longRttNanos > 2 * shortRttNanos) {
+            longRttNanos *= 0.95;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / shortRttNanos));
+        double target = gradient < 1.0 ? estimatedLimit * gradient : estimatedLimit + Math.sqrt(estimatedLimit);
+        double next = estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING;
+        if (next > estimatedLimit && inFlightBefore < estimatedLimit / 2) {
+            return;
+        }
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, next));
+        limit = (int) estimatedLimit;
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+}
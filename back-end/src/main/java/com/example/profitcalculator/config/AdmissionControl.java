@@ -0,0 +1,115 @@
+package com.example.profitcalculator.config;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.profitcalculator.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Bulkheads for the handlers marked with {@link Bulkhead}: reads, writes and bulk requests each
+ * get their own {@link AdaptiveConcurrencyLimit}, so a few heavy bulk reads cannot take every
+ * request thread and pooled connection from cheap creates. A request over its bulkhead's limit
+ * is answered with 503 and Retry-After at once, before the handler runs.
+ *
+ * <p>Each bulkhead's requests in flight, current limit and rejections are published as
+ * {@code profit.bulkhead.in_flight}, {@code profit.bulkhead.limit} and
+ * {@code profit.bulkhead.rejected}, tagged with the bulkhead.
+ */
+@Component
+@ConditionalOnProperty(name = "profit.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControl implements HandlerInterceptor, WebMvcConfigurer {
+    static final long RETRY_AFTER_SECONDS = 1;
+
+    private static final String ADMITTED = AdmissionControl.class.getName() + ".admitted";
+    private static final String STARTED = AdmissionControl.class.getName() + ".started";
+
+    private final Map<Bulkhead.Type, AdaptiveConcurrencyLimit> limits = new EnumMap<>(Bulkhead.Type.class);
+    private final Map<Bulkhead.Type, Counter> rejections = new EnumMap<>(Bulkhead.Type.class);
+
+    public AdmissionControl(ObjectProvider<MeterRegistry> meterRegistry,
+                            @Value("${profit.bulkhead.min-limit:1}") int minLimit,
+                            @Value("${profit.bulkhead.read.initial-limit:10}") int readInitialLimit,
+                            @Value("${profit.bulkhead.read.max-limit:50}") int readMaxLimit,
+                            @Value("${profit.bulkhead.write.initial-limit:10}") int writeInitialLimit,
+                            @Value("${profit.bulkhead.write.max-limit:50}") int writeMaxLimit,
+                            @Value("${profit.bulkhead.bulk.initial-limit:2}") int bulkInitialLimit,
+                            @Value("${profit.bulkhead.bulk.max-limit:8}") int bulkMaxLimit) {
+        limits.put(Bulkhead.Type.READ, new AdaptiveConcurrencyLimit(readInitialLimit, minLimit, readMaxLimit));
+        limits.put(Bulkhead.Type.WRITE, new AdaptiveConcurrencyLimit(writeInitialLimit, minLimit, writeMaxLimit));
+        limits.put(Bulkhead.Type.BULK, new AdaptiveConcurrencyLimit(bulkInitialLimit, minLimit, bulkMaxLimit));
+
+        // Web slice tests have no registry; the global one then records nothing
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        limits.forEach((type, limit) -> {
+            String bulkhead = type.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("profit.bulkhead.in_flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                    .description("Requests being handled in the bulkhead")
+                    .tag("bulkhead", bulkhead)
+                    .register(registry);
+            Gauge.builder("profit.bulkhead.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                    .description("Requests the bulkhead currently lets in at once")
+                    .tag("bulkhead", bulkhead)
+                    .register(registry);
+            rejections.put(type, Counter.builder("profit.bulkhead.rejected")
+                    .description("Requests answered with 503 because the bulkhead was full")
+                    .tag("bulkhead", bulkhead)
+                    .register(registry));
+        });
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        Bulkhead bulkhead = handlerMethod.getMethodAnnotation(Bulkhead.class);
+        if (bulkhead == null) {
+            return true;
+        }
+        AdaptiveConcurrencyLimit limit = limits.get(bulkhead.value());
+        if (!limit.tryAcquire()) {
+            rejections.get(bulkhead.value()).increment();
+            throw new ServiceUnavailableException("Too many " + bulkhead.value().name().toLowerCase(Locale.ROOT)
+                    + " requests are in progress", RETRY_AFTER_SECONDS);
+        }
+        request.setAttribute(ADMITTED, limit);
+        request.setAttribute(STARTED, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object limit = request.getAttribute(ADMITTED);
+        if (limit != null) {
+            request.removeAttribute(ADMITTED);
+            ((AdaptiveConcurrencyLimit) limit).release(System.nanoTime() - (Long) request.getAttribute(STARTED));
+        }
+    }
+
+    AdaptiveConcurrencyLimit limit(Bulkhead.Type type) {
+        return limits.get(type);
+    }
+}
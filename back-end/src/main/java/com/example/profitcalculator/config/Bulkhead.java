@@ -0,0 +1,26 @@
+package com.example.profitcalculator.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts a handler method behind one of the bulkheads of {@link AdmissionControl}. Handlers without
+ * it are not limited here; event streams have their own cap in {@code CalculationEventEmitters}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+    Type value();
+
+    enum Type {
+        // Single shipments and pages
+        READ,
+        // Single creates and deletes
+        WRITE,
+        // Unpaged lists and bulk creates and deletes, whose cost grows with the data
+        BULK
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.profitcalculator.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.sql.init.AbstractScriptDatabaseInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+/**
+ * Keeps the beans a first request cannot do without eager when the application is started with
+ * {@code spring.main.lazy-initialization=true}, as the fast-startup build runs it. The database
+ * scripts and Hibernate's bootstrap still run before the web server starts, so the application
+ * is only reported ready once it can answer. Everything else, such as the import, export and
+ * analytics endpoints, actuator and the H2 console, is created on first use.
+ *
+ * <p>Spring Boot already keeps {@code SmartInitializingSingleton}s such as
+ * {@code CalculationColumns} eager, so its load still runs before the first request.
+ */
+@Configuration
+public class FastStartupConfig {
+
+    // Static, as it is applied by a bean factory post-processor before other beans exist
+    @Bean
+    static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(AbstractScriptDatabaseInitializer.class,
+                AbstractEntityManagerFactoryBean.class, HibernateMetricsConfig.class);
+    }
+}
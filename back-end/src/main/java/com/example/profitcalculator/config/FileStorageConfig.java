@@ -0,0 +1,40 @@
+package com.example.profitcalculator.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Schema initialization for the file-backed database of the {@code file} profile. schema.sql and
+ * data.sql only run on the first start, against an empty file; once the shipment table exists they
+ * are skipped, so restarts neither fail on CREATE TABLE nor insert the seed data again. Replaces
+ * the initializer Spring Boot would otherwise configure.
+ */
+@Configuration
+@Profile("file")
+public class FileStorageConfig {
+
+    static final String SCHEMA_EXISTS_QUERY = "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES "
+            + "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = 'SHIPMENT'";
+
+    @Bean
+    SqlDataSourceScriptDatabaseInitializer dataSourceScriptDatabaseInitializer(DataSource dataSource,
+                                                                               SqlInitializationProperties properties) {
+        return new SqlDataSourceScriptDatabaseInitializer(dataSource, properties) {
+            @Override
+            public boolean initializeDatabase() {
+                return !schemaExists(dataSource) && super.initializeDatabase();
+            }
+        };
+    }
+
+    static boolean schemaExists(DataSource dataSource) {
+        Integer tables = new JdbcTemplate(dataSource).queryForObject(SCHEMA_EXISTS_QUERY, Integer.class);
+        return tables != null && tables > 0;
+    }
+}
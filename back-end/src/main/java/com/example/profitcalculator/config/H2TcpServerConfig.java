@@ -0,0 +1,31 @@
+package com.example.profitcalculator.config;
+
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.h2.tools.Server;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Serves the application's H2 database over TCP when {@code profit.h2.tcp-port} is set, so other
+ * processes such as the reactive read API see the same rows as the back end, including its
+ * in-memory database. The server runs in this JVM, so a client URL names the database as the
+ * back end opened it: {@code tcp://localhost:9092/mem:profitdb}, or the file path of the
+ * {@code file} profile. It only accepts connections from this host and cannot create databases.
+ * Port 0 picks a free port.
+ */
+@Configuration
+@ConditionalOnProperty(name = "profit.h2.tcp-port")
+public class H2TcpServerConfig {
+
+    // Takes the DataSource so the database is open before clients can connect, and the server
+    // stops before the database closes
+    @Bean(destroyMethod = "stop")
+    public Server h2TcpServer(DataSource dataSource, @Value("${profit.h2.tcp-port}") int port) throws SQLException {
+        return Server.createTcpServer("-tcpPort", String.valueOf(port), "-tcpDaemon").start();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.profitcalculator.config;
+
+import java.net.URI;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.xml.XmlConfiguration;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Gives each application context its own Ehcache manager for the second-level cache. JCache
+ * hands out one manager per configuration URI and class loader, so without this two contexts in
+ * the same JVM, such as test contexts on different databases, would share cached entities and
+ * close each other's regions. The regions themselves are defined in ehcache.xml.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    static final String EHCACHE_CONFIG = "/ehcache.xml";
+
+    @Bean(destroyMethod = "close")
+    CacheManager hibernateCacheManager() {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName(), getClass().getClassLoader());
+        XmlConfiguration configuration = new XmlConfiguration(getClass().getResource(EHCACHE_CONFIG));
+        return provider.getCacheManager(URI.create("urn:profit-calculator:" + UUID.randomUUID()), configuration);
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.profitcalculator.config;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.context.annotation.Configuration;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Hooks {@link HibernateRequestStatistics} into entity loading. Statement and flush counts come
+ * from the session event listener configured in application.properties.
+ */
+@Configuration
+public class HibernateMetricsConfig {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public HibernateMetricsConfig(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    void registerLoadListener() {
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, new HibernateRequestStatistics());
+    }
+}
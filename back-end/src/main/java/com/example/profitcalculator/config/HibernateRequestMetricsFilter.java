@@ -0,0 +1,62 @@
+package com.example.profitcalculator.config;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records how many SQL statements, entity loads and flushes each request caused on the request
+ * thread, tagged with the same method and uri as {@code http.server.requests}. The counts are
+ * logged at DEBUG, which the {@code dev} profile turns on.
+ */
+@Component
+public class HibernateRequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(HibernateRequestMetricsFilter.class);
+
+    private final MeterRegistry meterRegistry;
+
+    public HibernateRequestMetricsFilter(ObjectProvider<MeterRegistry> meterRegistry) {
+        // Web slice tests have no registry; the global one then records nothing
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        HibernateRequestStatistics.reset();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            record("hibernate.request.statements", request, uri, HibernateRequestStatistics.statements());
+            record("hibernate.request.entity.loads", request, uri, HibernateRequestStatistics.entityLoads());
+            record("hibernate.request.flushes", request, uri, HibernateRequestStatistics.flushes());
+            log.debug("{} {} executed {} SQL statements, loaded {} entities, flushed {} times",
+                    request.getMethod(), request.getRequestURI(), HibernateRequestStatistics.statements(),
+                    HibernateRequestStatistics.entityLoads(), HibernateRequestStatistics.flushes());
+        }
+    }
+
+    private void record(String name, HttpServletRequest request, String uri, long amount) {
+        DistributionSummary.builder(name)
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(amount);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.profitcalculator.config;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+
+/**
+ * Counts what Hibernate does on the current thread: JDBC statement and batch executions (i.e.
+ * database round trips), entity loads and flushes. Registered for every session through
+ * {@code hibernate.session.events.auto} and as a post-load listener by
+ * {@link HibernateMetricsConfig}; {@link HibernateRequestMetricsFilter} resets it per request and
+ * tests read it around the code they measure.
+ */
+public class HibernateRequestStatistics implements SessionEventListener, PostLoadEventListener {
+
+    private static final int STATEMENTS = 0;
+    private static final int ENTITY_LOADS = 1;
+    private static final int FLUSHES = 2;
+
+    private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[3]);
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        COUNTS.get()[STATEMENTS]++;
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        COUNTS.get()[STATEMENTS]++;
+    }
+
+    @Override
+    public void flushStart() {
+        COUNTS.get()[FLUSHES]++;
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        COUNTS.get()[ENTITY_LOADS]++;
+    }
+
+    public static void reset() {
+        long[] counts = COUNTS.get();
+        counts[STATEMENTS] = 0;
+        counts[ENTITY_LOADS] = 0;
+        counts[FLUSHES] = 0;
+    }
+
+    public static long statements() {
+        return COUNTS.get()[STATEMENTS];
+    }
+
+    public static long entityLoads() {
+        return COUNTS.get()[ENTITY_LOADS];
+    }
+
+    public static long flushes() {
+        return COUNTS.get()[FLUSHES];
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.profitcalculator.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends one request to the application once it is ready, then exits, when started with
+ * {@code profit.startup.training-run=true}. The fast-startup build profile starts it that way
+ * with {@code -XX:ArchiveClassesAtExit}, so the class-data sharing archive holds every class
+ * loaded by startup and by a first request. The exit status is 1 if that request fails, which
+ * fails the build.
+ *
+ * <p>The property is read at runtime rather than used as a condition, because AOT processing
+ * fixes the conditions at build time.
+ */
+@Component
+public class StartupTrainingRun implements ApplicationListener<ApplicationReadyEvent> {
+    static final String FIRST_REQUEST_PATH = "/api/profit/shipments?limit=1";
+
+    private final boolean enabled;
+
+    public StartupTrainingRun(@Value("${profit.startup.training-run:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        int status = firstRequest("http://localhost:" + port + FIRST_REQUEST_PATH);
+        System.exit(SpringApplication.exit(context, () -> status == 200 ? 0 : 1));
+    }
+
+    static int firstRequest(String url) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setRequestProperty("Accept", "application/json");
+            try (InputStream body = connection.getInputStream()) {
+                body.readAllBytes();
+            }
+            return connection.getResponseCode();
+        } catch (IOException e) {
+            throw new UncheckedIOException("The training run's first request to " + url + " failed", e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.profitcalculator.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+/**
+ * Runs every request on its own virtual thread when {@code profit.threads.virtual=true}. The
+ * controller, service and repository calls all run on the request thread, so a blocking JDBC call
+ * parks the virtual thread instead of holding one of Tomcat's platform threads. Streaming
+ * responses use the same executor. Requires Java 21; the executor is looked up reflectively so
+ * the application still compiles for Java 17.
+ */
+@Configuration
+@ConditionalOnProperty(name = "profit.threads.virtual", havingValue = "true")
+public class VirtualThreadsConfig {
+    static final int MIN_JAVA_VERSION = 21;
+
+    @Bean
+    public ExecutorService virtualThreadExecutor() {
+        return newVirtualThreadPerTaskExecutor(Runtime.version().feature());
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+
+    static ExecutorService newVirtualThreadPerTaskExecutor(int javaVersion) {
+        if (javaVersion < MIN_JAVA_VERSION) {
+            throw new IllegalStateException("profit.threads.virtual=true requires Java " + MIN_JAVA_VERSION
+                    + " or later, but the application runs on Java " + javaVersion);
+        }
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads are not available on this JVM", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.profitcalculator.controller;
+
+import com.example.profitcalculator.dto.CalculationAnalyticsDTO;
+import com.example.profitcalculator.dto.PortfolioDTO;
+import com.example.profitcalculator.exception.BadRequestException;
+import com.example.profitcalculator.money.Money;
+import com.example.profitcalculator.service.CalculationAggregates;
+import com.example.profitcalculator.service.PortfolioService;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/profit/analytics")
+public class AnalyticsController {
+
+    private final CalculationAggregates calculationAggregates;
+    private final PortfolioService portfolioService;
+
+    public AnalyticsController(CalculationAggregates calculationAggregates, PortfolioService portfolioService) {
+        this.calculationAggregates = calculationAggregates;
+        this.portfolioService = portfolioService;
+    }
+
+    //
+    // Count, totals and averages of the calculations of all shipments, optionally only those
+    // whose profit or loss lies within the given bounds
+    //
+    @GetMapping
+    public CalculationAnalyticsDTO getAnalytics(@RequestParam(required = false) Double minProfitOrLoss,
+                                                @RequestParam(required = false) Double maxProfitOrLoss) {
+        if (minProfitOrLoss == null && maxProfitOrLoss == null) {
+            return calculationAggregates.totals();
+        }
+        long minCents = minProfitOrLoss == null ? Long.MIN_VALUE : Money.toCents(minProfitOrLoss);
+        long maxCents = maxProfitOrLoss == null ? Long.MAX_VALUE : Money.toCents(maxProfitOrLoss);
+        if (minCents > maxCents) {
+            throw new BadRequestException("minProfitOrLoss must not be greater than maxProfitOrLoss");
+        }
+        return calculationAggregates.totalsForProfitBetween(minCents, maxCents);
+    }
+
+    //
+    // The most and least profitable shipments, the overall margin and the distribution of the
+    // calculations' profit or loss
+    //
+    @GetMapping("/portfolio")
+    public PortfolioDTO getPortfolio(@RequestParam(defaultValue = "10") int shipments,
+                                     @RequestParam(defaultValue = "20") int buckets) {
+        return portfolioService.getPortfolio(shipments, buckets);
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.profitcalculator.controller;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.profitcalculator.config.Bulkhead;
+import com.example.profitcalculator.dto.CalculationDTO;
+import com.example.profitcalculator.exception.ServiceUnavailableException;
+import com.example.profitcalculator.mapper.CalculationMapper;
+import com.example.profitcalculator.service.CalculationEvent;
+import com.example.profitcalculator.service.ShipmentsDeletedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * The open server-sent event streams per shipment. Each committed {@link CalculationEvent} goes
+ * out as a {@code created} event carrying the new calculations, or a {@code deleted} event
+ * carrying the removed ids. A committed {@link ShipmentsDeletedEvent} sends a last
+ * {@code shipment-deleted} event carrying the shipment id and completes the shipment's streams.
+ *
+ * <p>The listeners run on the committing thread, a request thread or the write-behind writer, so
+ * they only serialize the payload once and queue it for each stream; a fixed number of sender
+ * threads, {@code profit.events.sender-threads}, do the socket writes. A client that stops
+ * reading holds a sender until the container's write timeout gives up on it. A stream more than
+ * {@value #MAX_QUEUED_EVENTS} events behind is completed instead of buffered further. Clients
+ * that miss events while reconnecting should reload the list.
+ *
+ * <p>At most {@code profit.events.max-subscriptions} streams are open at once; further ones are
+ * answered with 503 and Retry-After. Streams are not behind a {@link Bulkhead}, as an open
+ * stream would hold its bulkhead's slot until it ends.
+ */
+@Component
+public class CalculationEventEmitters {
+
+    // EventSource reconnects by itself once a stream times out
+    static final Duration TIMEOUT = Duration.ofMinutes(30);
+    static final int MAX_QUEUED_EVENTS = 64;
+    static final long RETRY_AFTER_SECONDS = 5;
+
+    private final Map<Long, Set<Subscriber>> subscribersByShipment = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriptions = new AtomicInteger();
+    private final int maxSubscriptions;
+    // At most one task per stream with events to send is queued or running
+    private final ThreadPoolExecutor senders;
+    private final CalculationMapper calculationMapper;
+    private final ObjectMapper objectMapper;
+
+    public CalculationEventEmitters(CalculationMapper calculationMapper, ObjectMapper objectMapper,
+                                    @Value("${profit.events.sender-threads:4}") int senderThreads,
+                                    @Value("${profit.events.max-subscriptions:1000}") int maxSubscriptions) {
+        this.calculationMapper = calculationMapper;
+        this.objectMapper = objectMapper;
+        this.maxSubscriptions = maxSubscriptions;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("calculation-events-");
+        threadFactory.setDaemon(true);
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), threadFactory);
+        this.senders.allowCoreThreadTimeOut(true);
+    }
+
+    public SseEmitter open(Long shipmentId) {
+        return subscribe(shipmentId, new SseEmitter(TIMEOUT.toMillis()));
+    }
+
+    SseEmitter subscribe(Long shipmentId, SseEmitter emitter) {
+        if (subscriptions.incrementAndGet() > maxSubscriptions) {
+            subscriptions.decrementAndGet();
+            throw new ServiceUnavailableException("Too many event streams are open", RETRY_AFTER_SECONDS);
+        }
+        Subscriber subscriber = new Subscriber(shipmentId, emitter);
+        subscribersByShipment.computeIfAbsent(shipmentId, id -> new CopyOnWriteArraySet<>()).add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> remove(subscriber));
+        try {
+            // Commits the response headers, so the client sees the stream open right away
+            emitter.send(SseEmitter.event().comment("subscribed"));
+        } catch (IOException e) {
+            remove(subscriber);
+        }
+        return emitter;
+    }
+
+    int subscribers(Long shipmentId) {
+        Set<Subscriber> subscribers = subscribersByShipment.get(shipmentId);
+        return subscribers == null ? 0 : subscribers.size();
+    }
+
+    @TransactionalEventListener
+    public void onCalculationEvent(CalculationEvent event) throws JsonProcessingException {
+        Set<Subscriber> subscribers = subscribersByShipment.get(event.getShipmentId());
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+        Event sent;
+        if (event.getType() == CalculationEvent.Type.CREATED) {
+            List<CalculationDTO> created = event.getCreated().stream().map(calculationMapper::toDTO).toList();
+            sent = new Event("created", objectMapper.writeValueAsString(created));
+        } else {
+            sent = new Event("deleted", objectMapper.writeValueAsString(event.getDeletedIds()));
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.events.offer(sent)) {
+                schedule(subscriber);
+            } else {
+                // Fallen behind: completing the stream makes the client reconnect and reload
+                remove(subscriber);
+                subscriber.events.clear();
+                subscriber.closing = true;
+                schedule(subscriber);
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public void onShipmentsDeleted(ShipmentsDeletedEvent event) throws JsonProcessingException {
+        for (Long shipmentId : event.getShipmentIds()) {
+            Set<Subscriber> subscribers = subscribersByShipment.remove(shipmentId);
+            if (subscribers == null) {
+                continue;
+            }
+            Event deleted = new Event("shipment-deleted", objectMapper.writeValueAsString(shipmentId));
+            for (Subscriber subscriber : subscribers) {
+                release(subscriber);
+                // The calculations pending for a deleted shipment no longer matter
+                if (!subscriber.events.offer(deleted)) {
+                    subscriber.events.clear();
+                    subscriber.events.offer(deleted);
+                }
+                subscriber.closing = true;
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.sending.compareAndSet(false, true)) {
+            senders.execute(() -> send(subscriber));
+        }
+    }
+
+    // Runs on a sender thread, one at a time per subscriber. Once the stream is completed or has
+    // failed, sending stays set so that nothing is scheduled for it again
+    private void send(Subscriber subscriber) {
+        do {
+            try {
+                for (Event event = subscriber.events.poll(); event != null; event = subscriber.events.poll()) {
+                    subscriber.emitter.send(SseEmitter.event().name(event.name).data(event.data, MediaType.APPLICATION_JSON));
+                }
+                if (subscriber.closing) {
+                    subscriber.emitter.complete();
+                    return;
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away; the container completes the emitter, which removes it
+                remove(subscriber);
+                return;
+            }
+            subscriber.sending.set(false);
+            // An event queued after the last poll may have found sending still set
+        } while ((!subscriber.events.isEmpty() || subscriber.closing) && subscriber.sending.compareAndSet(false, true));
+    }
+
+    private void remove(Subscriber subscriber) {
+        release(subscriber);
+        subscribersByShipment.computeIfPresent(subscriber.shipmentId, (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    // Frees the subscriber's place under the cap; removal can be reported more than once
+    private void release(Subscriber subscriber) {
+        if (subscriber.counted.compareAndSet(true, false)) {
+            subscriptions.decrementAndGet();
+        }
+    }
+
+    int openSubscriptions() {
+        return subscriptions.get();
+    }
+
+    int senderThreads() {
+        return senders.getPoolSize();
+    }
+
+    @PreDestroy
+    void stopSending() {
+        senders.shutdownNow();
+    }
+
+    private static final class Subscriber {
+        final Long shipmentId;
+        final SseEmitter emitter;
+        final BlockingQueue<Event> events = new ArrayBlockingQueue<>(MAX_QUEUED_EVENTS);
+        final AtomicBoolean sending = new AtomicBoolean();
+        final AtomicBoolean counted = new AtomicBoolean(true);
+        // Complete the stream once the queued events are sent
+        volatile boolean closing;
+
+        Subscriber(Long shipmentId, SseEmitter emitter) {
+            this.shipmentId = shipmentId;
+            this.emitter = emitter;
+        }
+    }
+
+    private static final class Event {
+        final String name;
+        final String data;
+
+        Event(String name, String data) {
+            this.name = name;
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.profitcalculator.controller;
+
+import com.example.profitcalculator.exception.BadRequestException;
+import com.example.profitcalculator.service.CalculationExportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/profit/export")
+public class ExportController {
+
+    private final CalculationExportService calculationExportService;
+
+    public ExportController(CalculationExportService calculationExportService) {
+        this.calculationExportService = calculationExportService;
+    }
+
+    //
+    // Rows are written to the response while they are read, never collected first
+    //
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportCalculations(@RequestParam(defaultValue = "ndjson") String format) {
+        return switch (format) {
+            case "ndjson" -> attachment("calculations.ndjson", "application/x-ndjson",
+                    calculationExportService::writeNdjson);
+            case "csv" -> attachment("calculations.csv", "text/csv",
+                    calculationExportService::writeCsv);
+            default -> throw new BadRequestException("Format must be ndjson or csv");
+        };
+    }
+
+    private static ResponseEntity<StreamingResponseBody> attachment(String fileName, String contentType,
+                                                                    StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(MediaType.parseMediaType(contentType))
+                .body(body);
+    }
+}
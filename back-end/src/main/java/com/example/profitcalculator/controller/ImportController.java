@@ -0,0 +1,32 @@
+package com.example.profitcalculator.controller;
+
+import com.example.profitcalculator.dto.ImportReportDTO;
+import com.example.profitcalculator.service.CalculationImportService;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/profit/import")
+public class ImportController {
+
+    private final CalculationImportService calculationImportService;
+
+    public ImportController(CalculationImportService calculationImportService) {
+        this.calculationImportService = calculationImportService;
+    }
+
+    //
+    // The request body is read as a stream, never buffered in full
+    //
+    @PostMapping(consumes = "text/csv")
+    public ImportReportDTO importCsv(InputStream body) throws IOException {
+        return calculationImportService.importCsv(body);
+    }
+
+    @PostMapping(consumes = "application/x-ndjson")
+    public ImportReportDTO importNdjson(InputStream body) throws IOException {
+        return calculationImportService.importNdjson(body);
+    }
+}
@@ -1,14 +1,30 @@
 package com.example.profitcalculator.controller;
 
+import com.example.profitcalculator.config.Bulkhead;
 import com.example.profitcalculator.dto.CalculationDTO;
+import com.example.profitcalculator.dto.CalculationTicketDTO;
+import com.example.profitcalculator.dto.CursorPageDTO;
 import com.example.profitcalculator.dto.ShipmentDTO;
+import com.example.profitcalculator.dto.ShipmentSummaryDTO;
 import com.example.profitcalculator.entity.Calculation;
 import com.example.profitcalculator.entity.Shipment;
+import com.example.profitcalculator.exception.ServiceUnavailableException;
 import com.example.profitcalculator.mapper.CalculationMapper;
 import com.example.profitcalculator.mapper.ShipmentMapper;
 import com.example.profitcalculator.service.CalculationService;
+import com.example.profitcalculator.service.CalculationWriteQueue;
 import com.example.profitcalculator.service.ShipmentService;
+import com.example.profitcalculator.service.ShipmentVersions;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -21,68 +37,218 @@ public class ProfitController {
     private final CalculationService calculationService;
     private final ShipmentMapper shipmentMapper;
     private final CalculationMapper calculationMapper;
+    private final ShipmentVersions shipmentVersions;
+    private final CalculationEventEmitters calculationEventEmitters;
+    private final CalculationWriteQueue calculationWriteQueue;
 
     public ProfitController(ShipmentService shipmentService,
                             CalculationService calculationService,
                             ShipmentMapper shipmentMapper,
-                            CalculationMapper calculationMapper) {
+                            CalculationMapper calculationMapper,
+                            ShipmentVersions shipmentVersions,
+                            CalculationEventEmitters calculationEventEmitters,
+                            CalculationWriteQueue calculationWriteQueue) {
         this.shipmentService = shipmentService;
         this.calculationService = calculationService;
         this.shipmentMapper = shipmentMapper;
         this.calculationMapper = calculationMapper;
+        this.shipmentVersions = shipmentVersions;
+        this.calculationEventEmitters = calculationEventEmitters;
+        this.calculationWriteQueue = calculationWriteQueue;
+    }
+
+    /**
+     * Sets the ETag and answers a matching If-None-Match with 304, in which case the handler
+     * returns null without reading anything else. no-cache lets browsers keep the body but has
+     * them revalidate it on every use.
+     *
+     * <p>The tag is weak because JSON, gzipped JSON, CBOR and Smile share it: the data is the
+     * same, the bytes are not. Tomcat also refuses to compress a response with a strong ETag.
+     */
+    private static boolean notModified(ServletWebRequest request, String tag) {
+        HttpServletResponse response = request.getResponse();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        return request.checkNotModified("W/\"" + tag + "\"");
     }
 
     //
     // Shipments
     //
+    @Bulkhead(Bulkhead.Type.READ)
     @GetMapping
-    public List<ShipmentDTO> getAllShipments() {
-        return shipmentService.getAll()
-                .stream()
-                .map(shipmentMapper::toDTO)
-                .collect(Collectors.toList());
+    public CursorPageDTO<ShipmentDTO> getShipments(@RequestParam(defaultValue = "0") Long after,
+                                                   @RequestParam(defaultValue = "50") int limit,
+                                                   ServletWebRequest request) {
+        if (notModified(request, shipmentVersions.listTag())) {
+            return null;
+        }
+        List<ShipmentDTO> shipments = shipmentService.getDTOPage(after, limit);
+        return CursorPageDTO.of(shipments, limit, ShipmentDTO::getId);
     }
 
+    @Bulkhead(Bulkhead.Type.BULK)
+    @GetMapping(params = "unpaged=true")
+    public List<ShipmentDTO> getAllShipments(ServletWebRequest request) {
+        if (notModified(request, shipmentVersions.listTag())) {
+            return null;
+        }
+        return shipmentService.getAllDTOs();
+    }
+
+    @Bulkhead(Bulkhead.Type.WRITE)
     @PostMapping
     public ShipmentDTO createShipment() {
         Shipment shipment = shipmentService.create(Shipment.builder().build());
         return shipmentMapper.toDTO(shipment);
     }
 
+    @Bulkhead(Bulkhead.Type.READ)
     @GetMapping("/{shipmentId}")
-    public ShipmentDTO getShipmentById(@PathVariable Long shipmentId) {
+    public ShipmentDTO getShipmentById(@PathVariable Long shipmentId, ServletWebRequest request) {
         Shipment shipment = shipmentService.getById(shipmentId);
+        if (notModified(request, shipmentVersions.tagOf(shipment))) {
+            return null;
+        }
         return shipmentMapper.toDTO(shipment);
     }
 
+    @Bulkhead(Bulkhead.Type.READ)
+    @GetMapping("/{shipmentId}/summary")
+    public ShipmentSummaryDTO getShipmentSummary(@PathVariable Long shipmentId, ServletWebRequest request) {
+        Shipment shipment = shipmentService.getById(shipmentId);
+        if (notModified(request, shipmentVersions.tagOf(shipment))) {
+            return null;
+        }
+        return shipmentMapper.toSummaryDTO(shipment);
+    }
+
+    @Bulkhead(Bulkhead.Type.WRITE)
     @DeleteMapping("/{shipmentId}")
     public void deleteShipment(@PathVariable Long shipmentId) {
         shipmentService.delete(shipmentId);
     }
 
+    // POST rather than DELETE with a body, which proxies and clients may drop
+    @Bulkhead(Bulkhead.Type.BULK)
+    @PostMapping("/bulk-delete")
+    public int deleteShipments(@RequestBody List<Long> shipmentIds) {
+        return shipmentService.deleteAll(shipmentIds);
+    }
+
     //
     // Calculations
     //
+    // Tagged with the shipment's version, which every calculation create and delete bumps; the
+    // shipment usually comes from the second-level cache, so a 304 costs no statement
+    @Bulkhead(Bulkhead.Type.READ)
     @GetMapping("/{shipmentId}/calculations")
-    public List<CalculationDTO> getCalculationsByShipment(@PathVariable Long shipmentId) {
-        return calculationService.getByShipmentId(shipmentId)
-                .stream()
-                .map(calculationMapper::toDTO)
-                .collect(Collectors.toList());
+    public CursorPageDTO<CalculationDTO> getCalculationsPage(@PathVariable Long shipmentId,
+                                                             @RequestParam(defaultValue = "0") Long after,
+                                                             @RequestParam(defaultValue = "50") int limit,
+                                                             ServletWebRequest request) {
+        if (notModified(request, shipmentVersions.tagOf(shipmentService.getById(shipmentId)))) {
+            return null;
+        }
+        List<CalculationDTO> calculations = calculationService.getDTOPageByShipmentId(shipmentId, after, limit);
+        return CursorPageDTO.of(calculations, limit, CalculationDTO::getId);
+    }
+
+    @Bulkhead(Bulkhead.Type.BULK)
+    @GetMapping(value = "/{shipmentId}/calculations", params = "unpaged=true")
+    public List<CalculationDTO> getCalculationsByShipment(@PathVariable Long shipmentId, ServletWebRequest request) {
+        if (notModified(request, shipmentVersions.tagOf(shipmentService.getById(shipmentId)))) {
+            return null;
+        }
+        return calculationService.getDTOsByShipmentId(shipmentId);
     }
 
+    @Bulkhead(Bulkhead.Type.WRITE)
     @PostMapping("/{shipmentId}/calculations")
-    public CalculationDTO createCalculation(@PathVariable Long shipmentId,
-                                            @RequestBody CalculationDTO dto) {
-        // Convert DTO to entity
-        Shipment shipment = shipmentService.getById(shipmentId); // ensures shipment exists
-        Calculation calculation = calculationMapper.toEntity(dto, shipment);
+    public ResponseEntity<?> createCalculation(@PathVariable Long shipmentId,
+                                               @RequestBody CalculationDTO dto,
+                                               @RequestHeader(value = "Prefer", required = false) String prefer) {
+        // The service checks that the shipment exists
+        Calculation calculation = calculationMapper.toEntity(dto, Shipment.builder().id(shipmentId).build());
+        if (prefersRespondAsync(prefer)) {
+            return submitCalculation(shipmentId, calculation);
+        }
         Calculation saved = calculationService.create(shipmentId, calculation);
-        return calculationMapper.toDTO(saved);
+        return ResponseEntity.ok(calculationMapper.toDTO(saved));
+    }
+
+    /**
+     * Whether a Prefer header (RFC 7240) asks for respond-async. Preferences are separated by
+     * commas, several Prefer headers arrive joined by commas, and each preference may carry a
+     * value and parameters, as in {@code respond-async, wait=5}. Names are case-insensitive.
+     */
+    static boolean prefersRespondAsync(String prefer) {
+        if (prefer == null) {
+            return false;
+        }
+        for (String preference : prefer.split(",")) {
+            String name = preference.split("[;=]", 2)[0].trim();
+            if (name.equalsIgnoreCase("respond-async")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Opted into with Prefer: respond-async. Answers 202 as soon as the calculation is queued;
+    // the Location is the ticket to poll until the write is committed. See CalculationWriteQueue
+    private ResponseEntity<CalculationTicketDTO> submitCalculation(Long shipmentId, Calculation calculation) {
+        long ticket = calculationWriteQueue.submit(shipmentId, calculation);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequestUri()
+                        .replacePath("/api/profit/shipments/{shipmentId}/calculation-tickets/{ticket}")
+                        .buildAndExpand(shipmentId, ticket)
+                        .toUri())
+                .header("Preference-Applied", "respond-async")
+                .body(CalculationTicketDTO.builder()
+                        .ticket(ticket)
+                        .shipmentId(shipmentId)
+                        .status(CalculationTicketDTO.Status.PENDING)
+                        .build());
+    }
+
+    @Bulkhead(Bulkhead.Type.READ)
+    @GetMapping("/{shipmentId}/calculation-tickets/{ticket}")
+    public CalculationTicketDTO getCalculationTicket(@PathVariable Long shipmentId, @PathVariable long ticket) {
+        return calculationWriteQueue.status(shipmentId, ticket);
+    }
+
+    @Bulkhead(Bulkhead.Type.BULK)
+    @PostMapping("/{shipmentId}/calculations/bulk")
+    public List<Long> createCalculations(@PathVariable Long shipmentId,
+                                         @RequestBody List<CalculationDTO> dtos) {
+        Shipment shipment = Shipment.builder().id(shipmentId).build();
+        List<Calculation> calculations = dtos.stream()
+                .map(dto -> calculationMapper.toEntity(dto, shipment))
+                .collect(Collectors.toList());
+        return calculationService.createAll(shipmentId, calculations)
+                .stream()
+                .map(Calculation::getId)
+                .collect(Collectors.toList());
+    }
+
+    // Pushes the shipment's calculation creates and deletes as they commit; see CalculationEventEmitters
+    @GetMapping(value = "/{shipmentId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamCalculationEvents(@PathVariable Long shipmentId) {
+        shipmentService.getById(shipmentId);
+        try {
+            return ResponseEntity.ok(calculationEventEmitters.open(shipmentId));
+        } catch (ServiceUnavailableException e) {
+            // Without the JSON error body, which a client accepting only text/event-stream refuses
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .build();
+        }
     }
 
+    @Bulkhead(Bulkhead.Type.WRITE)
     @DeleteMapping("/{shipmentId}/calculations/{calculationId}")
-    public void deleteCalculation(@PathVariable Long calculationId) {
-        calculationService.delete(calculationId);
+    public void deleteCalculation(@PathVariable Long shipmentId, @PathVariable Long calculationId) {
+        calculationService.delete(shipmentId, calculationId);
     }
 }
@@ -0,0 +1,135 @@
+package com.example.profitcalculator.dto;
+
+import com.example.profitcalculator.money.Money;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class CalculationAnalyticsDTO {
+    private long calculationCount;
+    // Amounts in cents; the JSON properties carry them as decimals
+    private long totalIncomeCents;
+    private long totalCostCents;
+    private long totalProfitOrLossCents;
+
+    // Constructors
+    public CalculationAnalyticsDTO() {}
+    public CalculationAnalyticsDTO(long calculationCount, long totalIncomeCents, long totalCostCents,
+                                   long totalProfitOrLossCents) {
+        this.calculationCount = calculationCount;
+        this.totalIncomeCents = totalIncomeCents;
+        this.totalCostCents = totalCostCents;
+        this.totalProfitOrLossCents = totalProfitOrLossCents;
+    }
+
+    // Getters and Setters
+    public long getCalculationCount() {
+        return calculationCount;
+    }
+    public void setCalculationCount(long calculationCount) {
+        this.calculationCount = calculationCount;
+    }
+
+    @JsonIgnore
+    public long getTotalIncomeCents() {
+        return totalIncomeCents;
+    }
+    public void setTotalIncomeCents(long totalIncomeCents) {
+        this.totalIncomeCents = totalIncomeCents;
+    }
+
+    @JsonProperty("totalIncome")
+    public double getTotalIncome() {
+        return Money.toDecimal(totalIncomeCents);
+    }
+    @JsonProperty("totalIncome")
+    public void setTotalIncome(double totalIncome) {
+        this.totalIncomeCents = Money.toCents(totalIncome);
+    }
+
+    @JsonIgnore
+    public long getTotalCostCents() {
+        return totalCostCents;
+    }
+    public void setTotalCostCents(long totalCostCents) {
+        this.totalCostCents = totalCostCents;
+    }
+
+    @JsonProperty("totalCost")
+    public double getTotalCost() {
+        return Money.toDecimal(totalCostCents);
+    }
+    @JsonProperty("totalCost")
+    public void setTotalCost(double totalCost) {
+        this.totalCostCents = Money.toCents(totalCost);
+    }
+
+    @JsonIgnore
+    public long getTotalProfitOrLossCents() {
+        return totalProfitOrLossCents;
+    }
+    public void setTotalProfitOrLossCents(long totalProfitOrLossCents) {
+        this.totalProfitOrLossCents = totalProfitOrLossCents;
+    }
+
+    @JsonProperty("totalProfitOrLoss")
+    public double getTotalProfitOrLoss() {
+        return Money.toDecimal(totalProfitOrLossCents);
+    }
+    @JsonProperty("totalProfitOrLoss")
+    public void setTotalProfitOrLoss(double totalProfitOrLoss) {
+        this.totalProfitOrLossCents = Money.toCents(totalProfitOrLoss);
+    }
+
+    // Averages are rounded to the cent and only serialized
+    @JsonProperty(value = "averageIncome", access = JsonProperty.Access.READ_ONLY)
+    public double getAverageIncome() {
+        return average(totalIncomeCents);
+    }
+
+    @JsonProperty(value = "averageCost", access = JsonProperty.Access.READ_ONLY)
+    public double getAverageCost() {
+        return average(totalCostCents);
+    }
+
+    @JsonProperty(value = "averageProfitOrLoss", access = JsonProperty.Access.READ_ONLY)
+    public double getAverageProfitOrLoss() {
+        return average(totalProfitOrLossCents);
+    }
+
+    private double average(long totalCents) {
+        return calculationCount == 0 ? 0 : Money.toDecimal(Math.round((double) totalCents / calculationCount));
+    }
+
+    // Builder
+    public static CalculationAnalyticsDTOBuilder builder() {
+        return new CalculationAnalyticsDTOBuilder();
+    }
+
+    public static class CalculationAnalyticsDTOBuilder {
+        private long calculationCount;
+        private long totalIncomeCents;
+        private long totalCostCents;
+        private long totalProfitOrLossCents;
+
+        public CalculationAnalyticsDTOBuilder calculationCount(long calculationCount) {
+            this.calculationCount = calculationCount;
+            return this;
+        }
+        public CalculationAnalyticsDTOBuilder totalIncomeCents(long totalIncomeCents) {
+            this.totalIncomeCents = totalIncomeCents;
+            return this;
+        }
+        public CalculationAnalyticsDTOBuilder totalCostCents(long totalCostCents) {
+            this.totalCostCents = totalCostCents;
+            return this;
+        }
+        public CalculationAnalyticsDTOBuilder totalProfitOrLossCents(long totalProfitOrLossCents) {
+            this.totalProfitOrLossCents = totalProfitOrLossCents;
+            return this;
+        }
+
+        public CalculationAnalyticsDTO build() {
+            return new CalculationAnalyticsDTO(calculationCount, totalIncomeCents, totalCostCents, totalProfitOrLossCents);
+        }
+    }
+}
@@ -1,20 +1,28 @@
 package com.example.profitcalculator.dto;
 
+import com.example.profitcalculator.money.Money;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+// The amounts are getter properties, whose order reflection does not guarantee
+@JsonPropertyOrder({"id", "shipmentId", "income", "cost", "profitOrLoss"})
 public class CalculationDTO {
     private Long id;
     private Long shipmentId;
-    private Double income;
-    private Double cost;
-    private Double profitOrLoss;
+    // Amounts in cents; the JSON properties income, cost and profitOrLoss carry them as decimals
+    private long incomeCents;
+    private long costCents;
+    private long profitOrLossCents;
 
     // Constructors
     public CalculationDTO() {}
-    public CalculationDTO(Long id, Long shipmentId, Double income, Double cost, Double profitOrLoss) {
+    public CalculationDTO(Long id, Long shipmentId, long incomeCents, long costCents, long profitOrLossCents) {
         this.id = id;
         this.shipmentId = shipmentId;
-        this.income = income;
-        this.cost = cost;
-        this.profitOrLoss = profitOrLoss;
+        this.incomeCents = incomeCents;
+        this.costCents = costCents;
+        this.profitOrLossCents = profitOrLossCents;
     }
 
     // Getters and Setters
@@ -32,25 +40,55 @@ public class CalculationDTO {
         this.shipmentId = shipmentId;
     }
 
-    public Double getIncome() {
-        return income;
+    @JsonIgnore
+    public long getIncomeCents() {
+        return incomeCents;
+    }
+    public void setIncomeCents(long incomeCents) {
+        this.incomeCents = incomeCents;
+    }
+
+    @JsonProperty("income")
+    public double getIncome() {
+        return Money.toDecimal(incomeCents);
+    }
+    @JsonProperty("income")
+    public void setIncome(double income) {
+        this.incomeCents = Money.toCents(income);
+    }
+
+    @JsonIgnore
+    public long getCostCents() {
+        return costCents;
+    }
+    public void setCostCents(long costCents) {
+        this.costCents = costCents;
+    }
+
+    @JsonProperty("cost")
+    public double getCost() {
+        return Money.toDecimal(costCents);
     }
-    public void setIncome(Double income) {
-        this.income = income;
+    @JsonProperty("cost")
+    public void setCost(double cost) {
+        this.costCents = Money.toCents(cost);
     }
 
-    public Double getCost() {
-        return cost;
+    @JsonIgnore
+    public long getProfitOrLossCents() {
+        return profitOrLossCents;
     }
-    public void setCost(Double cost) {
-        this.cost = cost;
+    public void setProfitOrLossCents(long profitOrLossCents) {
+        this.profitOrLossCents = profitOrLossCents;
     }
 
-    public Double getProfitOrLoss() {
-        return profitOrLoss;
+    @JsonProperty("profitOrLoss")
+    public double getProfitOrLoss() {
+        return Money.toDecimal(profitOrLossCents);
     }
-    public void setProfitOrLoss(Double profitOrLoss) {
-        this.profitOrLoss = profitOrLoss;
+    @JsonProperty("profitOrLoss")
+    public void setProfitOrLoss(double profitOrLoss) {
+        this.profitOrLossCents = Money.toCents(profitOrLoss);
     }
 
 
@@ -62,9 +100,9 @@ public class CalculationDTO {
     public static class CalculationDTOBuilder {
         private Long id;
         private Long shipmentId;
-        private Double income;
-        private Double cost;
-        private Double profitOrLoss;
+        private long incomeCents;
+        private long costCents;
+        private long profitOrLossCents;
 
         public CalculationDTOBuilder id(Long id) {
             this.id = id;
@@ -74,21 +112,21 @@ public class CalculationDTO {
             this.shipmentId = shipmentId;
             return this;
         }
-        public CalculationDTOBuilder income(Double income) {
-            this.income = income;
+        public CalculationDTOBuilder incomeCents(long incomeCents) {
+            this.incomeCents = incomeCents;
             return this;
         }
-        public CalculationDTOBuilder cost(Double cost) {
-            this.cost = cost;
+        public CalculationDTOBuilder costCents(long costCents) {
+            this.costCents = costCents;
             return this;
         }
-        public CalculationDTOBuilder profitOrLoss(Double profitOrLoss) {
-            this.profitOrLoss = profitOrLoss;
+        public CalculationDTOBuilder profitOrLossCents(long profitOrLossCents) {
+            this.profitOrLossCents = profitOrLossCents;
             return this;
         }
 
         public CalculationDTO build() {
-            return new CalculationDTO(id, shipmentId, income, cost, profitOrLoss);
+            return new CalculationDTO(id, shipmentId, incomeCents, costCents, profitOrLossCents);
         }
     }
 }
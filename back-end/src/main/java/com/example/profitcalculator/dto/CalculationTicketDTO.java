@@ -0,0 +1,108 @@
+package com.example.profitcalculator.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Where a calculation accepted with {@code Prefer: respond-async} stands. It is PENDING until the
+ * batch it was written in commits, then COMMITTED with the id of the saved calculation, or FAILED
+ * with the reason it was not saved. It is DURABLE instead of COMMITTED once the batch has also
+ * been forced to disk; see CalculationWriteQueue.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CalculationTicketDTO {
+    public enum Status { PENDING, COMMITTED, DURABLE, FAILED }
+
+    private long ticket;
+    private Long shipmentId;
+    private Status status;
+    private Long calculationId;
+    private String message;
+
+    // Constructors
+    public CalculationTicketDTO() {}
+    public CalculationTicketDTO(long ticket, Long shipmentId, Status status, Long calculationId, String message) {
+        this.ticket = ticket;
+        this.shipmentId = shipmentId;
+        this.status = status;
+        this.calculationId = calculationId;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public long getTicket() {
+        return ticket;
+    }
+    public void setTicket(long ticket) {
+        this.ticket = ticket;
+    }
+
+    public Long getShipmentId() {
+        return shipmentId;
+    }
+    public void setShipmentId(Long shipmentId) {
+        this.shipmentId = shipmentId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Long getCalculationId() {
+        return calculationId;
+    }
+    public void setCalculationId(Long calculationId) {
+        this.calculationId = calculationId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    // Builder
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private long ticket;
+        private Long shipmentId;
+        private Status status;
+        private Long calculationId;
+        private String message;
+
+        public Builder ticket(long ticket) {
+            this.ticket = ticket;
+            return this;
+        }
+
+        public Builder shipmentId(Long shipmentId) {
+            this.shipmentId = shipmentId;
+            return this;
+        }
+
+        public Builder status(Status status) {
+            this.status = status;
+            return this;
+        }
+
+        public Builder calculationId(Long calculationId) {
+            this.calculationId = calculationId;
+            return this;
+        }
+
+        public Builder message(String message) {
+            this.message = message;
+            return this;
+        }
+
+        public CalculationTicketDTO build() {
+            return new CalculationTicketDTO(ticket, shipmentId, status, calculationId, message);
+        }
+    }
+}
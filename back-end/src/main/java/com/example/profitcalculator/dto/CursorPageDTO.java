@@ -0,0 +1,40 @@
+package com.example.profitcalculator.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class CursorPageDTO<T> {
+    private List<T> items;
+    private Long nextCursor;
+
+    // Constructors
+    public CursorPageDTO() {}
+    public CursorPageDTO(List<T> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Builds a page from the rows returned for a keyset query. A full page means there may be
+     * more rows, so the id of its last item becomes the cursor for the next request.
+     */
+    public static <T> CursorPageDTO<T> of(List<T> items, int limit, Function<T, Long> idExtractor) {
+        Long nextCursor = items.size() == limit ? idExtractor.apply(items.get(items.size() - 1)) : null;
+        return new CursorPageDTO<>(items, nextCursor);
+    }
+
+    // Getters and Setters
+    public List<T> getItems() {
+        return items;
+    }
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.profitcalculator.dto;
+
+import java.util.List;
+
+public class ImportReportDTO {
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsRejected;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    // Only the first rejections are listed so the report stays small for any file size
+    private List<RejectedRowDTO> rejectedRows;
+
+    // Constructors
+    public ImportReportDTO() {}
+    public ImportReportDTO(long rowsRead, long rowsImported, long rowsRejected, long elapsedMillis,
+                           double rowsPerSecond, List<RejectedRowDTO> rejectedRows) {
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.rowsRejected = rowsRejected;
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = rowsPerSecond;
+        this.rejectedRows = rejectedRows;
+    }
+
+    // Getters and Setters
+    public long getRowsRead() {
+        return rowsRead;
+    }
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+    public void setRowsImported(long rowsImported) {
+        this.rowsImported = rowsImported;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+    public void setRowsRejected(long rowsRejected) {
+        this.rowsRejected = rowsRejected;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public List<RejectedRowDTO> getRejectedRows() {
+        return rejectedRows;
+    }
+    public void setRejectedRows(List<RejectedRowDTO> rejectedRows) {
+        this.rejectedRows = rejectedRows;
+    }
+
+    // Builder
+    public static ImportReportDTOBuilder builder() {
+        return new ImportReportDTOBuilder();
+    }
+
+    public static class ImportReportDTOBuilder {
+        private long rowsRead;
+        private long rowsImported;
+        private long rowsRejected;
+        private long elapsedMillis;
+        private double rowsPerSecond;
+        private List<RejectedRowDTO> rejectedRows;
+
+        public ImportReportDTOBuilder rowsRead(long rowsRead) {
+            this.rowsRead = rowsRead;
+            return this;
+        }
+        public ImportReportDTOBuilder rowsImported(long rowsImported) {
+            this.rowsImported = rowsImported;
+            return this;
+        }
+        public ImportReportDTOBuilder rowsRejected(long rowsRejected) {
+            this.rowsRejected = rowsRejected;
+            return this;
+        }
+        public ImportReportDTOBuilder elapsedMillis(long elapsedMillis) {
+            this.elapsedMillis = elapsedMillis;
+            return this;
+        }
+        public ImportReportDTOBuilder rowsPerSecond(double rowsPerSecond) {
+            this.rowsPerSecond = rowsPerSecond;
+            return this;
+        }
+        public ImportReportDTOBuilder rejectedRows(List<RejectedRowDTO> rejectedRows) {
+            this.rejectedRows = rejectedRows;
+            return this;
+        }
+
+        public ImportReportDTO build() {
+            return new ImportReportDTO(rowsRead, rowsImported, rowsRejected, elapsedMillis, rowsPerSecond, rejectedRows);
+        }
+    }
+}
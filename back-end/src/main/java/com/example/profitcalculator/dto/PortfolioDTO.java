@@ -0,0 +1,114 @@
+package com.example.profitcalculator.dto;
+
+import java.util.List;
+
+public class PortfolioDTO {
+    private CalculationAnalyticsDTO totals;
+    // Total profit or loss over total income; null while there is no income
+    private Double margin;
+    private long lossMakingCalculationCount;
+    private List<ShipmentSummaryDTO> mostProfitableShipments;
+    private List<ShipmentSummaryDTO> leastProfitableShipments;
+    private List<ProfitBucketDTO> profitHistogram;
+
+    // Constructors
+    public PortfolioDTO() {}
+    public PortfolioDTO(CalculationAnalyticsDTO totals, Double margin, long lossMakingCalculationCount,
+                        List<ShipmentSummaryDTO> mostProfitableShipments,
+                        List<ShipmentSummaryDTO> leastProfitableShipments,
+                        List<ProfitBucketDTO> profitHistogram) {
+        this.totals = totals;
+        this.margin = margin;
+        this.lossMakingCalculationCount = lossMakingCalculationCount;
+        this.mostProfitableShipments = mostProfitableShipments;
+        this.leastProfitableShipments = leastProfitableShipments;
+        this.profitHistogram = profitHistogram;
+    }
+
+    // Getters and Setters
+    public CalculationAnalyticsDTO getTotals() {
+        return totals;
+    }
+    public void setTotals(CalculationAnalyticsDTO totals) {
+        this.totals = totals;
+    }
+
+    public Double getMargin() {
+        return margin;
+    }
+    public void setMargin(Double margin) {
+        this.margin = margin;
+    }
+
+    public long getLossMakingCalculationCount() {
+        return lossMakingCalculationCount;
+    }
+    public void setLossMakingCalculationCount(long lossMakingCalculationCount) {
+        this.lossMakingCalculationCount = lossMakingCalculationCount;
+    }
+
+    public List<ShipmentSummaryDTO> getMostProfitableShipments() {
+        return mostProfitableShipments;
+    }
+    public void setMostProfitableShipments(List<ShipmentSummaryDTO> mostProfitableShipments) {
+        this.mostProfitableShipments = mostProfitableShipments;
+    }
+
+    public List<ShipmentSummaryDTO> getLeastProfitableShipments() {
+        return leastProfitableShipments;
+    }
+    public void setLeastProfitableShipments(List<ShipmentSummaryDTO> leastProfitableShipments) {
+        this.leastProfitableShipments = leastProfitableShipments;
+    }
+
+    public List<ProfitBucketDTO> getProfitHistogram() {
+        return profitHistogram;
+    }
+    public void setProfitHistogram(List<ProfitBucketDTO> profitHistogram) {
+        this.profitHistogram = profitHistogram;
+    }
+
+    // Builder
+    public static PortfolioDTOBuilder builder() {
+        return new PortfolioDTOBuilder();
+    }
+
+    public static class PortfolioDTOBuilder {
+        private CalculationAnalyticsDTO totals;
+        private Double margin;
+        private long lossMakingCalculationCount;
+        private List<ShipmentSummaryDTO> mostProfitableShipments;
+        private List<ShipmentSummaryDTO> leastProfitableShipments;
+        private List<ProfitBucketDTO> profitHistogram;
+
+        public PortfolioDTOBuilder totals(CalculationAnalyticsDTO totals) {
+            this.totals = totals;
+            return this;
+        }
+        public PortfolioDTOBuilder margin(Double margin) {
+            this.margin = margin;
+            return this;
+        }
+        public PortfolioDTOBuilder lossMakingCalculationCount(long lossMakingCalculationCount) {
+            this.lossMakingCalculationCount = lossMakingCalculationCount;
+            return this;
+        }
+        public PortfolioDTOBuilder mostProfitableShipments(List<ShipmentSummaryDTO> mostProfitableShipments) {
+            this.mostProfitableShipments = mostProfitableShipments;
+            return this;
+        }
+        public PortfolioDTOBuilder leastProfitableShipments(List<ShipmentSummaryDTO> leastProfitableShipments) {
+            this.leastProfitableShipments = leastProfitableShipments;
+            return this;
+        }
+        public PortfolioDTOBuilder profitHistogram(List<ProfitBucketDTO> profitHistogram) {
+            this.profitHistogram = profitHistogram;
+            return this;
+        }
+
+        public PortfolioDTO build() {
+            return new PortfolioDTO(totals, margin, lossMakingCalculationCount, mostProfitableShipments,
+                    leastProfitableShipments, profitHistogram);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.profitcalculator.dto;
+
+import com.example.profitcalculator.money.Money;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class ProfitBucketDTO {
+    // Bounds in cents; from is inclusive, to exclusive. The JSON properties carry them as decimals
+    private long fromProfitOrLossCents;
+    private long toProfitOrLossCents;
+    private long calculationCount;
+
+    // Constructors
+    public ProfitBucketDTO() {}
+    public ProfitBucketDTO(long fromProfitOrLossCents, long toProfitOrLossCents, long calculationCount) {
+        this.fromProfitOrLossCents = fromProfitOrLossCents;
+        this.toProfitOrLossCents = toProfitOrLossCents;
+        this.calculationCount = calculationCount;
+    }
+
+    // Getters and Setters
+    @JsonIgnore
+    public long getFromProfitOrLossCents() {
+        return fromProfitOrLossCents;
+    }
+    public void setFromProfitOrLossCents(long fromProfitOrLossCents) {
+        this.fromProfitOrLossCents = fromProfitOrLossCents;
+    }
+
+    @JsonProperty("fromProfitOrLoss")
+    public double getFromProfitOrLoss() {
+        return Money.toDecimal(fromProfitOrLossCents);
+    }
+    @JsonProperty("fromProfitOrLoss")
+    public void setFromProfitOrLoss(double fromProfitOrLoss) {
+        this.fromProfitOrLossCents = Money.toCents(fromProfitOrLoss);
+    }
+
+    @JsonIgnore
+    public long getToProfitOrLossCents() {
+        return toProfitOrLossCents;
+    }
+    public void setToProfitOrLossCents(long toProfitOrLossCents) {
+        this.toProfitOrLossCents = toProfitOrLossCents;
+    }
+
+    @JsonProperty("toProfitOrLoss")
+    public double getToProfitOrLoss() {
+        return Money.toDecimal(toProfitOrLossCents);
+    }
+    @JsonProperty("toProfitOrLoss")
+    public void setToProfitOrLoss(double toProfitOrLoss) {
+        this.toProfitOrLossCents = Money.toCents(toProfitOrLoss);
+    }
+
+    public long getCalculationCount() {
+        return calculationCount;
+    }
+    public void setCalculationCount(long calculationCount) {
+        this.calculationCount = calculationCount;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.profitcalculator.dto;
+
+public class RejectedRowDTO {
+    private long line;
+    private String reason;
+
+    // Constructors
+    public RejectedRowDTO() {}
+    public RejectedRowDTO(long line, String reason) {
+        this.line = line;
+        this.reason = reason;
+    }
+
+    // Getters and Setters
+    public long getLine() {
+        return line;
+    }
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
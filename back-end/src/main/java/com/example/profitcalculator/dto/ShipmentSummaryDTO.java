@@ -0,0 +1,129 @@
+package com.example.profitcalculator.dto;
+
+import com.example.profitcalculator.money.Money;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class ShipmentSummaryDTO {
+    private Long shipmentId;
+    private long calculationCount;
+    // Amounts in cents; the JSON properties carry them as decimals
+    private long totalIncomeCents;
+    private long totalCostCents;
+    private long totalProfitOrLossCents;
+
+    // Constructors
+    public ShipmentSummaryDTO() {}
+    public ShipmentSummaryDTO(Long shipmentId, long calculationCount, long totalIncomeCents,
+                              long totalCostCents, long totalProfitOrLossCents) {
+        this.shipmentId = shipmentId;
+        this.calculationCount = calculationCount;
+        this.totalIncomeCents = totalIncomeCents;
+        this.totalCostCents = totalCostCents;
+        this.totalProfitOrLossCents = totalProfitOrLossCents;
+    }
+
+    // Getters and Setters
+    public Long getShipmentId() {
+        return shipmentId;
+    }
+    public void setShipmentId(Long shipmentId) {
+        this.shipmentId = shipmentId;
+    }
+
+    public long getCalculationCount() {
+        return calculationCount;
+    }
+    public void setCalculationCount(long calculationCount) {
+        this.calculationCount = calculationCount;
+    }
+
+    @JsonIgnore
+    public long getTotalIncomeCents() {
+        return totalIncomeCents;
+    }
+    public void setTotalIncomeCents(long totalIncomeCents) {
+        this.totalIncomeCents = totalIncomeCents;
+    }
+
+    @JsonProperty("totalIncome")
+    public double getTotalIncome() {
+        return Money.toDecimal(totalIncomeCents);
+    }
+    @JsonProperty("totalIncome")
+    public void setTotalIncome(double totalIncome) {
+        this.totalIncomeCents = Money.toCents(totalIncome);
+    }
+
+    @JsonIgnore
+    public long getTotalCostCents() {
+        return totalCostCents;
+    }
+    public void setTotalCostCents(long totalCostCents) {
+        this.totalCostCents = totalCostCents;
+    }
+
+    @JsonProperty("totalCost")
+    public double getTotalCost() {
+        return Money.toDecimal(totalCostCents);
+    }
+    @JsonProperty("totalCost")
+    public void setTotalCost(double totalCost) {
+        this.totalCostCents = Money.toCents(totalCost);
+    }
+
+    @JsonIgnore
+    public long getTotalProfitOrLossCents() {
+        return totalProfitOrLossCents;
+    }
+    public void setTotalProfitOrLossCents(long totalProfitOrLossCents) {
+        this.totalProfitOrLossCents = totalProfitOrLossCents;
+    }
+
+    @JsonProperty("totalProfitOrLoss")
+    public double getTotalProfitOrLoss() {
+        return Money.toDecimal(totalProfitOrLossCents);
+    }
+    @JsonProperty("totalProfitOrLoss")
+    public void setTotalProfitOrLoss(double totalProfitOrLoss) {
+        this.totalProfitOrLossCents = Money.toCents(totalProfitOrLoss);
+    }
+
+    // Builder
+    public static ShipmentSummaryDTOBuilder builder() {
+        return new ShipmentSummaryDTOBuilder();
+    }
+
+    public static class ShipmentSummaryDTOBuilder {
+        private Long shipmentId;
+        private long calculationCount;
+        private long totalIncomeCents;
+        private long totalCostCents;
+        private long totalProfitOrLossCents;
+
+        public ShipmentSummaryDTOBuilder shipmentId(Long shipmentId) {
+            this.shipmentId = shipmentId;
+            return this;
+        }
+        public ShipmentSummaryDTOBuilder calculationCount(long calculationCount) {
+            this.calculationCount = calculationCount;
+            return this;
+        }
+        public ShipmentSummaryDTOBuilder totalIncomeCents(long totalIncomeCents) {
+            this.totalIncomeCents = totalIncomeCents;
+            return this;
+        }
+        public ShipmentSummaryDTOBuilder totalCostCents(long totalCostCents) {
+            this.totalCostCents = totalCostCents;
+            return this;
+        }
+        public ShipmentSummaryDTOBuilder totalProfitOrLossCents(long totalProfitOrLossCents) {
+            this.totalProfitOrLossCents = totalProfitOrLossCents;
+            return this;
+        }
+
+        public ShipmentSummaryDTO build() {
+            return new ShipmentSummaryDTO(shipmentId, calculationCount, totalIncomeCents, totalCostCents, totalProfitOrLossCents);
+        }
+    }
+}
@@ -1,30 +1,37 @@
 package com.example.profitcalculator.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+// Never updated in place, only inserted and deleted, so cached copies cannot go stale
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Calculation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "calculation_seq")
+    @SequenceGenerator(name = "calculation_seq", sequenceName = "calculation_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "shipment_id", nullable = false)
     private Shipment shipment;
 
-    private Double income;
-    private Double cost;
-    private Double profitOrLoss;
+    // Amounts in cents, see Money
+    private long incomeCents;
+    private long costCents;
+    private long profitOrLossCents;
 
     // Constructors
     public Calculation() {}
-    public Calculation(Long id, Shipment shipment, Double income, Double cost, Double profitOrLoss) {
+    public Calculation(Long id, Shipment shipment, long incomeCents, long costCents, long profitOrLossCents) {
         this.id = id;
         this.shipment = shipment;
-        this.income = income;
-        this.cost = cost;
-        this.profitOrLoss = profitOrLoss;
+        this.incomeCents = incomeCents;
+        this.costCents = costCents;
+        this.profitOrLossCents = profitOrLossCents;
     }
 
     // Getters and Setters
@@ -42,25 +49,25 @@ public class Calculation {
         this.shipment = shipment;
     }
 
-    public Double getIncome() {
-        return income;
+    public long getIncomeCents() {
+        return incomeCents;
     }
-    public void setIncome(Double income) {
-        this.income = income;
+    public void setIncomeCents(long incomeCents) {
+        this.incomeCents = incomeCents;
     }
 
-    public Double getCost() {
-        return cost;
+    public long getCostCents() {
+        return costCents;
     }
-    public void setCost(Double cost) {
-        this.cost = cost;
+    public void setCostCents(long costCents) {
+        this.costCents = costCents;
     }
 
-    public Double getProfitOrLoss() {
-        return profitOrLoss;
+    public long getProfitOrLossCents() {
+        return profitOrLossCents;
     }
-    public void setProfitOrLoss(Double profitOrLoss) {
-        this.profitOrLoss = profitOrLoss;
+    public void setProfitOrLossCents(long profitOrLossCents) {
+        this.profitOrLossCents = profitOrLossCents;
     }
 
     // Builder
@@ -71,9 +78,10 @@ public class Calculation {
     public static class CalculationBuilder {
         private Long id;
         private Shipment shipment;
-        private Double income;
-        private Double cost;
-        private Double profitOrLoss;
+        // Amounts in cents, see Money
+        private long incomeCents;
+        private long costCents;
+        private long profitOrLossCents;
 
         public CalculationBuilder id(Long id) {
             this.id = id;
@@ -85,23 +93,23 @@ public class Calculation {
             return this;
         }
 
-        public CalculationBuilder income(Double income) {
-            this.income = income;
+        public CalculationBuilder incomeCents(long incomeCents) {
+            this.incomeCents = incomeCents;
             return this;
         }
 
-        public CalculationBuilder cost(Double cost) {
-            this.cost = cost;
+        public CalculationBuilder costCents(long costCents) {
+            this.costCents = costCents;
             return this;
         }
 
-        public CalculationBuilder profitOrLoss(Double profitOrLoss) {
-            this.profitOrLoss = profitOrLoss;
+        public CalculationBuilder profitOrLossCents(long profitOrLossCents) {
+            this.profitOrLossCents = profitOrLossCents;
             return this;
         }
 
         public Calculation build() {
-            return new Calculation(id, shipment, income, cost, profitOrLoss);
+            return new Calculation(id, shipment, incomeCents, costCents, profitOrLossCents);
         }
     }
 }
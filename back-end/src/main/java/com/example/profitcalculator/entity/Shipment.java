@@ -1,24 +1,57 @@
 package com.example.profitcalculator.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.List;
 
+// Cached in the second-level cache; the native totals UPDATEs in ShipmentRepository declare
+// the shipment table as their query space so they evict it
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Shipment {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToMany(mappedBy = "shipment", cascade = CascadeType.ALL, orphanRemoval = true)
+    // No JPA cascade: removing a shipment through Hibernate would load and delete every
+    // calculation one by one, while the foreign key's ON DELETE CASCADE does it in the database
+    @OneToMany(mappedBy = "shipment")
     private List<Calculation> calculations;
 
+    // Running totals, amounts in cents, and the version they are at; only ever changed through
+    // ShipmentRepository.addToTotals and subtractCalculation
+    @Column(insertable = false, updatable = false)
+    private long version;
+
+    @Column(insertable = false, updatable = false)
+    private long calculationCount;
+
+    @Column(insertable = false, updatable = false)
+    private long totalIncomeCents;
+
+    @Column(insertable = false, updatable = false)
+    private long totalCostCents;
+
+    @Column(insertable = false, updatable = false)
+    private long totalProfitOrLossCents;
+
     // Constructors
     public Shipment() {}
     public Shipment(Long id, List<Calculation> calculations) {
         this.id = id;
         this.calculations = calculations;
     }
+    public Shipment(Long id, List<Calculation> calculations, long calculationCount,
+                    long totalIncomeCents, long totalCostCents, long totalProfitOrLossCents) {
+        this(id, calculations);
+        this.calculationCount = calculationCount;
+        this.totalIncomeCents = totalIncomeCents;
+        this.totalCostCents = totalCostCents;
+        this.totalProfitOrLossCents = totalProfitOrLossCents;
+    }
 
     // Getters and Setters
     public Long getId() {
@@ -35,6 +68,41 @@ public class Shipment {
         this.calculations = calculations;
     }
 
+    public long getVersion() {
+        return version;
+    }
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public long getCalculationCount() {
+        return calculationCount;
+    }
+    public void setCalculationCount(long calculationCount) {
+        this.calculationCount = calculationCount;
+    }
+
+    public long getTotalIncomeCents() {
+        return totalIncomeCents;
+    }
+    public void setTotalIncomeCents(long totalIncomeCents) {
+        this.totalIncomeCents = totalIncomeCents;
+    }
+
+    public long getTotalCostCents() {
+        return totalCostCents;
+    }
+    public void setTotalCostCents(long totalCostCents) {
+        this.totalCostCents = totalCostCents;
+    }
+
+    public long getTotalProfitOrLossCents() {
+        return totalProfitOrLossCents;
+    }
+    public void setTotalProfitOrLossCents(long totalProfitOrLossCents) {
+        this.totalProfitOrLossCents = totalProfitOrLossCents;
+    }
+
     // Builder
     public static ShipmentBuilder builder() {
         return new ShipmentBuilder();
@@ -43,6 +111,10 @@ public class Shipment {
     public static class ShipmentBuilder {
         private Long id;
         private List<Calculation> calculations;
+        private long calculationCount;
+        private long totalIncomeCents;
+        private long totalCostCents;
+        private long totalProfitOrLossCents;
 
         public ShipmentBuilder id(Long id) {
             this.id = id;
@@ -54,8 +126,28 @@ public class Shipment {
             return this;
         }
 
+        public ShipmentBuilder calculationCount(long calculationCount) {
+            this.calculationCount = calculationCount;
+            return this;
+        }
+
+        public ShipmentBuilder totalIncomeCents(long totalIncomeCents) {
+            this.totalIncomeCents = totalIncomeCents;
+            return this;
+        }
+
+        public ShipmentBuilder totalCostCents(long totalCostCents) {
+            this.totalCostCents = totalCostCents;
+            return this;
+        }
+
+        public ShipmentBuilder totalProfitOrLossCents(long totalProfitOrLossCents) {
+            this.totalProfitOrLossCents = totalProfitOrLossCents;
+            return this;
+        }
+
         public Shipment build() {
-            return new Shipment(id, calculations);
+            return new Shipment(id, calculations, calculationCount, totalIncomeCents, totalCostCents, totalProfitOrLossCents);
         }
     }
 }
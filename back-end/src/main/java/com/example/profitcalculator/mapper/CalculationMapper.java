@@ -16,9 +16,9 @@ public class CalculationMapper {
         return CalculationDTO.builder()
                 .id(calculation.getId())
                 .shipmentId(calculation.getShipment() != null ? calculation.getShipment().getId() : null)
-                .income(calculation.getIncome())
-                .cost(calculation.getCost())
-                .profitOrLoss(calculation.getProfitOrLoss())
+                .incomeCents(calculation.getIncomeCents())
+                .costCents(calculation.getCostCents())
+                .profitOrLossCents(calculation.getProfitOrLossCents())
                 .build();
     }
 
@@ -29,9 +29,9 @@ public class CalculationMapper {
         return Calculation.builder()
                 .id(dto.getId())
                 .shipment(shipment)
-                .income(dto.getIncome())
-                .cost(dto.getCost())
-                .profitOrLoss(dto.getProfitOrLoss())
+                .incomeCents(dto.getIncomeCents())
+                .costCents(dto.getCostCents())
+                .profitOrLossCents(dto.getProfitOrLossCents())
                 .build();
     }
 }
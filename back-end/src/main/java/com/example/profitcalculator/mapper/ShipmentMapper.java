@@ -3,6 +3,7 @@ package com.example.profitcalculator.mapper;
 import org.springframework.stereotype.Component;
 
 import com.example.profitcalculator.dto.ShipmentDTO;
+import com.example.profitcalculator.dto.ShipmentSummaryDTO;
 import com.example.profitcalculator.entity.Shipment;
 
 @Component
@@ -17,6 +18,19 @@ public class ShipmentMapper {
                 .build();
     }
 
+    public ShipmentSummaryDTO toSummaryDTO(Shipment shipment) {
+        if (shipment == null) {
+            return null;
+        }
+        return ShipmentSummaryDTO.builder()
+                .shipmentId(shipment.getId())
+                .calculationCount(shipment.getCalculationCount())
+                .totalIncomeCents(shipment.getTotalIncomeCents())
+                .totalCostCents(shipment.getTotalCostCents())
+                .totalProfitOrLossCents(shipment.getTotalProfitOrLossCents())
+                .build();
+    }
+
     public Shipment toEntity(ShipmentDTO dto) {
         if (dto == null) {
             return null;
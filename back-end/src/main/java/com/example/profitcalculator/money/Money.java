@@ -0,0 +1,102 @@
+package com.example.profitcalculator.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Amounts are held as a {@code long} number of cents everywhere below the API, so they are
+ * exact, sum without drift and need no boxing. These helpers convert at the edges: JSON, CSV
+ * and the import. Conversions to cents round to the nearest cent, ties to even.
+ */
+public final class Money {
+    public static final int CENTS_PER_UNIT = 100;
+
+    // Beyond this a double can no longer tell neighbouring cents apart
+    static final double MAX_AMOUNT = (1L << 53) / (double) CENTS_PER_UNIT;
+
+    // Sixteen integer digits plus the cents still fit in a long
+    private static final int MAX_FAST_DIGITS = 16;
+
+    private Money() {}
+
+    public static long toCents(double amount) {
+        if (!(Math.abs(amount) <= MAX_AMOUNT)) {
+            throw new IllegalArgumentException("Amount out of range: " + amount);
+        }
+        return (long) Math.rint(amount * CENTS_PER_UNIT);
+    }
+
+    /**
+     * Returns the double closest to the decimal amount, which prints as that decimal, e.g.
+     * 1234 cents as 12.34.
+     */
+    public static double toDecimal(long cents) {
+        return cents / (double) CENTS_PER_UNIT;
+    }
+
+    /**
+     * Parses a decimal amount such as {@code -12.5} straight into cents. Plain decimals with at
+     * most two fraction digits are parsed digit by digit; anything else, such as {@code 1.5E3}
+     * or more fraction digits, goes through {@link BigDecimal}.
+     *
+     * @throws NumberFormatException if the text is not a number
+     * @throws ArithmeticException if the amount does not fit in a long number of cents
+     */
+    public static long parseCents(String text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            i++;
+        }
+
+        long units = 0;
+        int unitDigits = 0;
+        while (i < length && isDigit(text.charAt(i)) && unitDigits < MAX_FAST_DIGITS) {
+            units = units * 10 + (text.charAt(i++) - '0');
+            unitDigits++;
+        }
+        long fraction = 0;
+        int fractionDigits = 0;
+        if (i < length && text.charAt(i) == '.') {
+            i++;
+            while (i < length && isDigit(text.charAt(i)) && fractionDigits < 2) {
+                fraction = fraction * 10 + (text.charAt(i++) - '0');
+                fractionDigits++;
+            }
+        }
+        if (i != length || unitDigits + fractionDigits == 0) {
+            return new BigDecimal(text).setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+        }
+
+        long cents = units * CENTS_PER_UNIT + (fractionDigits == 1 ? fraction * 10 : fraction);
+        return negative ? -cents : cents;
+    }
+
+    /**
+     * Formats cents as a plain decimal with one or two fraction digits, e.g. 100.0 or -12.34.
+     */
+    public static String format(long cents) {
+        long units = cents / CENTS_PER_UNIT;
+        int fraction = (int) Math.abs(cents % CENTS_PER_UNIT);
+        StringBuilder text = new StringBuilder(24);
+        if (cents < 0 && units == 0) {
+            text.append('-');
+        }
+        text.append(units).append('.');
+        if (fraction % 10 == 0) {
+            text.append(fraction / 10);
+        } else {
+            if (fraction < 10) {
+                text.append('0');
+            }
+            text.append(fraction);
+        }
+        return text.toString();
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
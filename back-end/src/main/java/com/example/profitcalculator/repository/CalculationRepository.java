@@ -1,11 +1,114 @@
 package com.example.profitcalculator.repository;
 
+import com.example.profitcalculator.dto.CalculationAnalyticsDTO;
+import com.example.profitcalculator.dto.CalculationDTO;
 import com.example.profitcalculator.entity.Calculation;
-import com.example.profitcalculator.entity.Shipment;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface CalculationRepository extends JpaRepository<Calculation, Long> {
-    List<Calculation> findByShipment(Shipment shipment);
+    String BY_SHIPMENT_CACHE_REGION = "calculations-by-shipment";
+
+    /**
+     * The shipment's calculations in id order, built as DTOs from the result set by a constructor
+     * expression. No entity is loaded, so there is nothing to snapshot for dirty checking and the
+     * persistence context stays empty. The shipment id is read from the foreign key, without a
+     * join. Results are kept in the {@value #BY_SHIPMENT_CACHE_REGION} query cache region, where a
+     * hit holds the row values rather than ids to resolve one by one. Hibernate invalidates it
+     * whenever the calculation table is written, so creates and deletes are visible on the next
+     * read.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = BY_SHIPMENT_CACHE_REGION)
+    })
+    @Query("SELECT new com.example.profitcalculator.dto.CalculationDTO("
+            + "c.id, c.shipment.id, c.incomeCents, c.costCents, c.profitOrLossCents) "
+            + "FROM Calculation c WHERE c.shipment.id = :shipmentId ORDER BY c.id")
+    List<CalculationDTO> findDTOsByShipmentId(@Param("shipmentId") Long shipmentId);
+
+    /**
+     * The shipment's calculations after the {@code after} cursor, a keyset page over the
+     * (shipment_id, id) index; see {@link #findDTOsByShipmentId}.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = BY_SHIPMENT_CACHE_REGION)
+    })
+    @Query("SELECT new com.example.profitcalculator.dto.CalculationDTO("
+            + "c.id, c.shipment.id, c.incomeCents, c.costCents, c.profitOrLossCents) "
+            + "FROM Calculation c WHERE c.shipment.id = :shipmentId AND c.id > :after ORDER BY c.id")
+    List<CalculationDTO> findDTOPageByShipmentId(@Param("shipmentId") Long shipmentId, @Param("after") Long after,
+                                                 Pageable pageable);
+
+    /**
+     * Streams every calculation in id order. The JDBC driver fetches {@value #STREAM_FETCH_SIZE}
+     * rows at a time, the entities are not snapshotted for dirty checking and they bypass the
+     * second-level cache, which a full scan would only flush. The stream must be consumed and
+     * closed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<Calculation> streamAllByOrderByIdAsc();
+
+    String STREAM_FETCH_SIZE = "1000";
+
+    @Modifying
+    @Query("DELETE FROM Calculation c WHERE c.id = :id AND c.shipment.id = :shipmentId")
+    int deleteByIdAndShipmentId(@Param("id") Long id, @Param("shipmentId") Long shipmentId);
+
+    /**
+     * Count and totals of the calculations whose profit or loss lies between the two bounds, both
+     * inclusive, summed by the database. There is no index on the profit, so this reads the whole
+     * table.
+     */
+    @Query("SELECT new com.example.profitcalculator.dto.CalculationAnalyticsDTO("
+            + "COUNT(c), COALESCE(SUM(c.incomeCents), 0), COALESCE(SUM(c.costCents), 0), "
+            + "COALESCE(SUM(c.profitOrLossCents), 0)) "
+            + "FROM Calculation c WHERE c.profitOrLossCents BETWEEN :min AND :max")
+    CalculationAnalyticsDTO sumForProfitBetween(@Param("min") long minProfitOrLossCents,
+                                                @Param("max") long maxProfitOrLossCents);
+
+    @Query("SELECT COUNT(c) AS calculations, "
+            + "COALESCE(SUM(CASE WHEN c.profitOrLossCents < 0 THEN 1 ELSE 0 END), 0) AS losses, "
+            + "MIN(c.profitOrLossCents) AS lowest, MAX(c.profitOrLossCents) AS highest FROM Calculation c")
+    ProfitRange findProfitRange();
+
+    /**
+     * The number of calculations per profit bucket of the given width, counted from
+     * {@code lowest}. Buckets without calculations are left out.
+     */
+    @Query(value = "SELECT bucket, COUNT(*) AS calculations FROM "
+            + "(SELECT (profit_or_loss_cents - :lowest) / :width AS bucket FROM calculation) "
+            + "GROUP BY bucket", nativeQuery = true)
+    List<ProfitBucket> countPerProfitBucket(@Param("lowest") long lowestCents, @Param("width") long widthCents);
+
+    interface ProfitRange {
+        long getCalculations();
+
+        long getLosses();
+
+        // Null when there are no calculations
+        Long getLowest();
+
+        Long getHighest();
+    }
+
+    interface ProfitBucket {
+        long getBucket();
+
+        long getCalculations();
+    }
 }
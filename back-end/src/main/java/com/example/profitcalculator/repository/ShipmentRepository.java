@@ -1,6 +1,102 @@
 package com.example.profitcalculator.repository;
 
+import com.example.profitcalculator.dto.ShipmentDTO;
 import com.example.profitcalculator.entity.Shipment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface ShipmentRepository extends JpaRepository<Shipment, Long> {}
+import java.util.Collection;
+import java.util.List;
+
+public interface ShipmentRepository extends JpaRepository<Shipment, Long> {
+    /**
+     * The shipments after the {@code after} cursor in id order. A constructor expression builds
+     * the DTOs from the result set, so no entity is loaded and nothing is snapshotted for dirty
+     * checking.
+     */
+    @Query("SELECT new com.example.profitcalculator.dto.ShipmentDTO(s.id) FROM Shipment s "
+            + "WHERE s.id > :after ORDER BY s.id")
+    List<ShipmentDTO> findDTOPage(@Param("after") Long after, Pageable pageable);
+
+    @Query("SELECT new com.example.profitcalculator.dto.ShipmentDTO(s.id) FROM Shipment s ORDER BY s.id")
+    List<ShipmentDTO> findAllDTOs();
+
+    /**
+     * Shipments with more than {@code count} calculations, most profitable first. Ordered by the
+     * running totals, so no calculation is read.
+     */
+    List<Shipment> findByCalculationCountGreaterThanOrderByTotalProfitOrLossCentsDescIdAsc(long count, Pageable pageable);
+
+    List<Shipment> findByCalculationCountGreaterThanOrderByTotalProfitOrLossCentsAscIdAsc(long count, Pageable pageable);
+
+    /**
+     * Adjusts the running totals in a single UPDATE so concurrent writers serialize on the
+     * shipment row instead of overwriting each other's read-modify-write. The amounts are in
+     * cents. The query space limits the second-level cache invalidation to shipments; without it
+     * Hibernate would clear every region on each native write. Bumps the version, as the
+     * shipment's calculations changed.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "shipment"))
+    @Query(value = "UPDATE shipment SET version = version + 1, "
+            + "calculation_count = calculation_count + :count, "
+            + "total_income_cents = total_income_cents + :incomeCents, "
+            + "total_cost_cents = total_cost_cents + :costCents, "
+            + "total_profit_or_loss_cents = total_profit_or_loss_cents + :profitOrLossCents "
+            + "WHERE id = :id", nativeQuery = true)
+    int addToTotals(@Param("id") Long id,
+                    @Param("count") long count,
+                    @Param("incomeCents") long incomeCents,
+                    @Param("costCents") long costCents,
+                    @Param("profitOrLossCents") long profitOrLossCents);
+
+    /**
+     * Removes one calculation's amounts from the totals of the shipment it belongs to. Matches no
+     * row when the calculation does not exist or belongs to another shipment.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "shipment"))
+    @Query(value = "UPDATE shipment SET version = version + 1, "
+            + "calculation_count = calculation_count - 1, "
+            + "total_income_cents = total_income_cents - "
+            + "(SELECT c.income_cents FROM calculation c WHERE c.id = :calculationId), "
+            + "total_cost_cents = total_cost_cents - "
+            + "(SELECT c.cost_cents FROM calculation c WHERE c.id = :calculationId), "
+            + "total_profit_or_loss_cents = total_profit_or_loss_cents - "
+            + "(SELECT c.profit_or_loss_cents FROM calculation c WHERE c.id = :calculationId) "
+            + "WHERE id = :shipmentId "
+            + "AND EXISTS (SELECT 1 FROM calculation c WHERE c.id = :calculationId AND c.shipment_id = :shipmentId)",
+            nativeQuery = true)
+    int subtractCalculation(@Param("shipmentId") Long shipmentId, @Param("calculationId") Long calculationId);
+
+    /**
+     * Deletes the shipment; the foreign key's ON DELETE CASCADE removes its calculations. Native so
+     * the calculation table can be declared as a query space too, which evicts the calculations
+     * the database removed behind Hibernate's back from the second-level cache.
+     */
+    @Modifying
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "shipment"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "calculation")
+    })
+    @Query(value = "DELETE FROM shipment WHERE id = :id", nativeQuery = true)
+    int deleteShipmentById(@Param("id") Long id);
+
+    /**
+     * Set-based variant of {@link #deleteShipmentById}: one DELETE for all the shipments, with
+     * the database cascading to their calculations. Ids that match no shipment are ignored.
+     */
+    @Modifying
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "shipment"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "calculation")
+    })
+    @Query(value = "DELETE FROM shipment WHERE id IN (:ids)", nativeQuery = true)
+    int deleteShipmentsByIdIn(@Param("ids") Collection<Long> ids);
+}
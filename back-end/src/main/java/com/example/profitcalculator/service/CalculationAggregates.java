@@ -0,0 +1,63 @@
+package com.example.profitcalculator.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import com.example.profitcalculator.dto.CalculationAnalyticsDTO;
+import com.example.profitcalculator.repository.CalculationRepository;
+
+/**
+ * Aggregates over the calculations of all shipments. With {@code profit.analytics.columns.enabled}
+ * they come from {@link CalculationColumns}, which holds every row on the heap. Without it the
+ * database computes them, reading the calculation table on every call but keeping nothing per row
+ * in memory, so the dataset can outgrow the heap.
+ */
+@Service
+public class CalculationAggregates {
+
+    // Null when the column store is off
+    private final CalculationColumns calculationColumns;
+    private final CalculationRepository calculationRepository;
+
+    public CalculationAggregates(ObjectProvider<CalculationColumns> calculationColumns,
+                                 CalculationRepository calculationRepository) {
+        this.calculationColumns = calculationColumns.getIfAvailable();
+        this.calculationRepository = calculationRepository;
+    }
+
+    public CalculationAnalyticsDTO totals() {
+        if (calculationColumns != null) {
+            return calculationColumns.totals();
+        }
+        return calculationRepository.sumForProfitBetween(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Count and totals of the calculations whose profit or loss lies between the two bounds,
+     * both inclusive.
+     */
+    public CalculationAnalyticsDTO totalsForProfitBetween(long minProfitOrLossCents, long maxProfitOrLossCents) {
+        if (calculationColumns != null) {
+            return calculationColumns.totalsForProfitBetween(minProfitOrLossCents, maxProfitOrLossCents);
+        }
+        return calculationRepository.sumForProfitBetween(minProfitOrLossCents, maxProfitOrLossCents);
+    }
+
+    public ProfitDistribution profitDistribution(int buckets) {
+        if (calculationColumns != null) {
+            return calculationColumns.profitDistribution(buckets);
+        }
+        CalculationRepository.ProfitRange range = calculationRepository.findProfitRange();
+        if (range.getCalculations() == 0) {
+            return new ProfitDistribution(0, 0, 1, new long[0]);
+        }
+        long width = ProfitDistribution.bucketWidth(range.getLowest(), range.getHighest(), buckets);
+        long[] counts = new long[buckets];
+        for (CalculationRepository.ProfitBucket bucket : calculationRepository.countPerProfitBucket(range.getLowest(), width)) {
+            // The two queries are separate reads, so a row written in between can fall outside the range
+            int index = (int) Math.max(0, Math.min(buckets - 1, bucket.getBucket()));
+            counts[index] += bucket.getCalculations();
+        }
+        return new ProfitDistribution(range.getLosses(), range.getLowest(), width, counts);
+    }
+}
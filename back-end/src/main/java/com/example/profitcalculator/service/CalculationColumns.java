@@ -0,0 +1,402 @@
+package com.example.profitcalculator.service;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.profitcalculator.dto.CalculationAnalyticsDTO;
+import com.example.profitcalculator.entity.Calculation;
+
+/**
+ * A read-only copy of the calculation table in primitive columns, for aggregates across shipments.
+ * Each row takes 32 bytes: id, shipment id, income and cost cents. Profit is income minus cost
+ * and is computed in the loops.
+ *
+ * <p>The columns are loaded once before the application takes requests. After that they follow
+ * the committed {@link CalculationEvent}s and {@link ShipmentsDeletedEvent}s. Rows are kept in id
+ * order, so a delete finds its row by binary search. Deleted rows stay in place, marked, until they
+ * make up half of the columns, and are then compacted away. Totals over all rows are kept
+ * up to date on every change and cost nothing to read. Aggregates over a profit range scan the
+ * columns; the profit distribution scans them in parallel, in slices of
+ * {@value #PARALLEL_SCAN_ROWS} rows on the common fork-join pool.
+ *
+ * <p>Scans take the array references and the row count under the read lock and run without it, so
+ * a scan of millions of rows does not hold up the writers' after-commit listeners. Growing and
+ * compacting move the rows into new arrays, which leaves the ones a scan holds unchanged. Deletes
+ * and out-of-order inserts near the end still change rows in place, so a scan running during
+ * writes can count a row being written twice, or not at all.
+ *
+ * <p>Writes to the table that bypass {@link CalculationService} and {@link ShipmentService},
+ * such as SQL run by hand, are not seen until the next start.
+ *
+ * <p>Only created with {@code profit.analytics.columns.enabled=true}. The whole table is loaded
+ * at startup and stays on the heap, so leave it off when the dataset may outgrow the heap, as
+ * with the {@code file} profile; {@link CalculationAggregates} then asks the database.
+ */
+@Component
+@ConditionalOnProperty(name = "profit.analytics.columns.enabled", havingValue = "true")
+public class CalculationColumns implements SmartInitializingSingleton {
+    static final int INITIAL_CAPACITY = 1024;
+    static final int LOAD_FETCH_SIZE = 10_000;
+    static final int PARALLEL_SCAN_ROWS = 1 << 18;
+
+    // Shipment ids start at 1, so 0 marks a deleted row
+    private static final long DELETED = 0;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] shipmentIds = new long[INITIAL_CAPACITY];
+    private long[] incomeCents = new long[INITIAL_CAPACITY];
+    private long[] costCents = new long[INITIAL_CAPACITY];
+    private int size;
+    private int deletedRows;
+
+    private long liveRows;
+    private long totalIncomeCents;
+    private long totalCostCents;
+
+    public CalculationColumns(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(LOAD_FETCH_SIZE);
+    }
+
+    /**
+     * Loads the table before the web server starts, so no write can commit while it is read.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        jdbcTemplate.query("SELECT id, shipment_id, income_cents, cost_cents FROM calculation ORDER BY id",
+                (RowCallbackHandler) rs -> add(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)));
+    }
+
+    @TransactionalEventListener
+    public void onCalculationEvent(CalculationEvent event) {
+        if (event.getType() == CalculationEvent.Type.CREATED) {
+            for (Calculation calculation : event.getCreated()) {
+                add(calculation.getId(), event.getShipmentId(), calculation.getIncomeCents(), calculation.getCostCents());
+            }
+        } else {
+            for (Long id : event.getDeletedIds()) {
+                remove(id);
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public void onShipmentsDeleted(ShipmentsDeletedEvent event) {
+        removeShipments(new HashSet<>(event.getShipmentIds()));
+    }
+
+    /**
+     * Count and totals of all calculations, without a scan.
+     */
+    public CalculationAnalyticsDTO totals() {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            return aggregate(liveRows, totalIncomeCents, totalCostCents);
+        } finally {
+            read.unlock();
+        }
+    }
+
+    /**
+     * Count and totals of the calculations whose profit or loss lies between the two bounds,
+     * both inclusive.
+     */
+    public CalculationAnalyticsDTO totalsForProfitBetween(long minProfitOrLossCents, long maxProfitOrLossCents) {
+        Snapshot snapshot = snapshot();
+        long count = 0;
+        long income = 0;
+        long cost = 0;
+        for (int i = 0; i < snapshot.size; i++) {
+            long profit = snapshot.incomeCents[i] - snapshot.costCents[i];
+            if (profit >= minProfitOrLossCents && profit <= maxProfitOrLossCents && snapshot.shipmentIds[i] != DELETED) {
+                count++;
+                income += snapshot.incomeCents[i];
+                cost += snapshot.costCents[i];
+            }
+        }
+        return aggregate(count, income, cost);
+    }
+
+    /**
+     * Counts the calculations per profit bucket in two parallel passes: the first finds the
+     * lowest and highest profit and the losses, the second fills the buckets between them.
+     */
+    public ProfitDistribution profitDistribution(int buckets) {
+        Snapshot snapshot = snapshot();
+        ProfitRange range = ForkJoinPool.commonPool().invoke(new ProfitRangeScan(snapshot, 0, snapshot.size));
+        if (range.rows == 0) {
+            return new ProfitDistribution(0, 0, 1, new long[0]);
+        }
+        long width = ProfitDistribution.bucketWidth(range.lowest, range.highest, buckets);
+        long[] counts = ForkJoinPool.commonPool().invoke(
+                new ProfitBucketScan(snapshot, range.lowest, width, buckets, 0, snapshot.size));
+        return new ProfitDistribution(range.losses, range.lowest, width, counts);
+    }
+
+    private Snapshot snapshot() {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            return new Snapshot(shipmentIds, incomeCents, costCents, size);
+        } finally {
+            read.unlock();
+        }
+    }
+
+    private static final class Snapshot {
+        final long[] shipmentIds;
+        final long[] incomeCents;
+        final long[] costCents;
+        final int size;
+
+        Snapshot(long[] shipmentIds, long[] incomeCents, long[] costCents, int size) {
+            this.shipmentIds = shipmentIds;
+            this.incomeCents = incomeCents;
+            this.costCents = costCents;
+            this.size = size;
+        }
+    }
+
+    private static final class ProfitRange {
+        long rows;
+        long losses;
+        long lowest = Long.MAX_VALUE;
+        long highest = Long.MIN_VALUE;
+
+        ProfitRange merge(ProfitRange other) {
+            rows += other.rows;
+            losses += other.losses;
+            lowest = Math.min(lowest, other.lowest);
+            highest = Math.max(highest, other.highest);
+            return this;
+        }
+    }
+
+    private static final class ProfitRangeScan extends RecursiveTask<ProfitRange> {
+        private final Snapshot columns;
+        private final int from;
+        private final int to;
+
+        ProfitRangeScan(Snapshot columns, int from, int to) {
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ProfitRange compute() {
+            if (to - from > PARALLEL_SCAN_ROWS) {
+                int middle = (from + to) >>> 1;
+                ProfitRangeScan left = new ProfitRangeScan(columns, from, middle);
+                left.fork();
+                ProfitRange right = new ProfitRangeScan(columns, middle, to).compute();
+                return left.join().merge(right);
+            }
+            long[] shipmentIds = columns.shipmentIds;
+            long[] incomeCents = columns.incomeCents;
+            long[] costCents = columns.costCents;
+            ProfitRange range = new ProfitRange();
+            for (int i = from; i < to; i++) {
+                if (shipmentIds[i] != DELETED) {
+                    long profit = incomeCents[i] - costCents[i];
+                    range.rows++;
+                    if (profit < 0) {
+                        range.losses++;
+                    }
+                    range.lowest = Math.min(range.lowest, profit);
+                    range.highest = Math.max(range.highest, profit);
+                }
+            }
+            return range;
+        }
+    }
+
+    private static final class ProfitBucketScan extends RecursiveTask<long[]> {
+        private final Snapshot columns;
+        private final long lowest;
+        private final long width;
+        private final int buckets;
+        private final int from;
+        private final int to;
+
+        ProfitBucketScan(Snapshot columns, long lowest, long width, int buckets, int from, int to) {
+            this.columns = columns;
+            this.lowest = lowest;
+            this.width = width;
+            this.buckets = buckets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from > PARALLEL_SCAN_ROWS) {
+                int middle = (from + to) >>> 1;
+                ProfitBucketScan left = new ProfitBucketScan(columns, lowest, width, buckets, from, middle);
+                left.fork();
+                long[] counts = new ProfitBucketScan(columns, lowest, width, buckets, middle, to).compute();
+                long[] leftCounts = left.join();
+                for (int bucket = 0; bucket < buckets; bucket++) {
+                    counts[bucket] += leftCounts[bucket];
+                }
+                return counts;
+            }
+            long[] shipmentIds = columns.shipmentIds;
+            long[] incomeCents = columns.incomeCents;
+            long[] costCents = columns.costCents;
+            long[] counts = new long[buckets];
+            for (int i = from; i < to; i++) {
+                if (shipmentIds[i] != DELETED) {
+                    // A row written since the first pass can lie outside its range
+                    long bucket = (incomeCents[i] - costCents[i] - lowest) / width;
+                    counts[(int) Math.max(0, Math.min(buckets - 1, bucket))]++;
+                }
+            }
+            return counts;
+        }
+    }
+
+    private static CalculationAnalyticsDTO aggregate(long count, long incomeCents, long costCents) {
+        return CalculationAnalyticsDTO.builder()
+                .calculationCount(count)
+                .totalIncomeCents(incomeCents)
+                .totalCostCents(costCents)
+                .totalProfitOrLossCents(incomeCents - costCents)
+                .build();
+    }
+
+    /**
+     * Adds a row, ignoring an id that is already there. Ids come from a sequence, but
+     * transactions can commit out of id order, so the row is moved back past any later ids.
+     */
+    void add(long id, long shipmentId, long income, long cost) {
+        Lock write = lock.writeLock();
+        write.lock();
+        try {
+            int index = size;
+            while (index > 0 && ids[index - 1] > id) {
+                index--;
+            }
+            if (index > 0 && ids[index - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                grow();
+            }
+            int moved = size - index;
+            if (moved > 0) {
+                System.arraycopy(ids, index, ids, index + 1, moved);
+                System.arraycopy(shipmentIds, index, shipmentIds, index + 1, moved);
+                System.arraycopy(incomeCents, index, incomeCents, index + 1, moved);
+                System.arraycopy(costCents, index, costCents, index + 1, moved);
+            }
+            ids[index] = id;
+            shipmentIds[index] = shipmentId;
+            incomeCents[index] = income;
+            costCents[index] = cost;
+            size++;
+            liveRows++;
+            totalIncomeCents += income;
+            totalCostCents += cost;
+        } finally {
+            write.unlock();
+        }
+    }
+
+    void remove(long id) {
+        Lock write = lock.writeLock();
+        write.lock();
+        try {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0 && shipmentIds[index] != DELETED) {
+                delete(index);
+                compactIfSparse();
+            }
+        } finally {
+            write.unlock();
+        }
+    }
+
+    void removeShipments(Set<Long> removedShipmentIds) {
+        Lock write = lock.writeLock();
+        write.lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                if (shipmentIds[i] != DELETED && removedShipmentIds.contains(shipmentIds[i])) {
+                    delete(i);
+                }
+            }
+            compactIfSparse();
+        } finally {
+            write.unlock();
+        }
+    }
+
+    private void delete(int index) {
+        liveRows--;
+        totalIncomeCents -= incomeCents[index];
+        totalCostCents -= costCents[index];
+        shipmentIds[index] = DELETED;
+        deletedRows++;
+    }
+
+    private void compactIfSparse() {
+        if (deletedRows * 2 <= size) {
+            return;
+        }
+        // Into new arrays, as scans may still be reading the old ones
+        int capacity = Math.max(INITIAL_CAPACITY, (size - deletedRows) + ((size - deletedRows) >> 1));
+        long[] keptIds = new long[capacity];
+        long[] keptShipmentIds = new long[capacity];
+        long[] keptIncomeCents = new long[capacity];
+        long[] keptCostCents = new long[capacity];
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (shipmentIds[i] != DELETED) {
+                keptIds[kept] = ids[i];
+                keptShipmentIds[kept] = shipmentIds[i];
+                keptIncomeCents[kept] = incomeCents[i];
+                keptCostCents[kept] = costCents[i];
+                kept++;
+            }
+        }
+        ids = keptIds;
+        shipmentIds = keptShipmentIds;
+        incomeCents = keptIncomeCents;
+        costCents = keptCostCents;
+        size = kept;
+        deletedRows = 0;
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        shipmentIds = Arrays.copyOf(shipmentIds, capacity);
+        incomeCents = Arrays.copyOf(incomeCents, capacity);
+        costCents = Arrays.copyOf(costCents, capacity);
+    }
+
+    // Rows held including deleted ones not yet compacted away, for tests
+    int size() {
+        return size;
+    }
+}
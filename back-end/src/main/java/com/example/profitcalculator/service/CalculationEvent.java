@@ -0,0 +1,50 @@
+package com.example.profitcalculator.service;
+
+import com.example.profitcalculator.entity.Calculation;
+
+import java.util.List;
+
+/**
+ * Calculations created in or deleted from one shipment. {@link CalculationService} publishes it
+ * inside the transaction that makes the change; listeners that act on it after commit never see
+ * a change that was rolled back.
+ */
+public class CalculationEvent {
+    public enum Type { CREATED, DELETED }
+
+    private final Type type;
+    private final Long shipmentId;
+    private final List<Calculation> created;
+    private final List<Long> deletedIds;
+
+    private CalculationEvent(Type type, Long shipmentId, List<Calculation> created, List<Long> deletedIds) {
+        this.type = type;
+        this.shipmentId = shipmentId;
+        this.created = created;
+        this.deletedIds = deletedIds;
+    }
+
+    public static CalculationEvent created(Long shipmentId, List<Calculation> calculations) {
+        return new CalculationEvent(Type.CREATED, shipmentId, calculations, List.of());
+    }
+
+    public static CalculationEvent deleted(Long shipmentId, Long calculationId) {
+        return new CalculationEvent(Type.DELETED, shipmentId, List.of(), List.of(calculationId));
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getShipmentId() {
+        return shipmentId;
+    }
+
+    public List<Calculation> getCreated() {
+        return created;
+    }
+
+    public List<Long> getDeletedIds() {
+        return deletedIds;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.profitcalculator.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.profitcalculator.dto.CalculationDTO;
+import com.example.profitcalculator.entity.Calculation;
+import com.example.profitcalculator.mapper.CalculationMapper;
+import com.example.profitcalculator.money.Money;
+import com.example.profitcalculator.repository.CalculationRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Writes every calculation to an output stream while it is read from the database. Rows are
+ * never collected into a list, and the persistence context is cleared every
+ * {@value #CLEAR_INTERVAL} rows, so heap use does not grow with the number of calculations.
+ */
+@Service
+public class CalculationExportService {
+    static final String CSV_HEADER = "id,shipmentId,income,cost,profitOrLoss";
+    static final int CLEAR_INTERVAL = 1000;
+
+    private final CalculationRepository calculationRepository;
+    private final CalculationMapper calculationMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter calculationWriter;
+
+    public CalculationExportService(CalculationRepository calculationRepository,
+                                    CalculationMapper calculationMapper,
+                                    EntityManager entityManager,
+                                    ObjectMapper objectMapper) {
+        this.calculationRepository = calculationRepository;
+        this.calculationMapper = calculationMapper;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.calculationWriter = objectMapper.writerFor(CalculationDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Writes one JSON object per line.
+     */
+    @Transactional(readOnly = true)
+    public long writeNdjson(OutputStream output) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+             Stream<Calculation> calculations = calculationRepository.streamAllByOrderByIdAsc()) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            return forEach(calculations, calculation -> {
+                calculationWriter.writeValue(generator, calculationMapper.toDTO(calculation));
+                generator.writeRaw('\n');
+            });
+        }
+    }
+
+    /**
+     * Writes a header line followed by one line per calculation. The columns can be read back by
+     * the CSV import.
+     */
+    @Transactional(readOnly = true)
+    public long writeCsv(OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        try (Stream<Calculation> calculations = calculationRepository.streamAllByOrderByIdAsc()) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            long rows = forEach(calculations, calculation -> {
+                writer.write(String.valueOf(calculation.getId()));
+                writer.write(',');
+                writer.write(String.valueOf(calculation.getShipment().getId()));
+                writer.write(',');
+                writer.write(Money.format(calculation.getIncomeCents()));
+                writer.write(',');
+                writer.write(Money.format(calculation.getCostCents()));
+                writer.write(',');
+                writer.write(Money.format(calculation.getProfitOrLossCents()));
+                writer.write('\n');
+            });
+            writer.flush();
+            return rows;
+        }
+    }
+
+    private long forEach(Stream<Calculation> calculations, RowWriter rowWriter) throws IOException {
+        long rows = 0;
+        Iterator<Calculation> iterator = calculations.iterator();
+        while (iterator.hasNext()) {
+            rowWriter.write(iterator.next());
+            if (++rows % CLEAR_INTERVAL == 0) {
+                entityManager.clear();
+            }
+        }
+        return rows;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(Calculation calculation) throws IOException;
+    }
+}
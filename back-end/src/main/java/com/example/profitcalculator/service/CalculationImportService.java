@@ -0,0 +1,198 @@
+package com.example.profitcalculator.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.profitcalculator.dto.CalculationDTO;
+import com.example.profitcalculator.dto.ImportReportDTO;
+import com.example.profitcalculator.dto.RejectedRowDTO;
+import com.example.profitcalculator.entity.Calculation;
+import com.example.profitcalculator.entity.Shipment;
+import com.example.profitcalculator.exception.BadRequestException;
+import com.example.profitcalculator.mapper.CalculationMapper;
+import com.example.profitcalculator.money.Money;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Imports calculations from CSV or NDJSON streams. Input is read one line at a time and written
+ * in chunks of {@code profit.import.chunk-size} rows, each committed in its own transaction, so
+ * memory use depends on the chunk size and not on the size of the file.
+ */
+@Service
+public class CalculationImportService {
+    static final int MAX_REPORTED_REJECTIONS = 100;
+
+    private final CalculationService calculationService;
+    private final CalculationMapper calculationMapper;
+    private final ObjectReader calculationReader;
+    private final int chunkSize;
+
+    public CalculationImportService(CalculationService calculationService,
+                                    CalculationMapper calculationMapper,
+                                    ObjectMapper objectMapper,
+                                    @Value("${profit.import.chunk-size:1000}") int chunkSize) {
+        this.calculationService = calculationService;
+        this.calculationMapper = calculationMapper;
+        this.calculationReader = objectMapper.readerFor(CalculationDTO.class);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports a CSV file whose header names the shipmentId, income and cost columns, in any
+     * order. Other columns, such as those written by the export, are ignored.
+     */
+    public ImportReportDTO importCsv(InputStream input) throws IOException {
+        BufferedReader reader = reader(input);
+        String header = reader.readLine();
+        if (header == null) {
+            throw new BadRequestException("CSV input is empty");
+        }
+        List<String> columns = Arrays.stream(header.split(",")).map(String::trim).toList();
+        int shipmentIdColumn = columns.indexOf("shipmentId");
+        int incomeColumn = columns.indexOf("income");
+        int costColumn = columns.indexOf("cost");
+        if (shipmentIdColumn < 0 || incomeColumn < 0 || costColumn < 0) {
+            throw new BadRequestException("CSV header must contain shipmentId, income and cost");
+        }
+
+        return run(reader, 1, line -> {
+            String[] fields = line.split(",", -1);
+            if (fields.length < columns.size()) {
+                throw new IllegalArgumentException("Expected " + columns.size() + " columns but found " + fields.length);
+            }
+            return CalculationDTO.builder()
+                    .shipmentId(Long.parseLong(fields[shipmentIdColumn].trim()))
+                    .incomeCents(parseCents(fields[incomeColumn]))
+                    .costCents(parseCents(fields[costColumn]))
+                    .build();
+        });
+    }
+
+    /**
+     * Imports newline-delimited JSON with one calculation object per line.
+     */
+    public ImportReportDTO importNdjson(InputStream input) throws IOException {
+        return run(reader(input), 0, calculationReader::readValue);
+    }
+
+    private ImportReportDTO run(BufferedReader reader, long linesBefore, LineParser parser) throws IOException {
+        ImportRun run = new ImportRun(linesBefore);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            run.next(line, parser);
+        }
+        return run.finish();
+    }
+
+    private static BufferedReader reader(InputStream input) {
+        return new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+
+    private static long parseCents(String field) {
+        String value = field.trim();
+        return value.isEmpty() ? 0 : Money.parseCents(value);
+    }
+
+    @FunctionalInterface
+    private interface LineParser {
+        CalculationDTO parse(String line) throws IOException;
+    }
+
+    /**
+     * State of one import: the counters, the current chunk and its source line numbers.
+     */
+    private class ImportRun {
+        private final long startNanos = System.nanoTime();
+        private final List<Calculation> chunk = new ArrayList<>(chunkSize);
+        private final long[] chunkLines = new long[chunkSize];
+        private final List<RejectedRowDTO> rejectedRows = new ArrayList<>();
+        private long lineNumber;
+        private long rowsRead;
+        private long rowsImported;
+        private long rowsRejected;
+
+        ImportRun(long linesBefore) {
+            this.lineNumber = linesBefore;
+        }
+
+        void next(String line, LineParser parser) {
+            lineNumber++;
+            if (line.isBlank()) {
+                return;
+            }
+            rowsRead++;
+
+            CalculationDTO dto;
+            try {
+                dto = parser.parse(line);
+            } catch (JsonProcessingException e) {
+                reject(lineNumber, "Unreadable row: " + e.getOriginalMessage());
+                return;
+            } catch (IOException | RuntimeException e) {
+                reject(lineNumber, "Unreadable row: " + e.getMessage());
+                return;
+            }
+            if (dto.getShipmentId() == null) {
+                reject(lineNumber, "shipmentId is required");
+                return;
+            }
+
+            Calculation calculation = calculationMapper.toEntity(dto, Shipment.builder().id(dto.getShipmentId()).build());
+            if (!CalculationService.hasIncomeOrCost(calculation)) {
+                reject(lineNumber, "Income and Cost cannot both be 0");
+                return;
+            }
+
+            chunkLines[chunk.size()] = lineNumber;
+            chunk.add(calculation);
+            if (chunk.size() == chunkSize) {
+                flush();
+            }
+        }
+
+        ImportReportDTO finish() {
+            flush();
+            long elapsedNanos = Math.max(System.nanoTime() - startNanos, 1);
+            return ImportReportDTO.builder()
+                    .rowsRead(rowsRead)
+                    .rowsImported(rowsImported)
+                    .rowsRejected(rowsRejected)
+                    .elapsedMillis(elapsedNanos / 1_000_000)
+                    .rowsPerSecond(rowsRead * 1_000_000_000.0 / elapsedNanos)
+                    .rejectedRows(rejectedRows)
+                    .build();
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            rowsImported += calculationService.createForExistingShipments(chunk).size();
+            for (int i = 0; i < chunk.size(); i++) {
+                Calculation calculation = chunk.get(i);
+                if (calculation.getId() == null) {
+                    reject(chunkLines[i], "Shipment not found with id : '" + calculation.getShipment().getId() + "'");
+                }
+            }
+            chunk.clear();
+        }
+
+        private void reject(long line, String reason) {
+            rowsRejected++;
+            if (rejectedRows.size() < MAX_REPORTED_REJECTIONS) {
+                rejectedRows.add(new RejectedRowDTO(line, reason));
+            }
+        }
+    }
+}
@@ -1,9 +1,18 @@
 package com.example.profitcalculator.service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.profitcalculator.dto.CalculationDTO;
 import com.example.profitcalculator.entity.Calculation;
 import com.example.profitcalculator.entity.Shipment;
 import com.example.profitcalculator.exception.BadRequestException;
@@ -11,14 +20,33 @@ import com.example.profitcalculator.exception.ResourceNotFoundException;
 import com.example.profitcalculator.repository.CalculationRepository;
 import com.example.profitcalculator.repository.ShipmentRepository;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Service
 public class CalculationService {
+    static final int MAX_BULK_SIZE = 10_000;
+
     private final CalculationRepository calculationRepository;
     private final ShipmentRepository shipmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter calculationsCreated;
+    private final Counter calculationsDeleted;
 
-    public CalculationService(CalculationRepository calculationRepository, ShipmentRepository shipmentRepository) {
+    public CalculationService(CalculationRepository calculationRepository,
+                              ShipmentRepository shipmentRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              MeterRegistry meterRegistry) {
         this.calculationRepository = calculationRepository;
         this.shipmentRepository = shipmentRepository;
+        this.eventPublisher = eventPublisher;
+        this.calculationsCreated = Counter.builder("profit.calculations.created")
+                .description("Calculations created through single, bulk and import requests")
+                .register(meterRegistry);
+        // Calculations removed together with their shipment are not counted
+        this.calculationsDeleted = Counter.builder("profit.calculations.deleted")
+                .description("Calculations deleted individually")
+                .register(meterRegistry);
     }
 
     private Shipment getShipmentById(Long shipmentId) {
@@ -26,32 +54,138 @@ public class CalculationService {
                 .orElseThrow(() -> new ResourceNotFoundException("Shipment", "id", shipmentId));
     }
 
-    public List<Calculation> getByShipmentId(Long shipmentId) {
-        Shipment shipment = getShipmentById(shipmentId);
-        return calculationRepository.findByShipment(shipment);
+    // The DTO reads build no entities; see CalculationRepository#findDTOsByShipmentId
+    public List<CalculationDTO> getDTOsByShipmentId(Long shipmentId) {
+        getShipmentById(shipmentId);
+        return calculationRepository.findDTOsByShipmentId(shipmentId);
+    }
+
+    public List<CalculationDTO> getDTOPageByShipmentId(Long shipmentId, Long after, int limit) {
+        Pageable pageable = CursorPages.firstRows(after, limit);
+        // findById rather than existsById so the check is answered by the second-level cache
+        getShipmentById(shipmentId);
+        return calculationRepository.findDTOPageByShipmentId(shipmentId, after, pageable);
     }
 
+    /**
+     * Runs the totals UPDATE and the INSERT. The UPDATE doubles as the existence check, so the
+     * shipment is never loaded.
+     */
+    @Transactional
     public Calculation create(Long shipmentId, Calculation calculation) {
-        if ((calculation.getIncome() == null ? 0 : calculation.getIncome()) <= 0 &&
-                (calculation.getCost() == null ? 0 : calculation.getCost()) <= 0) {
+        if (!hasIncomeOrCost(calculation)) {
             throw new BadRequestException("Income and Cost cannot both be 0");
         }
 
-        Shipment shipment = shipmentRepository.findById(shipmentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Shipment", "id", shipmentId));
+        if (!attachToShipment(shipmentId, List.of(calculation))) {
+            throw new ResourceNotFoundException("Shipment", "id", shipmentId);
+        }
+        Calculation saved = calculationRepository.save(calculation);
+        calculationsCreated.increment();
+        eventPublisher.publishEvent(CalculationEvent.created(shipmentId, List.of(saved)));
+        return saved;
+    }
 
-        calculation.setShipment(shipment);
-        calculation.setProfitOrLoss(calculation.getIncome() - calculation.getCost());
+    /**
+     * Creates all calculations of a shipment in one transaction. The whole request is validated
+     * up front, the shipment is checked by the totals UPDATE itself, and the INSERTs go out as
+     * JDBC batches.
+     */
+    @Transactional
+    public List<Calculation> createAll(Long shipmentId, List<Calculation> calculations) {
+        if (calculations == null || calculations.isEmpty()) {
+            throw new BadRequestException("At least one calculation is required");
+        }
+        if (calculations.size() > MAX_BULK_SIZE) {
+            throw new BadRequestException("At most " + MAX_BULK_SIZE + " calculations can be created at once");
+        }
+        validateAll(calculations);
+
+        if (!attachToShipment(shipmentId, calculations)) {
+            throw new ResourceNotFoundException("Shipment", "id", shipmentId);
+        }
+        List<Calculation> saved = calculationRepository.saveAll(calculations);
+        calculationsCreated.increment(saved.size());
+        eventPublisher.publishEvent(CalculationEvent.created(shipmentId, saved));
+        return saved;
+    }
+
+    /**
+     * Creates a chunk of calculations that may belong to different shipments in one transaction.
+     * Rows of shipments that do not exist are skipped rather than failing the chunk; they are the
+     * ones left without an id.
+     *
+     * <p>The shipments' totals are updated in shipment id order, so two chunks that share
+     * shipments, such as a write-behind batch and an import chunk, take the row locks in the same
+     * order and cannot deadlock.
+     */
+    @Transactional
+    public List<Calculation> createForExistingShipments(List<Calculation> calculations) {
+        validateAll(calculations);
+
+        Map<Long, List<Calculation>> byShipment = calculations.stream()
+                .collect(Collectors.groupingBy(c -> c.getShipment().getId(), TreeMap::new, Collectors.toList()));
+        List<Calculation> created = new ArrayList<>(calculations.size());
+        Map<Long, List<Calculation>> createdByShipment = new LinkedHashMap<>();
+        byShipment.forEach((shipmentId, rows) -> {
+            if (attachToShipment(shipmentId, rows)) {
+                created.addAll(rows);
+                createdByShipment.put(shipmentId, rows);
+            }
+        });
+        List<Calculation> saved = calculationRepository.saveAll(created);
+        calculationsCreated.increment(saved.size());
+        // The rows are the saved entities, which have their ids by now
+        createdByShipment.forEach((shipmentId, rows) ->
+                eventPublisher.publishEvent(CalculationEvent.created(shipmentId, rows)));
+        return saved;
+    }
+
+    private static void validateAll(List<Calculation> calculations) {
+        for (int i = 0; i < calculations.size(); i++) {
+            if (calculations.get(i) == null || !hasIncomeOrCost(calculations.get(i))) {
+                throw new BadRequestException("Calculation at index " + i + ": Income and Cost cannot both be 0");
+            }
+        }
+    }
+
+    private boolean attachToShipment(Long shipmentId, List<Calculation> calculations) {
+        Shipment shipment = shipmentRepository.getReferenceById(shipmentId);
+        long incomeCents = 0;
+        long costCents = 0;
+        for (Calculation calculation : calculations) {
+            normalize(calculation, shipment);
+            incomeCents += calculation.getIncomeCents();
+            costCents += calculation.getCostCents();
+        }
+        return shipmentRepository.addToTotals(
+                shipmentId, calculations.size(), incomeCents, costCents, incomeCents - costCents) > 0;
+    }
 
-        return calculationRepository.save(calculation);
+    static boolean hasIncomeOrCost(Calculation calculation) {
+        return calculation.getIncomeCents() > 0 || calculation.getCostCents() > 0;
     }
 
+    // Ids are always generated, so a client-supplied id can never turn the save into a merge
+    private static void normalize(Calculation calculation, Shipment shipment) {
+        calculation.setId(null);
+        calculation.setShipment(shipment);
+        calculation.setProfitOrLossCents(calculation.getIncomeCents() - calculation.getCostCents());
+    }
 
-    public void delete(Long id) {
-        // Check if calculation exists before deleting
-        if (!calculationRepository.existsById(id)) {
+    /**
+     * Subtracts the calculation from its shipment's totals, then deletes it. Both statements are
+     * scoped to the shipment and report their row counts, so nothing is read first. If a
+     * concurrent delete removed the row in between, the DELETE matches nothing and the
+     * exception rolls back the UPDATE.
+     */
+    @Transactional
+    public void delete(Long shipmentId, Long id) {
+        if (shipmentRepository.subtractCalculation(shipmentId, id) == 0
+                || calculationRepository.deleteByIdAndShipmentId(id, shipmentId) == 0) {
             throw new ResourceNotFoundException("Calculation", "id", id);
         }
-        calculationRepository.deleteById(id);
+        calculationsDeleted.increment();
+        eventPublisher.publishEvent(CalculationEvent.deleted(shipmentId, id));
     }
 }
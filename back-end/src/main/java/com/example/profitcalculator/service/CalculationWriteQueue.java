@@ -0,0 +1,301 @@
+package com.example.profitcalculator.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.profitcalculator.dto.CalculationTicketDTO;
+import com.example.profitcalculator.entity.Calculation;
+import com.example.profitcalculator.entity.Shipment;
+import com.example.profitcalculator.exception.BadRequestException;
+import com.example.profitcalculator.exception.ResourceNotFoundException;
+import com.example.profitcalculator.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Write-behind for single calculation creates. A request is checked and queued, and answered with
+ * a ticket before anything is written. One writer thread takes the queue in batches of up to
+ * {@code profit.write-behind.batch-size} rows, waiting at most {@code profit.write-behind.max-delay-ms}
+ * for a batch to fill, and commits each batch through
+ * {@link CalculationService#createForExistingShipments}: one connection and one transaction per
+ * batch however many requests arrive. A full queue is answered with 503 rather than letting the
+ * backlog grow.
+ *
+ * <p>A committed batch is not yet on disk: the in-memory database never writes it, and the file
+ * database writes it within its WRITE_DELAY. With {@code profit.write-behind.checkpoint-sync} the
+ * writer forces each committed batch to disk with one {@code CHECKPOINT SYNC}, the flush group
+ * commit amortizes, and only then reports its tickets DURABLE; otherwise they stay COMMITTED.
+ *
+ * <p>Tickets are numbered in queue order, so every ticket up to the last one the writer resolved
+ * is either committed or failed. Their outcomes are kept in ring buffers of {@link #TICKET_HISTORY}
+ * slots; an older ticket is no longer known.
+ */
+@Component
+public class CalculationWriteQueue implements SmartLifecycle {
+    static final int TICKET_HISTORY = 1 << 19;
+    static final long RETRY_AFTER_SECONDS = 1;
+    static final String WRITE_FAILED = "The calculation could not be saved";
+
+    private static final Logger log = LoggerFactory.getLogger(CalculationWriteQueue.class);
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final CalculationService calculationService;
+    private final ShipmentService shipmentService;
+    private final Cache secondLevelCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean checkpointSync;
+    private final BlockingQueue<Pending> queue;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final DistributionSummary batchSizes;
+
+    // Tickets are taken and queued under the lock so that queue order is ticket order
+    private final Object submitLock = new Object();
+    private volatile long submitted;
+    private volatile long resolved;
+    private final long[] shipmentIds = new long[TICKET_HISTORY];
+    private final long[] calculationIds = new long[TICKET_HISTORY];
+    private final String[] failures = new String[TICKET_HISTORY];
+    private final boolean[] synced = new boolean[TICKET_HISTORY];
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public CalculationWriteQueue(CalculationService calculationService,
+                                 ShipmentService shipmentService,
+                                 EntityManagerFactory entityManagerFactory,
+                                 JdbcTemplate jdbcTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${profit.write-behind.queue-capacity:100000}") int queueCapacity,
+                                 @Value("${profit.write-behind.batch-size:1000}") int batchSize,
+                                 @Value("${profit.write-behind.max-delay-ms:10}") long maxDelayMillis,
+                                 @Value("${profit.write-behind.checkpoint-sync:false}") boolean checkpointSync) {
+        // A ticket's slot must outlive it while it waits in the queue or in the batch being written
+        if (queueCapacity < 1 || batchSize < 1 || queueCapacity + batchSize > TICKET_HISTORY) {
+            throw new IllegalArgumentException("The write-behind queue capacity and batch size must be positive "
+                    + "and add up to at most " + TICKET_HISTORY);
+        }
+        this.calculationService = calculationService;
+        this.shipmentService = shipmentService;
+        this.secondLevelCache = entityManagerFactory.getCache();
+        this.jdbcTemplate = jdbcTemplate;
+        this.checkpointSync = checkpointSync;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.batchSizes = DistributionSummary.builder("profit.write_behind.batch.size")
+                .description("Calculations committed together by the write-behind writer")
+                .register(meterRegistry);
+        Gauge.builder("profit.write_behind.queued", queue, BlockingQueue::size)
+                .description("Calculations accepted but not yet handed to the writer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks the calculation and its shipment as a synchronous create would, then queues it.
+     *
+     * @return the ticket to ask {@link #status} about
+     */
+    public long submit(Long shipmentId, Calculation calculation) {
+        if (!CalculationService.hasIncomeOrCost(calculation)) {
+            throw new BadRequestException("Income and Cost cannot both be 0");
+        }
+        // A shipment in the second-level cache exists, and looking there needs no connection;
+        // findById runs in a transaction that takes one even when the cache answers. A shipment
+        // deleted before the batch is written still fails its ticket
+        if (!secondLevelCache.contains(Shipment.class, shipmentId)) {
+            shipmentService.getById(shipmentId);
+        }
+
+        synchronized (submitLock) {
+            if (!running) {
+                throw new ServiceUnavailableException("Calculations are not being accepted", RETRY_AFTER_SECONDS);
+            }
+            long ticket = submitted + 1;
+            if (!queue.offer(new Pending(ticket, shipmentId, calculation))) {
+                throw new ServiceUnavailableException("Too many calculations are waiting to be saved", RETRY_AFTER_SECONDS);
+            }
+            shipmentIds[slot(ticket)] = shipmentId;
+            submitted = ticket;
+            return ticket;
+        }
+    }
+
+    /**
+     * @throws ResourceNotFoundException if the ticket was never issued for the shipment or is too
+     *                                   old to be remembered
+     */
+    public CalculationTicketDTO status(Long shipmentId, long ticket) {
+        // Read before the slots: the writes they publish are then visible
+        long resolved = this.resolved;
+        long submitted = this.submitted;
+        int slot = slot(ticket);
+        long ticketShipmentId = shipmentIds[slot];
+        long calculationId = calculationIds[slot];
+        String failure = failures[slot];
+        boolean durable = synced[slot];
+        // Re-read after the slots: a newer ticket may have taken the slot meanwhile
+        if (ticket < 1 || ticket > submitted || ticket <= this.submitted - TICKET_HISTORY
+                || ticketShipmentId != shipmentId) {
+            throw new ResourceNotFoundException("Ticket", "id", ticket);
+        }
+
+        CalculationTicketDTO.Builder status = CalculationTicketDTO.builder().ticket(ticket).shipmentId(shipmentId);
+        if (ticket > resolved) {
+            return status.status(CalculationTicketDTO.Status.PENDING).build();
+        }
+        if (failure != null) {
+            return status.status(CalculationTicketDTO.Status.FAILED).message(failure).build();
+        }
+        return status.status(durable ? CalculationTicketDTO.Status.DURABLE : CalculationTicketDTO.Status.COMMITTED)
+                .calculationId(calculationId)
+                .build();
+    }
+
+    private static int slot(long ticket) {
+        return (int) (ticket & (TICKET_HISTORY - 1));
+    }
+
+    private void writeBatches() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        // Once stopped, whatever is still queued is written before the thread ends
+        while (running || !queue.isEmpty()) {
+            try {
+                takeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Write-behind writer interrupted with {} calculations queued", queue.size());
+                return;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    // Blocks for the first row, then gathers more until the batch is full or the delay is up
+    private void takeBatch(List<Pending> batch) throws InterruptedException {
+        Pending first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < batchSize) {
+            if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    void write(List<Pending> batch) {
+        List<Calculation> calculations = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            calculations.add(pending.calculation);
+        }
+        boolean committed;
+        try {
+            calculationService.createForExistingShipments(calculations);
+            committed = true;
+        } catch (RuntimeException e) {
+            log.error("Write-behind batch of {} calculations failed", batch.size(), e);
+            committed = false;
+        }
+        boolean durable = committed && checkpointSync && sync(batch.size());
+
+        for (Pending pending : batch) {
+            int slot = slot(pending.ticket);
+            Long id = pending.calculation.getId();
+            if (!committed) {
+                failures[slot] = WRITE_FAILED;
+            } else if (id == null) {
+                // Skipped by createForExistingShipments: the shipment was deleted after the submit
+                failures[slot] = new ResourceNotFoundException("Shipment", "id", pending.shipmentId).getMessage();
+            } else {
+                calculationIds[slot] = id;
+                failures[slot] = null;
+                synced[slot] = durable;
+            }
+        }
+        batchSizes.record(batch.size());
+        resolved = batch.get(batch.size() - 1).ticket;
+    }
+
+    // A failed sync leaves the batch committed; its tickets report COMMITTED rather than DURABLE
+    private boolean sync(int rows) {
+        try {
+            jdbcTemplate.execute("CHECKPOINT SYNC");
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Write-behind batch of {} calculations committed but not synced to disk", rows, e);
+            return false;
+        }
+    }
+
+    //
+    // Lifecycle: started before and stopped after the web server, so no request arrives while
+    // the writer is not running and the queue is drained once requests have stopped
+    //
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeBatches, "calculation-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        synchronized (submitLock) {
+            running = false;
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 4096;
+    }
+
+    static final class Pending {
+        final long ticket;
+        final Long shipmentId;
+        final Calculation calculation;
+
+        Pending(long ticket, Long shipmentId, Calculation calculation) {
+            this.ticket = ticket;
+            this.shipmentId = shipmentId;
+            this.calculation = calculation;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.profitcalculator.service;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.example.profitcalculator.exception.BadRequestException;
+
+/**
+ * Validation shared by the keyset-paginated reads. The cursor is the last id the client has
+ * seen, so every page is an index range scan starting at {@code after} regardless of its depth.
+ */
+final class CursorPages {
+    static final int MAX_LIMIT = 1000;
+
+    private CursorPages() {}
+
+    static Pageable firstRows(Long after, int limit) {
+        if (after == null || after < 0) {
+            throw new BadRequestException("Cursor must not be negative");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return PageRequest.of(0, limit);
+    }
+}
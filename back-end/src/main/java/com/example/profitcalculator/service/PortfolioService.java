@@ -0,0 +1,85 @@
+package com.example.profitcalculator.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import com.example.profitcalculator.dto.CalculationAnalyticsDTO;
+import com.example.profitcalculator.dto.PortfolioDTO;
+import com.example.profitcalculator.dto.ProfitBucketDTO;
+import com.example.profitcalculator.dto.ShipmentSummaryDTO;
+import com.example.profitcalculator.exception.BadRequestException;
+import com.example.profitcalculator.mapper.ShipmentMapper;
+import com.example.profitcalculator.repository.ShipmentRepository;
+
+/**
+ * Profitability across all shipments. The ranked shipments come from the shipment table's
+ * running totals, sorted and cut in SQL. Everything per calculation comes from
+ * {@link CalculationAggregates}. Neither source reads calculation entities.
+ */
+@Service
+public class PortfolioService {
+    static final int MAX_SHIPMENTS = 100;
+    static final int MAX_BUCKETS = 100;
+
+    private final ShipmentRepository shipmentRepository;
+    private final CalculationAggregates calculationAggregates;
+    private final ShipmentMapper shipmentMapper;
+
+    public PortfolioService(ShipmentRepository shipmentRepository,
+                            CalculationAggregates calculationAggregates,
+                            ShipmentMapper shipmentMapper) {
+        this.shipmentRepository = shipmentRepository;
+        this.calculationAggregates = calculationAggregates;
+        this.shipmentMapper = shipmentMapper;
+    }
+
+    /**
+     * @param shipments how many shipments to rank at each end; shipments without calculations
+     *                  are left out
+     * @param buckets   how many buckets to split the profit or loss range into
+     */
+    public PortfolioDTO getPortfolio(int shipments, int buckets) {
+        if (shipments < 1 || shipments > MAX_SHIPMENTS) {
+            throw new BadRequestException("Shipments must be between 1 and " + MAX_SHIPMENTS);
+        }
+        if (buckets < 1 || buckets > MAX_BUCKETS) {
+            throw new BadRequestException("Buckets must be between 1 and " + MAX_BUCKETS);
+        }
+
+        Pageable ranked = PageRequest.of(0, shipments);
+        List<ShipmentSummaryDTO> mostProfitable = shipmentRepository
+                .findByCalculationCountGreaterThanOrderByTotalProfitOrLossCentsDescIdAsc(0, ranked)
+                .stream().map(shipmentMapper::toSummaryDTO).toList();
+        List<ShipmentSummaryDTO> leastProfitable = shipmentRepository
+                .findByCalculationCountGreaterThanOrderByTotalProfitOrLossCentsAscIdAsc(0, ranked)
+                .stream().map(shipmentMapper::toSummaryDTO).toList();
+
+        CalculationAnalyticsDTO totals = calculationAggregates.totals();
+        ProfitDistribution distribution = calculationAggregates.profitDistribution(buckets);
+        return PortfolioDTO.builder()
+                .totals(totals)
+                .margin(totals.getTotalIncomeCents() == 0
+                        ? null
+                        : (double) totals.getTotalProfitOrLossCents() / totals.getTotalIncomeCents())
+                .lossMakingCalculationCount(distribution.getLossMakingCount())
+                .mostProfitableShipments(mostProfitable)
+                .leastProfitableShipments(leastProfitable)
+                .profitHistogram(histogram(distribution))
+                .build();
+    }
+
+    private static List<ProfitBucketDTO> histogram(ProfitDistribution distribution) {
+        List<ProfitBucketDTO> histogram = new ArrayList<>(distribution.getBucketCount());
+        long from = distribution.getLowestCents();
+        for (int bucket = 0; bucket < distribution.getBucketCount(); bucket++) {
+            long to = from + distribution.getBucketWidthCents();
+            histogram.add(new ProfitBucketDTO(from, to, distribution.getCount(bucket)));
+            from = to;
+        }
+        return histogram;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.profitcalculator.service;
+
+/**
+ * The profit or loss of all calculations in equal-width buckets, from the lowest value to the
+ * highest, plus the number of calculations that lost money. Bucket {@code i} holds the
+ * calculations from {@code lowestCents + i * bucketWidthCents} up to, excluding, the next bucket's
+ * start. There are no buckets when there are no calculations.
+ */
+public class ProfitDistribution {
+    private final long lossMakingCount;
+    private final long lowestCents;
+    private final long bucketWidthCents;
+    private final long[] bucketCounts;
+
+    ProfitDistribution(long lossMakingCount, long lowestCents, long bucketWidthCents, long[] bucketCounts) {
+        this.lossMakingCount = lossMakingCount;
+        this.lowestCents = lowestCents;
+        this.bucketWidthCents = bucketWidthCents;
+        this.bucketCounts = bucketCounts;
+    }
+
+    // Wide enough that the highest profit still falls into the last bucket
+    static long bucketWidth(long lowestCents, long highestCents, int buckets) {
+        return (highestCents - lowestCents) / buckets + 1;
+    }
+
+    public long getLossMakingCount() {
+        return lossMakingCount;
+    }
+
+    public long getLowestCents() {
+        return lowestCents;
+    }
+
+    public long getBucketWidthCents() {
+        return bucketWidthCents;
+    }
+
+    public int getBucketCount() {
+        return bucketCounts.length;
+    }
+
+    public long getCount(int bucket) {
+        return bucketCounts[bucket];
+    }
+}
@@ -1,22 +1,38 @@
 package com.example.profitcalculator.service;
 
+import com.example.profitcalculator.dto.ShipmentDTO;
 import com.example.profitcalculator.entity.Shipment;
+import com.example.profitcalculator.exception.BadRequestException;
 import com.example.profitcalculator.exception.ResourceNotFoundException;
 import com.example.profitcalculator.repository.ShipmentRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
 public class ShipmentService {
+    static final int MAX_BULK_DELETE_SIZE = 1000;
+
     private final ShipmentRepository shipmentRepository;
+    private final ShipmentVersions shipmentVersions;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ShipmentService(ShipmentRepository shipmentRepository) {
+    public ShipmentService(ShipmentRepository shipmentRepository, ShipmentVersions shipmentVersions,
+                           ApplicationEventPublisher eventPublisher) {
         this.shipmentRepository = shipmentRepository;
+        this.shipmentVersions = shipmentVersions;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // The DTO reads build no entities; see ShipmentRepository#findDTOPage
+    public List<ShipmentDTO> getAllDTOs() {
+        return shipmentRepository.findAllDTOs();
     }
 
-    public List<Shipment> getAll() {
-        return shipmentRepository.findAll();
+    public List<ShipmentDTO> getDTOPage(Long after, int limit) {
+        return shipmentRepository.findDTOPage(after, CursorPages.firstRows(after, limit));
     }
 
     public Shipment getById(Long id) {
@@ -25,14 +41,40 @@ public class ShipmentService {
     }
 
     public Shipment create(Shipment shipment) {
-        return shipmentRepository.save(shipment);
+        Shipment saved = shipmentRepository.save(shipment);
+        shipmentVersions.listChanged();
+        return saved;
     }
 
+    @Transactional
     public void delete(Long id) {
-        // Check if shipment exists before deleting
-        if (!shipmentRepository.existsById(id)) {
+        // One DELETE; the foreign key's ON DELETE CASCADE removes the calculations
+        if (shipmentRepository.deleteShipmentById(id) == 0) {
             throw new ResourceNotFoundException("Shipment", "id", id);
         }
-        shipmentRepository.deleteById(id); // cascade deletes calculations
+        shipmentVersions.listChanged();
+        eventPublisher.publishEvent(new ShipmentsDeletedEvent(List.of(id)));
+    }
+
+    /**
+     * Deletes many shipments with one DELETE. Their calculations are removed by the foreign key
+     * cascade, so none of them is loaded. Ids of shipments that do not exist are skipped.
+     *
+     * @return the number of shipments deleted
+     */
+    @Transactional
+    public int deleteAll(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new BadRequestException("At least one shipment id is required");
+        }
+        if (ids.size() > MAX_BULK_DELETE_SIZE) {
+            throw new BadRequestException("At most " + MAX_BULK_DELETE_SIZE + " shipments can be deleted at once");
+        }
+        int deleted = shipmentRepository.deleteShipmentsByIdIn(ids);
+        if (deleted > 0) {
+            shipmentVersions.listChanged();
+            eventPublisher.publishEvent(new ShipmentsDeletedEvent(List.copyOf(ids)));
+        }
+        return deleted;
     }
 }
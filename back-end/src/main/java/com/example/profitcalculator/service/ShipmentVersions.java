@@ -0,0 +1,48 @@
+package com.example.profitcalculator.service;
+
+import com.example.profitcalculator.entity.Shipment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version tags for conditional GETs. A shipment's tag follows the version column the totals
+ * UPDATEs bump. The shipment list's tag follows a counter kept here, bumped on every shipment
+ * create and delete.
+ *
+ * <p>Both tags start with the boot time. With the in-memory database the same ids and versions
+ * come back for different data after a restart, and a tag from before must not match them. The
+ * list counter restarts at zero in every mode.
+ */
+@Component
+public class ShipmentVersions {
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong listVersion = new AtomicLong();
+
+    public String listTag() {
+        return epoch + "-" + listVersion.get();
+    }
+
+    public String tagOf(Shipment shipment) {
+        return epoch + "-" + shipment.getId() + "-" + shipment.getVersion();
+    }
+
+    /**
+     * Bumps the list version once the current transaction commits, so a reader never pairs the
+     * new version with the old list and caches that.
+     */
+    void listChanged() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            listVersion.incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                listVersion.incrementAndGet();
+            }
+        });
+    }
+}
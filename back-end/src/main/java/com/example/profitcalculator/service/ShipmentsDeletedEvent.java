@@ -0,0 +1,20 @@
+package com.example.profitcalculator.service;
+
+import java.util.List;
+
+/**
+ * Shipments deleted together with their calculations. The calculations go by the foreign key
+ * cascade, so no {@link CalculationEvent} is published for them. {@link ShipmentService} publishes
+ * it inside the deleting transaction.
+ */
+public class ShipmentsDeletedEvent {
+    private final List<Long> shipmentIds;
+
+    public ShipmentsDeletedEvent(List<Long> shipmentIds) {
+        this.shipmentIds = shipmentIds;
+    }
+
+    public List<Long> getShipmentIds() {
+        return shipmentIds;
+    }
+}
@@ -3,7 +3,14 @@ INSERT INTO shipment DEFAULT VALUES;
 INSERT INTO shipment DEFAULT VALUES;
 
 -- Insert initial calculations
-INSERT INTO calculation (shipment_id, income, cost, profit_or_loss)
-VALUES (1, 1000, 500, 500),
-       (1, 200, 300, -100),
-       (2, 1500, 1000, 500);
+INSERT INTO calculation (shipment_id, income_cents, cost_cents, profit_or_loss_cents)
+VALUES (1, 100000, 50000, 50000),
+       (1, 20000, 30000, -10000),
+       (2, 150000, 100000, 50000);
+
+-- Seed the per-shipment totals from the calculations above
+UPDATE shipment s
+SET calculation_count = (SELECT COUNT(*) FROM calculation c WHERE c.shipment_id = s.id),
+    total_income_cents = (SELECT COALESCE(SUM(c.income_cents), 0) FROM calculation c WHERE c.shipment_id = s.id),
+    total_cost_cents = (SELECT COALESCE(SUM(c.cost_cents), 0) FROM calculation c WHERE c.shipment_id = s.id),
+    total_profit_or_loss_cents = (SELECT COALESCE(SUM(c.profit_or_loss_cents), 0) FROM calculation c WHERE c.shipment_id = s.id);
@@ -1,15 +1,32 @@
 -- Shipments table
+-- The totals are maintained by CalculationService on every calculation create and delete.
+-- All amounts are whole cents. The version is bumped together with the totals and backs the
+-- ETags of the shipment's GET endpoints.
 CREATE TABLE shipment (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0,
+    calculation_count BIGINT NOT NULL DEFAULT 0,
+    total_income_cents BIGINT NOT NULL DEFAULT 0,
+    total_cost_cents BIGINT NOT NULL DEFAULT 0,
+    total_profit_or_loss_cents BIGINT NOT NULL DEFAULT 0
 );
 
+-- Calculation ids come from a sequence so Hibernate can pre-allocate them in blocks of 50
+-- and batch the INSERTs; rows inserted directly in SQL draw from the same sequence.
+CREATE SEQUENCE calculation_seq START WITH 1 INCREMENT BY 50;
+
 -- Calculations table
 CREATE TABLE calculation (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT DEFAULT NEXT VALUE FOR calculation_seq PRIMARY KEY,
     shipment_id BIGINT NOT NULL,
-    income DOUBLE NOT NULL DEFAULT 0,
-    cost DOUBLE NOT NULL DEFAULT 0,
-    profit_or_loss DOUBLE,
-    CONSTRAINT fk_shipment FOREIGN KEY (shipment_id)
-        REFERENCES shipment(id) ON DELETE CASCADE
+    income_cents BIGINT NOT NULL DEFAULT 0,
+    cost_cents BIGINT NOT NULL DEFAULT 0,
+    profit_or_loss_cents BIGINT NOT NULL DEFAULT 0
 );
+
+-- Keyset pagination of a shipment's calculations seeks on (shipment_id, id).
+-- Created before the foreign key so H2 reuses it instead of adding its own index.
+CREATE INDEX idx_calculation_shipment_id_id ON calculation (shipment_id, id);
+
+ALTER TABLE calculation ADD CONSTRAINT fk_shipment FOREIGN KEY (shipment_id)
+    REFERENCES shipment(id) ON DELETE CASCADE;
@@ -0,0 +1,98 @@
+package com.example.profitcalculator;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.profitcalculator.dto.CalculationAnalyticsDTO;
+import com.example.profitcalculator.dto.CalculationTicketDTO;
+import com.example.profitcalculator.entity.Calculation;
+import com.example.profitcalculator.entity.Shipment;
+import com.example.profitcalculator.service.CalculationAggregates;
+import com.example.profitcalculator.service.CalculationColumns;
+import com.example.profitcalculator.service.CalculationService;
+import com.example.profitcalculator.service.CalculationWriteQueue;
+import com.example.profitcalculator.service.ShipmentService;
+
+/**
+ * The {@code file} profile keeps the data across restarts and only runs schema.sql and data.sql
+ * on the first start.
+ */
+class FileStorageIntegrationTest {
+
+    @TempDir
+    Path storageDir;
+
+    @Test
+    void fileProfile_ShouldKeepDataAcrossRestartsWithoutReseeding() {
+        Long shipmentId;
+        try (ConfigurableApplicationContext context = start()) {
+            assertEquals(2, context.getBean(ShipmentService.class).getAllDTOs().size());
+
+            shipmentId = context.getBean(ShipmentService.class).create(Shipment.builder().build()).getId();
+            context.getBean(CalculationService.class).create(shipmentId, Calculation.builder()
+                    .incomeCents(100_000)
+                    .costCents(40_000)
+                    .build());
+        }
+        assertTrue(Files.exists(storageDir.resolve("profitdb.mv.db")));
+
+        try (ConfigurableApplicationContext context = start()) {
+            assertEquals(3, context.getBean(ShipmentService.class).getAllDTOs().size());
+
+            Shipment shipment = context.getBean(ShipmentService.class).getById(shipmentId);
+            assertEquals(1, shipment.getCalculationCount());
+            assertEquals(60_000, shipment.getTotalProfitOrLossCents());
+            assertEquals(2, context.getBean(CalculationService.class).getDTOsByShipmentId(1L).size());
+        }
+    }
+
+    @Test
+    void fileProfile_ShouldReportWriteBehindTicketsDurableOnceSynced() throws Exception {
+        try (ConfigurableApplicationContext context = start()) {
+            CalculationWriteQueue writeQueue = context.getBean(CalculationWriteQueue.class);
+            long ticket = writeQueue.submit(1L, Calculation.builder()
+                    .shipment(Shipment.builder().id(1L).build())
+                    .incomeCents(100_000)
+                    .costCents(40_000)
+                    .build());
+
+            CalculationTicketDTO status = writeQueue.status(1L, ticket);
+            for (int poll = 0; poll < 100 && status.getStatus() == CalculationTicketDTO.Status.PENDING; poll++) {
+                Thread.sleep(50);
+                status = writeQueue.status(1L, ticket);
+            }
+            assertEquals(CalculationTicketDTO.Status.DURABLE, status.getStatus());
+        }
+    }
+
+    @Test
+    void fileProfile_ShouldAnswerAnalyticsFromTheDatabaseWithoutTheColumnStore() {
+        try (ConfigurableApplicationContext context = start()) {
+            assertTrue(context.getBeansOfType(CalculationColumns.class).isEmpty());
+
+            CalculationAnalyticsDTO totals = context.getBean(CalculationAggregates.class).totals();
+            Long seeded = context.getBean(JdbcTemplate.class)
+                    .queryForObject("SELECT COUNT(*) FROM calculation", Long.class);
+            assertEquals(seeded, totals.getCalculationCount());
+            assertTrue(totals.getCalculationCount() > 0);
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(ProfitCalculatorApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("file")
+                .run("--profit.storage.dir=" + storageDir.toAbsolutePath(),
+                        "--logging.level.root=WARN");
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.profitcalculator;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.profitcalculator.dto.CalculationDTO;
+import com.example.profitcalculator.dto.ShipmentDTO;
+
+// Own database, as this context lives next to the other integration tests' context
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:metricsdb")
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricsIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void prometheusEndpoint_ShouldExposeRouteLatencyHibernateAndPoolMetrics() {
+        // Arrange: exercise a few routes
+        Long shipmentId = restTemplate.postForObject("/api/profit/shipments", null, ShipmentDTO.class).getId();
+        CalculationDTO created = restTemplate.postForObject("/api/profit/shipments/{shipmentId}/calculations",
+                CalculationDTO.builder().incomeCents(10000).costCents(4000).build(), CalculationDTO.class, shipmentId);
+        restTemplate.delete("/api/profit/shipments/{shipmentId}/calculations/{calculationId}", shipmentId, created.getId());
+        restTemplate.getForObject("/api/profit/shipments/{shipmentId}", String.class, shipmentId);
+        restTemplate.getForObject("/api/profit/shipments/{shipmentId}", String.class, shipmentId);
+
+        // Act
+        ResponseEntity<String> response = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String scrape = response.getBody();
+        assertTrue(scrape.contains("http_server_requests_seconds{") && scrape.contains("quantile=\"0.99\""));
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket{"));
+        assertTrue(scrape.contains("uri=\"/api/profit/shipments/{shipmentId}/calculations\""));
+        assertTrue(scrape.contains("profit_calculations_created_total"));
+        assertTrue(scrape.contains("profit_calculations_deleted_total"));
+        assertTrue(scrape.contains("hibernate_request_statements_count{"));
+        assertTrue(scrape.contains("hibernate_request_entity_loads_sum{"));
+        assertTrue(scrape.contains("hibernate_request_flushes_sum{"));
+        assertTrue(scrape.contains("hibernate_statements_total"));
+        assertTrue(scrape.contains("hibernate_second_level_cache_requests_total{")
+                && scrape.contains("region=\"com.example.profitcalculator.entity.Shipment\",result=\"hit\""));
+        assertTrue(scrape.contains("hibernate_cache_query_requests_total{"));
+        assertTrue(scrape.contains("hikaricp_connections_acquire_seconds"));
+        assertTrue(scrape.contains("hikaricp_connections_usage_seconds"));
+        assertTrue(scrape.contains("hikaricp_connections_active"));
+    }
+}
@@ -3,20 +3,36 @@ package com.example.profitcalculator;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import com.example.profitcalculator.dto.CalculationDTO;
+import com.example.profitcalculator.repository.CalculationRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -28,6 +44,9 @@ class ProfitCalculatorIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CalculationRepository calculationRepository;
+
     private MockMvc mockMvc;
 
     @Test
@@ -47,11 +66,23 @@ class ProfitCalculatorIntegrationTest {
                 .andExpect(jsonPath("$.id").exists());
 
         // Step 2: Get all shipments
-        mockMvc.perform(get("/api/profit/shipments"))
+        mockMvc.perform(get("/api/profit/shipments").param("unpaged", "true"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$").isArray());
 
+        // Step 2b: Page through shipments with the id cursor
+        mockMvc.perform(get("/api/profit/shipments").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.nextCursor").value(1));
+
+        mockMvc.perform(get("/api/profit/shipments").param("after", "1").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(2))
+                .andExpect(jsonPath("$.nextCursor").value(2));
+
         // Step 3: Get shipment by ID (assuming ID 1 exists from data.sql)
         mockMvc.perform(get("/api/profit/shipments/1"))
                 .andExpect(status().isOk())
@@ -60,8 +91,8 @@ class ProfitCalculatorIntegrationTest {
 
         // Step 4: Create a calculation for shipment 1
         CalculationDTO calculationDTO = CalculationDTO.builder()
-                .income(100.0)
-                .cost(50.0)
+                .incomeCents(10000)
+                .costCents(5000)
                 .build();
 
         mockMvc.perform(post("/api/profit/shipments/1/calculations")
@@ -75,10 +106,331 @@ class ProfitCalculatorIntegrationTest {
                 .andExpect(jsonPath("$.profitOrLoss").value(50.0));
 
         // Step 5: Get calculations for shipment 1
-        mockMvc.perform(get("/api/profit/shipments/1/calculations"))
+        mockMvc.perform(get("/api/profit/shipments/1/calculations").param("unpaged", "true"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$").isArray());
+
+        // Step 6: Summary reflects the seeded calculations plus the one created above
+        mockMvc.perform(get("/api/profit/shipments/2/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.shipmentId").value(2))
+                .andExpect(jsonPath("$.calculationCount").value(1))
+                .andExpect(jsonPath("$.totalIncome").value(1500.0))
+                .andExpect(jsonPath("$.totalCost").value(1000.0))
+                .andExpect(jsonPath("$.totalProfitOrLoss").value(500.0));
+
+        // Step 7: Page through calculations for shipment 1
+        mockMvc.perform(get("/api/profit/shipments/1/calculations").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].shipmentId").value(1))
+                .andExpect(jsonPath("$.nextCursor").exists());
+    }
+
+    @Test
+    void bulkCreate_ShouldInsertAllCalculationsAndUpdateSummary() throws Exception {
+        // Setup MockMvc
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        String created = mockMvc.perform(post("/api/profit/shipments"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long shipmentId = objectMapper.readTree(created).get("id").asLong();
+
+        List<CalculationDTO> calculations = new ArrayList<>();
+        for (int i = 1; i <= 120; i++) {
+            calculations.add(CalculationDTO.builder().incomeCents(i * 100L).costCents(100).build());
+        }
+
+        mockMvc.perform(post("/api/profit/shipments/{shipmentId}/calculations/bulk", shipmentId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(calculations)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(120));
+
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/summary", shipmentId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.calculationCount").value(120))
+                .andExpect(jsonPath("$.totalIncome").value(7260.0))
+                .andExpect(jsonPath("$.totalCost").value(120.0))
+                .andExpect(jsonPath("$.totalProfitOrLoss").value(7140.0));
+
+        // A bulk request for a missing shipment is rejected as a whole
+        mockMvc.perform(post("/api/profit/shipments/999/calculations/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(calculations)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void calculationList_ShouldBeServedInTheFormatTheClientAccepts() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        JsonNode json = objectMapper.readTree(mockMvc.perform(get("/api/profit/shipments/1/calculations").param("unpaged", "true"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray());
+
+        byte[] cbor = mockMvc.perform(get("/api/profit/shipments/1/calculations").param("unpaged", "true")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] smile = mockMvc.perform(get("/api/profit/shipments/1/calculations").param("unpaged", "true")
+                        .accept(MediaType.valueOf("application/x-jackson-smile")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(1000.0, json.get(0).get("income").asDouble());
+        assertEquals(json, new CBORMapper().readTree(cbor));
+        assertEquals(json, new SmileMapper().readTree(smile));
+    }
+
+    @Test
+    void eventStream_ShouldPushCommittedCreatesAndDeletesUntilTheShipmentIsDeleted() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        long shipmentId = objectMapper.readTree(mockMvc.perform(post("/api/profit/shipments"))
+                .andReturn().getResponse().getContentAsString()).get("id").asLong();
+        MvcResult stream = mockMvc.perform(get("/api/profit/shipments/{shipmentId}/events", shipmentId)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        long calculationId = objectMapper.readTree(mockMvc.perform(post("/api/profit/shipments/{shipmentId}/calculations", shipmentId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                CalculationDTO.builder().incomeCents(10000).costCents(4000).build())))
+                .andReturn().getResponse().getContentAsString()).get("id").asLong();
+        // Rolled back, so never sent
+        mockMvc.perform(post("/api/profit/shipments/{shipmentId}/calculations/bulk", shipmentId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"income\": 10}, {\"income\": 0, \"cost\": 0}]"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(delete("/api/profit/shipments/{shipmentId}/calculations/{calculationId}", shipmentId, calculationId))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/profit/shipments/{shipmentId}", shipmentId))
+                .andExpect(status().isOk());
+
+        String events = awaitEvents(stream, "event:shipment-deleted\ndata:" + shipmentId + "\n\n");
+        assertEquals(":subscribed\n\n"
+                + "event:created\ndata:[{\"id\":" + calculationId + ",\"shipmentId\":" + shipmentId
+                + ",\"income\":100.0,\"cost\":40.0,\"profitOrLoss\":60.0}]\n\n"
+                + "event:deleted\ndata:[" + calculationId + "]\n\n"
+                + "event:shipment-deleted\ndata:" + shipmentId + "\n\n", events);
+    }
+
+    @Test
+    void asyncCreate_ShouldBeCommittedAfterTheAcceptedResponse() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        long shipmentId = objectMapper.readTree(mockMvc.perform(post("/api/profit/shipments"))
+                .andReturn().getResponse().getContentAsString()).get("id").asLong();
+
+        String ticket = mockMvc.perform(post("/api/profit/shipments/{shipmentId}/calculations", shipmentId)
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"income\": 100, \"cost\": 40}"))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+
+        JsonNode status = objectMapper.readTree(mockMvc.perform(get(ticket))
+                .andReturn().getResponse().getContentAsString());
+        for (int poll = 0; poll < 100 && status.get("status").asText().equals("PENDING"); poll++) {
+            Thread.sleep(50);
+            status = objectMapper.readTree(mockMvc.perform(get(ticket))
+                    .andReturn().getResponse().getContentAsString());
+        }
+        // The in-memory database commits but never syncs
+        assertEquals("COMMITTED", status.get("status").asText());
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/calculations", shipmentId))
+                .andExpect(jsonPath("$.items[0].id").value(status.get("calculationId").asLong()))
+                .andExpect(jsonPath("$.items[0].profitOrLoss").value(60.0));
+
+        // Checked before queueing, as a synchronous create would
+        mockMvc.perform(post("/api/profit/shipments/999999/calculations")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"income\": 100}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void analytics_ShouldFollowCommittedCreatesAndDeletes() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        long countBefore = analytics().get("calculationCount").asLong();
+        long shipmentId = objectMapper.readTree(mockMvc.perform(post("/api/profit/shipments"))
+                .andReturn().getResponse().getContentAsString()).get("id").asLong();
+        JsonNode created = objectMapper.readTree(mockMvc.perform(post("/api/profit/shipments/{shipmentId}/calculations/bulk", shipmentId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"income\": 12345.67}, {\"income\": 12345.67}, {\"income\": 100, \"cost\": 200}]"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        assertEquals(countBefore + 3, analytics().get("calculationCount").asLong());
+        // No other calculation in the test data has this profit
+        mockMvc.perform(get("/api/profit/analytics")
+                        .param("minProfitOrLoss", "12345.67")
+                        .param("maxProfitOrLoss", "12345.67"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.calculationCount").value(2))
+                .andExpect(jsonPath("$.totalProfitOrLoss").value(24691.34))
+                .andExpect(jsonPath("$.averageIncome").value(12345.67));
+
+        mockMvc.perform(delete("/api/profit/shipments/{shipmentId}/calculations/{calculationId}",
+                        shipmentId, created.get(0).asLong()))
+                .andExpect(status().isOk());
+        assertEquals(countBefore + 2, analytics().get("calculationCount").asLong());
+
+        mockMvc.perform(delete("/api/profit/shipments/{shipmentId}", shipmentId))
+                .andExpect(status().isOk());
+        assertEquals(countBefore, analytics().get("calculationCount").asLong());
+    }
+
+    @Test
+    void portfolio_ShouldRankShipmentsByTheirTotals() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        long shipmentId = objectMapper.readTree(mockMvc.perform(post("/api/profit/shipments"))
+                .andReturn().getResponse().getContentAsString()).get("id").asLong();
+        mockMvc.perform(post("/api/profit/shipments/{shipmentId}/calculations/bulk", shipmentId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"cost\": 99999}, {\"income\": 1, \"cost\": 2}]"))
+                .andExpect(status().isOk());
+
+        JsonNode portfolio = objectMapper.readTree(mockMvc.perform(get("/api/profit/analytics/portfolio")
+                        .param("shipments", "1")
+                        .param("buckets", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.leastProfitableShipments[0].shipmentId").value(shipmentId))
+                .andExpect(jsonPath("$.leastProfitableShipments[0].totalProfitOrLoss").value(-100000.0))
+                .andExpect(jsonPath("$.profitHistogram.length()").value(4))
+                .andExpect(jsonPath("$.profitHistogram[0].fromProfitOrLoss").value(-99999.0))
+                .andReturn().getResponse().getContentAsString());
+
+        long histogramCount = 0;
+        for (JsonNode bucket : portfolio.get("profitHistogram")) {
+            histogramCount += bucket.get("calculationCount").asLong();
+        }
+        assertEquals(portfolio.get("totals").get("calculationCount").asLong(), histogramCount);
+        assertTrue(portfolio.get("lossMakingCalculationCount").asLong() >= 2);
+
+        mockMvc.perform(delete("/api/profit/shipments/{shipmentId}", shipmentId))
+                .andExpect(status().isOk());
+    }
+
+    private JsonNode analytics() throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get("/api/profit/analytics"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    @Test
+    void conditionalGets_ShouldReturn304UntilTheDataChanges() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        String listTag = etagOf(get("/api/profit/shipments").param("unpaged", "true"));
+        long shipmentId = objectMapper.readTree(mockMvc.perform(post("/api/profit/shipments"))
+                .andReturn().getResponse().getContentAsString()).get("id").asLong();
+
+        // Creating the shipment changed the list
+        mockMvc.perform(get("/api/profit/shipments").param("unpaged", "true").header(HttpHeaders.IF_NONE_MATCH, listTag))
+                .andExpect(status().isOk());
+        listTag = etagOf(get("/api/profit/shipments").param("unpaged", "true"));
+
+        String calculationsTag = etagOf(get("/api/profit/shipments/{shipmentId}/calculations", shipmentId));
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/calculations", shipmentId)
+                        .header(HttpHeaders.IF_NONE_MATCH, calculationsTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // Adding a calculation changes the shipment's tag but not the list's
+        mockMvc.perform(post("/api/profit/shipments/{shipmentId}/calculations", shipmentId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                CalculationDTO.builder().incomeCents(10000).costCents(4000).build())))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/calculations", shipmentId)
+                        .header(HttpHeaders.IF_NONE_MATCH, calculationsTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1));
+        mockMvc.perform(get("/api/profit/shipments").param("unpaged", "true").header(HttpHeaders.IF_NONE_MATCH, listTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(delete("/api/profit/shipments/{shipmentId}", shipmentId))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/profit/shipments").param("unpaged", "true").header(HttpHeaders.IF_NONE_MATCH, listTag))
+                .andExpect(status().isOk());
+    }
+
+    private String etagOf(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void csvImport_ShouldCreateCalculationsAndReportRejectedRows() throws Exception {
+        // Setup MockMvc
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        String created = mockMvc.perform(post("/api/profit/shipments"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long shipmentId = objectMapper.readTree(created).get("id").asLong();
+
+        StringBuilder csv = new StringBuilder("shipmentId,income,cost\n");
+        for (int i = 1; i <= 2500; i++) {
+            csv.append(shipmentId).append(',').append(i).append(",1\n");
+        }
+        csv.append("999,10,5\n");
+
+        mockMvc.perform(post("/api/profit/import")
+                        .contentType("text/csv")
+                        .content(csv.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsRead").value(2501))
+                .andExpect(jsonPath("$.rowsImported").value(2500))
+                .andExpect(jsonPath("$.rowsRejected").value(1))
+                .andExpect(jsonPath("$.rejectedRows[0].line").value(2502));
+
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/summary", shipmentId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.calculationCount").value(2500))
+                .andExpect(jsonPath("$.totalIncome").value(3126250.0))
+                .andExpect(jsonPath("$.totalCost").value(2500.0));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void export_ShouldStreamEveryCalculationInImportableFormat() throws Exception {
+        // Setup MockMvc
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        long calculationCount = calculationRepository.count();
+
+        MvcResult ndjson = mockMvc.perform(get("/api/profit/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String[] lines = mockMvc.perform(asyncDispatch(ndjson))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().split("\n");
+        assertEquals(calculationCount, lines.length);
+        assertEquals(1L, objectMapper.readTree(lines[0]).get("id").asLong());
+
+        MvcResult csv = mockMvc.perform(get("/api/profit/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String exported = mockMvc.perform(asyncDispatch(csv))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(calculationCount + 1, exported.split("\n").length);
+
+        // The CSV export can be imported again as is
+        mockMvc.perform(post("/api/profit/import")
+                        .contentType("text/csv")
+                        .content(exported))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsImported").value(calculationCount))
+                .andExpect(jsonPath("$.rowsRejected").value(0));
     }
 
     @Test
@@ -103,8 +455,8 @@ class ProfitCalculatorIntegrationTest {
 
         // Test 400 for invalid calculation data
         CalculationDTO invalidCalculationDTO = CalculationDTO.builder()
-                .income(0.0)
-                .cost(0.0)
+                .incomeCents(0)
+                .costCents(0)
                 .build();
 
         mockMvc.perform(post("/api/profit/shipments/1/calculations")
@@ -116,4 +468,14 @@ class ProfitCalculatorIntegrationTest {
                 .andExpect(jsonPath("$.error").value("Bad Request"))
                 .andExpect(jsonPath("$.message").value("Income and Cost cannot both be 0"));
     }
+
+    // Events are written by sender threads after the commit, so the stream catches up a little later
+    private static String awaitEvents(MvcResult stream, String last) throws Exception {
+        String events = stream.getResponse().getContentAsString();
+        for (int poll = 0; poll < 100 && !events.endsWith(last); poll++) {
+            Thread.sleep(50);
+            events = stream.getResponse().getContentAsString();
+        }
+        return events;
+    }
 }
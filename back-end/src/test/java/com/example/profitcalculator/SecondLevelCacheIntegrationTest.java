@@ -0,0 +1,141 @@
+package com.example.profitcalculator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.profitcalculator.dto.CalculationDTO;
+import com.example.profitcalculator.entity.Calculation;
+import com.example.profitcalculator.entity.Shipment;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Reads through the second-level cache must never return data a create or delete has changed.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    }
+
+    @Test
+    void summary_ShouldBeServedFromCacheAfterFirstRead() throws Exception {
+        long shipmentId = createShipment();
+
+        for (int read = 0; read < 2; read++) {
+            mockMvc.perform(get("/api/profit/shipments/{shipmentId}/summary", shipmentId))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.calculationCount").value(0))
+                    .andExpect(jsonPath("$.totalIncome").value(0.0))
+                    .andExpect(jsonPath("$.totalProfitOrLoss").value(0.0));
+            assertTrue(entityManagerFactory.getCache().contains(Shipment.class, shipmentId));
+        }
+    }
+
+    @Test
+    void createAndDelete_ShouldInvalidateCachedSummaryAndCalculations() throws Exception {
+        long shipmentId = createShipment();
+        long calculationId = createCalculation(shipmentId, 10000, 4000);
+
+        // Warm the shipment and the calculations query
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/summary", shipmentId))
+                .andExpect(jsonPath("$.totalProfitOrLoss").value(60.0));
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/calculations", shipmentId).param("unpaged", "true"))
+                .andExpect(jsonPath("$.length()").value(1));
+
+        createCalculation(shipmentId, 1000, 500);
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/summary", shipmentId))
+                .andExpect(jsonPath("$.calculationCount").value(2))
+                .andExpect(jsonPath("$.totalProfitOrLoss").value(65.0));
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/calculations", shipmentId).param("unpaged", "true"))
+                .andExpect(jsonPath("$.length()").value(2));
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/calculations", shipmentId))
+                .andExpect(jsonPath("$.items.length()").value(2));
+
+        mockMvc.perform(delete("/api/profit/shipments/{shipmentId}/calculations/{calculationId}", shipmentId, calculationId))
+                .andExpect(status().isOk());
+        assertFalse(entityManagerFactory.getCache().contains(Calculation.class, calculationId));
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/summary", shipmentId))
+                .andExpect(jsonPath("$.calculationCount").value(1))
+                .andExpect(jsonPath("$.totalProfitOrLoss").value(5.0));
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/calculations", shipmentId).param("unpaged", "true"))
+                .andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/calculations", shipmentId))
+                .andExpect(jsonPath("$.items.length()").value(1));
+    }
+
+    @Test
+    void createCalculation_ShouldNotEvictCachedCalculations() throws Exception {
+        long shipmentId = createShipment();
+        long calculationId = createCalculation(shipmentId, 10000, 4000);
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/calculations", shipmentId).param("unpaged", "true"));
+        assertTrue(entityManagerFactory.getCache().contains(Calculation.class, calculationId));
+
+        // The totals UPDATE declares only the shipment table, so cached calculations survive it
+        createCalculation(shipmentId, 1000, 500);
+
+        assertTrue(entityManagerFactory.getCache().contains(Calculation.class, calculationId));
+    }
+
+    @Test
+    void deleteShipment_ShouldEvictCalculationsRemovedByTheDatabaseCascade() throws Exception {
+        long shipmentId = createShipment();
+        long calculationId = createCalculation(shipmentId, 10000, 4000);
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/calculations", shipmentId).param("unpaged", "true"))
+                .andExpect(jsonPath("$.length()").value(1));
+        assertTrue(entityManagerFactory.getCache().contains(Calculation.class, calculationId));
+
+        mockMvc.perform(delete("/api/profit/shipments/{shipmentId}", shipmentId))
+                .andExpect(status().isOk());
+
+        assertFalse(entityManagerFactory.getCache().contains(Shipment.class, shipmentId));
+        assertFalse(entityManagerFactory.getCache().contains(Calculation.class, calculationId));
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/calculations", shipmentId))
+                .andExpect(status().isNotFound());
+    }
+
+    private long createShipment() throws Exception {
+        String created = mockMvc.perform(post("/api/profit/shipments"))
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(created).get("id").asLong();
+    }
+
+    private long createCalculation(long shipmentId, long incomeCents, long costCents) throws Exception {
+        String created = mockMvc.perform(post("/api/profit/shipments/{shipmentId}/calculations", shipmentId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(CalculationDTO.builder().incomeCents(incomeCents).costCents(costCents).build())))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(created).get("id").asLong();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.profitcalculator;
+
+import java.nio.file.Path;
+
+import org.h2.tools.Server;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.profitcalculator.entity.Calculation;
+import com.example.profitcalculator.entity.Shipment;
+import com.example.profitcalculator.service.CalculationService;
+import com.example.profitcalculator.service.ShipmentService;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
+import reactor.core.publisher.Flux;
+
+/**
+ * With {@code profit.h2.tcp-port} set, an R2DBC client such as the reactive read API reads the
+ * rows the back end writes, from its in-memory database as well as from the {@code file}
+ * profile's.
+ */
+class SharedDatabaseIntegrationTest {
+
+    @TempDir
+    Path storageDir;
+
+    @Test
+    void inMemoryDatabase_ShouldBeReadableOverR2dbc() {
+        // Its own database, as the other tests' contexts keep profitdb open in this JVM
+        try (ConfigurableApplicationContext context = start("--spring.datasource.url=jdbc:h2:mem:shareddb")) {
+            long calculationId = writeCalculation(context);
+
+            assertEquals(60_000L, readProfitOrLoss(context, "mem:shareddb", calculationId));
+        }
+    }
+
+    @Test
+    void fileProfileDatabase_ShouldBeReadableOverR2dbc() {
+        try (ConfigurableApplicationContext context = start("--spring.profiles.active=file",
+                "--profit.storage.dir=" + storageDir.toAbsolutePath())) {
+            long calculationId = writeCalculation(context);
+
+            assertEquals(60_000L, readProfitOrLoss(context, storageDir.toAbsolutePath() + "/profitdb", calculationId));
+        }
+    }
+
+    private ConfigurableApplicationContext start(String... args) {
+        return new SpringApplicationBuilder(ProfitCalculatorApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("profit.h2.tcp-port=0", "logging.level.root=WARN")
+                .run(args);
+    }
+
+    private long writeCalculation(ConfigurableApplicationContext context) {
+        Long shipmentId = context.getBean(ShipmentService.class).create(Shipment.builder().build()).getId();
+        return context.getBean(CalculationService.class).create(shipmentId, Calculation.builder()
+                .incomeCents(100_000)
+                .costCents(40_000)
+                .build()).getId();
+    }
+
+    private long readProfitOrLoss(ConfigurableApplicationContext context, String database, long calculationId) {
+        int port = context.getBean(Server.class).getPort();
+        // r2dbc-h2 URLs only name file and mem databases; a remote one goes in its url option
+        ConnectionFactory connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.builder()
+                .option(ConnectionFactoryOptions.DRIVER, "h2")
+                .option(Option.valueOf("url"), "tcp://localhost:" + port + "/" + database)
+                .option(ConnectionFactoryOptions.USER, "sa")
+                .build());
+        return Flux.usingWhen(connectionFactory.create(),
+                        connection -> readProfitOrLoss(connection, calculationId),
+                        Connection::close)
+                .single()
+                .block();
+    }
+
+    private Flux<Long> readProfitOrLoss(Connection connection, long calculationId) {
+        return Flux.from(connection.createStatement("SELECT profit_or_loss_cents FROM calculation WHERE id = $1")
+                        .bind("$1", calculationId)
+                        .execute())
+                .flatMap(result -> result.map((row, metadata) -> row.get(0, Long.class)));
+    }
+}
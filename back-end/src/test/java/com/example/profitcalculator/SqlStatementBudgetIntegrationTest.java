@@ -0,0 +1,180 @@
+package com.example.profitcalculator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.profitcalculator.config.HibernateRequestStatistics;
+import com.example.profitcalculator.dto.CalculationDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Pins the number of SQL statements every {@code ProfitController} endpoint executes, so a change
+ * that adds a round trip fails here instead of showing up under load. Calculation ids are
+ * allocated 50 at a time, so the sequence call a create makes once per 50 rows is not counted.
+ * Reads are measured cold and then warm, when the second-level cache answers them.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SqlStatementBudgetIntegrationTest {
+
+    private static final int SEQUENCE_INCREMENT = 50;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    }
+
+    @Test
+    void shipmentEndpoints_ShouldStayWithinStatementBudget() throws Exception {
+        long shipmentId = idOf(expectStatements(1, post("/api/profit/shipments")));
+
+        expectStatements(1, get("/api/profit/shipments/{shipmentId}", shipmentId));
+        expectStatements(0, get("/api/profit/shipments/{shipmentId}", shipmentId));
+        expectStatements(1, get("/api/profit/shipments/{shipmentId}", 999));
+        expectStatements(0, get("/api/profit/shipments/{shipmentId}/summary", shipmentId));
+        expectStatements(1, get("/api/profit/shipments"));
+        expectStatements(1, get("/api/profit/shipments").param("unpaged", "true"));
+
+        // Conditional GETs that match answer 304 from the version alone
+        String listTag = mockMvc.perform(get("/api/profit/shipments")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        expectStatements(0, get("/api/profit/shipments").header(HttpHeaders.IF_NONE_MATCH, listTag));
+
+        // A calculation write evicts the shipment, as its totals changed
+        createCalculation(shipmentId);
+        expectStatements(1, get("/api/profit/shipments/{shipmentId}/summary", shipmentId));
+        expectStatements(0, get("/api/profit/shipments/{shipmentId}/summary", shipmentId));
+
+        // Deleting a shipment with calculations is still one statement; the database cascades
+        expectStatements(1, delete("/api/profit/shipments/{shipmentId}", shipmentId));
+        expectStatements(1, delete("/api/profit/shipments/{shipmentId}", shipmentId));
+    }
+
+    @Test
+    void bulkShipmentDelete_ShouldCascadeInTheDatabaseWithoutLoadingCalculations() throws Exception {
+        long first = idOf(mockMvc.perform(post("/api/profit/shipments")).andReturn());
+        long second = idOf(mockMvc.perform(post("/api/profit/shipments")).andReturn());
+        long untouched = idOf(mockMvc.perform(post("/api/profit/shipments")).andReturn());
+        jdbcTemplate.update("INSERT INTO calculation (shipment_id, income_cents, cost_cents, profit_or_loss_cents) "
+                + "SELECT ?, 1000, 400, 600 FROM SYSTEM_RANGE(1, 100000)", first);
+        createCalculation(second);
+        createCalculation(untouched);
+
+        MvcResult result = expectStatements(1, post("/api/profit/shipments/bulk-delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(first, second, 999L))));
+
+        assertEquals("2", result.getResponse().getContentAsString());
+        assertEquals(0, HibernateRequestStatistics.entityLoads());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM calculation WHERE shipment_id IN (?, ?)", Long.class, first, second));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM calculation WHERE shipment_id = ?", Long.class, untouched));
+    }
+
+    @Test
+    void calculationEndpoints_ShouldStayWithinStatementBudget() throws Exception {
+        long shipmentId = idOf(mockMvc.perform(post("/api/profit/shipments")).andReturn());
+
+        // Create: totals UPDATE and INSERT; the UPDATE alone reports a missing shipment
+        long calculationId = idOf(expectStatements(2, post("/api/profit/shipments/{shipmentId}/calculations", shipmentId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(calculation(10000, 4000)))));
+        expectStatements(1, post("/api/profit/shipments/{shipmentId}/calculations", 999)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(calculation(10000, 4000))));
+        expectStatements(0, post("/api/profit/shipments/{shipmentId}/calculations", shipmentId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(calculation(0, 0))));
+
+        // Bulk: one totals UPDATE and one INSERT batch per 50 rows
+        List<CalculationDTO> bulk = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            bulk.add(calculation(1000, 100));
+        }
+        expectStatements(4, post("/api/profit/shipments/{shipmentId}/calculations/bulk", shipmentId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(bulk)));
+
+        // Reads: the existence check and the rows, then both from the cache
+        expectStatements(2, get("/api/profit/shipments/{shipmentId}/calculations", shipmentId));
+        expectStatements(0, get("/api/profit/shipments/{shipmentId}/calculations", shipmentId));
+        expectStatements(1, get("/api/profit/shipments/{shipmentId}/calculations", 999));
+        expectStatements(1, get("/api/profit/shipments/{shipmentId}/calculations", shipmentId).param("unpaged", "true"));
+        expectStatements(0, get("/api/profit/shipments/{shipmentId}/calculations", shipmentId).param("unpaged", "true"));
+
+        // A matching If-None-Match needs only the shipment, assembled from the cache; no
+        // calculation is read
+        String tag = mockMvc.perform(get("/api/profit/shipments/{shipmentId}/calculations", shipmentId))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        MvcResult notModified = expectStatements(0, get("/api/profit/shipments/{shipmentId}/calculations", shipmentId)
+                .header(HttpHeaders.IF_NONE_MATCH, tag));
+        assertEquals(304, notModified.getResponse().getStatus());
+        assertEquals(1, HibernateRequestStatistics.entityLoads());
+
+        // Delete: totals UPDATE and DELETE, both scoped to the shipment
+        expectStatements(1, delete("/api/profit/shipments/{shipmentId}/calculations/{calculationId}", 999, calculationId));
+        expectStatements(2, delete("/api/profit/shipments/{shipmentId}/calculations/{calculationId}", shipmentId, calculationId));
+        expectStatements(1, delete("/api/profit/shipments/{shipmentId}/calculations/{calculationId}", shipmentId, calculationId));
+    }
+
+    private MvcResult expectStatements(long expected, RequestBuilder request) throws Exception {
+        long sequenceBefore = sequenceValue();
+        HibernateRequestStatistics.reset();
+        MvcResult result = mockMvc.perform(request).andReturn();
+        long sequenceFetches = (sequenceValue() - sequenceBefore) / SEQUENCE_INCREMENT;
+
+        assertEquals(expected, HibernateRequestStatistics.statements() - sequenceFetches,
+                result.getRequest().getMethod() + " " + result.getRequest().getRequestURI()
+                        + " returned " + result.getResponse().getStatus());
+        return result;
+    }
+
+    private long sequenceValue() {
+        return jdbcTemplate.queryForObject(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'CALCULATION_SEQ'", Long.class);
+    }
+
+    private void createCalculation(long shipmentId) throws Exception {
+        mockMvc.perform(post("/api/profit/shipments/{shipmentId}/calculations", shipmentId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(calculation(1000, 500))));
+    }
+
+    private long idOf(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private static CalculationDTO calculation(long incomeCents, long costCents) {
+        return CalculationDTO.builder().incomeCents(incomeCents).costCents(costCents).build();
+    }
+}
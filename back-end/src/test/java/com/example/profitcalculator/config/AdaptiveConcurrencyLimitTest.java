@@ -0,0 +1,106 @@
+package com.example.profitcalculator.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long MILLISECOND = 1_000_000;
+
+    @Test
+    void tryAcquire_ShouldAdmitUpToTheLimitUntilReleased() {
+        // Arrange
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 2);
+
+        // Act & Assert
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        limit.release(MILLISECOND);
+        assertEquals(1, limit.getInFlight());
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    void update_WithSteadyLatencyWhileBusy_ShouldGrowUpToTheMaximum() {
+        // Arrange
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 40);
+
+        // Act
+        for (int i = 0; i < 200; i++) {
+            limit.update(MILLISECOND, limit.getLimit());
+        }
+
+        // Assert
+        assertEquals(40, limit.getLimit());
+    }
+
+    @Test
+    void update_WhileMostlyIdle_ShouldNotGrow() {
+        // Arrange
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 40);
+
+        // Act
+        for (int i = 0; i < 200; i++) {
+            limit.update(MILLISECOND, 2);
+        }
+
+        // Assert
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    void update_WhenLatencyRises_ShouldShrinkButNotBelowTheMinimum() {
+        // Arrange: settled at 1 ms
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 2, 20);
+        for (int i = 0; i < 500; i++) {
+            limit.update(MILLISECOND, 20);
+        }
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            limit.update(10 * MILLISECOND, limit.getLimit());
+        }
+        int afterTen = limit.getLimit();
+        for (int i = 0; i < 200; i++) {
+            limit.update(10 * MILLISECOND, limit.getLimit());
+        }
+
+        // Assert
+        assertTrue(afterTen < 20, "limit after ten slow samples was " + afterTen);
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    void update_WhenLatencyRecovers_ShouldGrowAgain() {
+        // Arrange: pushed down to the minimum by slow samples
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 2, 20);
+        for (int i = 0; i < 500; i++) {
+            limit.update(MILLISECOND, 20);
+        }
+        for (int i = 0; i < 200; i++) {
+            limit.update(10 * MILLISECOND, limit.getLimit());
+        }
+
+        // Act
+        for (int i = 0; i < 500; i++) {
+            limit.update(MILLISECOND, limit.getLimit());
+        }
+
+        // Assert
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    void constructor_WithInitialLimitAboveMaximum_ShouldThrowIllegalArgumentException() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimit(10, 1, 5)
+        );
+
+        assertEquals("Concurrency limits must satisfy 1 <= min <= initial <= max, but were 1, 10 and 5",
+                exception.getMessage());
+    }
+}
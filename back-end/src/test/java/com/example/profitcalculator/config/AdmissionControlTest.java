@@ -0,0 +1,99 @@
+package com.example.profitcalculator.config;
+
+import com.example.profitcalculator.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlTest {
+
+    private MeterRegistry meterRegistry;
+    private AdmissionControl admissionControl;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", meterRegistry);
+        // One bulk request at a time
+        admissionControl = new AdmissionControl(beanFactory.getBeanProvider(MeterRegistry.class), 1, 10, 50, 10, 50, 1, 1);
+    }
+
+    static class Handlers {
+        @Bulkhead(Bulkhead.Type.BULK)
+        public void bulk() {
+        }
+
+        public void events() {
+        }
+    }
+
+    private static HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new Handlers(), Handlers.class.getMethod(name));
+    }
+
+    @Test
+    void preHandle_OverTheBulkheadLimit_ShouldRejectUntilARequestCompletes() throws Exception {
+        // Arrange
+        HandlerMethod bulk = handler("bulk");
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertTrue(admissionControl.preHandle(first, response, bulk));
+
+        // Act & Assert
+        ServiceUnavailableException exception = assertThrows(
+                ServiceUnavailableException.class,
+                () -> admissionControl.preHandle(new MockHttpServletRequest(), response, bulk)
+        );
+        assertEquals("Too many bulk requests are in progress", exception.getMessage());
+        assertEquals(AdmissionControl.RETRY_AFTER_SECONDS, exception.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("profit.bulkhead.rejected").tag("bulkhead", "bulk").counter().count());
+        assertEquals(1.0, meterRegistry.get("profit.bulkhead.in_flight").tag("bulkhead", "bulk").gauge().value());
+
+        admissionControl.afterCompletion(first, response, bulk, null);
+        assertEquals(0, admissionControl.limit(Bulkhead.Type.BULK).getInFlight());
+        assertTrue(admissionControl.preHandle(new MockHttpServletRequest(), response, bulk));
+    }
+
+    @Test
+    void preHandle_OfOtherBulkheads_ShouldNotBeAffectedByAFullOne() throws Exception {
+        // Arrange
+        admissionControl.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler("bulk"));
+
+        // Act & Assert
+        assertTrue(admissionControl.limit(Bulkhead.Type.READ).tryAcquire());
+        assertTrue(admissionControl.limit(Bulkhead.Type.WRITE).tryAcquire());
+    }
+
+    @Test
+    void preHandle_WithoutBulkhead_ShouldNeverBeLimited() throws Exception {
+        // Arrange
+        HandlerMethod events = handler("events");
+
+        // Act & Assert
+        for (int i = 0; i < 100; i++) {
+            assertTrue(admissionControl.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), events));
+        }
+        assertEquals(0.0, meterRegistry.get("profit.bulkhead.rejected").tag("bulkhead", "bulk").counter().count());
+    }
+
+    @Test
+    void afterCompletion_ForAnUnadmittedRequest_ShouldReleaseNothing() throws Exception {
+        // Arrange
+        HandlerMethod bulk = handler("bulk");
+        admissionControl.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), bulk);
+
+        // Act
+        admissionControl.afterCompletion(new MockHttpServletRequest(), new MockHttpServletResponse(), bulk, null);
+
+        // Assert
+        assertEquals(1, admissionControl.limit(Bulkhead.Type.BULK).getInFlight());
+    }
+}
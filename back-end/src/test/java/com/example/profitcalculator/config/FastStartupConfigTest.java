@@ -0,0 +1,32 @@
+package com.example.profitcalculator.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.jdbc.init.DataSourceScriptDatabaseInitializer;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import com.example.profitcalculator.controller.ImportController;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FastStartupConfigTest {
+
+    private final LazyInitializationExcludeFilter filter = FastStartupConfig.eagerStartupBeans();
+
+    private boolean isExcluded(Class<?> beanType) {
+        return filter.isExcluded("bean", new RootBeanDefinition(beanType), beanType);
+    }
+
+    @Test
+    void eagerStartupBeans_ShouldKeepTheDatabaseAndHibernateBootstrapEager() {
+        assertTrue(isExcluded(DataSourceScriptDatabaseInitializer.class));
+        assertTrue(isExcluded(LocalContainerEntityManagerFactoryBean.class));
+        assertTrue(isExcluded(HibernateMetricsConfig.class));
+    }
+
+    @Test
+    void eagerStartupBeans_ShouldLeaveOtherBeansLazy() {
+        assertFalse(isExcluded(ImportController.class));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.profitcalculator.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StartupTrainingRunTest {
+
+    @Test
+    void onApplicationEvent_WhenNotATrainingRun_ShouldLeaveTheApplicationRunning() {
+        // Arrange
+        ConfigurableApplicationContext context = mock(ConfigurableApplicationContext.class);
+        ApplicationReadyEvent event = new ApplicationReadyEvent(new SpringApplication(), new String[0], context, null);
+
+        // Act
+        new StartupTrainingRun(false).onApplicationEvent(event);
+
+        // Assert
+        verifyNoInteractions(context);
+    }
+
+    @Test
+    void firstRequest_WhenNothingListens_ShouldFailWithTheUrl() throws Exception {
+        // Arrange
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        String url = "http://localhost:" + port + StartupTrainingRun.FIRST_REQUEST_PATH;
+
+        // Act & Assert
+        UncheckedIOException exception = assertThrows(UncheckedIOException.class,
+                () -> StartupTrainingRun.firstRequest(url));
+        assertEquals("The training run's first request to " + url + " failed", exception.getMessage());
+    }
+}
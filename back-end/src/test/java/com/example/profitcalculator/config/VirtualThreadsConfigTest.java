@@ -0,0 +1,40 @@
+package com.example.profitcalculator.config;
+
+import java.util.concurrent.ExecutorService;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadsConfigTest {
+
+    @Test
+    void newVirtualThreadPerTaskExecutor_BeforeJava21_ShouldFailWithClearMessage() {
+        // Act & Assert
+        IllegalStateException exception = assertThrows(
+                IllegalStateException.class,
+                () -> VirtualThreadsConfig.newVirtualThreadPerTaskExecutor(17)
+        );
+
+        assertEquals("profit.threads.virtual=true requires Java 21 or later, but the application runs on Java 17",
+                exception.getMessage());
+    }
+
+    @Test
+    void newVirtualThreadPerTaskExecutor_OnJava21_ShouldRunTasksOnVirtualThreads() throws Exception {
+        int javaVersion = Runtime.version().feature();
+        assumeTrue(javaVersion >= VirtualThreadsConfig.MIN_JAVA_VERSION, "Virtual threads need Java 21");
+
+        // Act
+        ExecutorService executor = VirtualThreadsConfig.newVirtualThreadPerTaskExecutor(javaVersion);
+        try {
+            Object isVirtual = executor.submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread())).get();
+
+            // Assert
+            assertEquals(Boolean.TRUE, isVirtual);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.profitcalculator.controller;
+
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import com.example.profitcalculator.dto.CalculationAnalyticsDTO;
+import com.example.profitcalculator.dto.PortfolioDTO;
+import com.example.profitcalculator.dto.ProfitBucketDTO;
+import com.example.profitcalculator.dto.ShipmentSummaryDTO;
+import com.example.profitcalculator.exception.BadRequestException;
+import com.example.profitcalculator.service.CalculationAggregates;
+import com.example.profitcalculator.service.PortfolioService;
+
+@WebMvcTest(AnalyticsController.class)
+class AnalyticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CalculationAggregates calculationAggregates;
+
+    @MockBean
+    private PortfolioService portfolioService;
+
+    @Test
+    void getAnalytics_WithoutBounds_ShouldReturnTheRunningTotals() throws Exception {
+        // Arrange
+        when(calculationAggregates.totals()).thenReturn(CalculationAnalyticsDTO.builder()
+                .calculationCount(3)
+                .totalIncomeCents(270_000)
+                .totalCostCents(180_000)
+                .totalProfitOrLossCents(90_000)
+                .build());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/profit/analytics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.calculationCount").value(3))
+                .andExpect(jsonPath("$.totalIncome").value(2700.0))
+                .andExpect(jsonPath("$.totalProfitOrLoss").value(900.0))
+                .andExpect(jsonPath("$.averageIncome").value(900.0))
+                .andExpect(jsonPath("$.averageCost").value(600.0))
+                .andExpect(jsonPath("$.averageProfitOrLoss").value(300.0));
+    }
+
+    @Test
+    void getAnalytics_WithBounds_ShouldScanThatProfitRange() throws Exception {
+        // Arrange
+        when(calculationAggregates.totalsForProfitBetween(Long.MIN_VALUE, -1)).thenReturn(CalculationAnalyticsDTO.builder()
+                .calculationCount(1)
+                .totalIncomeCents(20_000)
+                .totalCostCents(30_000)
+                .totalProfitOrLossCents(-10_000)
+                .build());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/profit/analytics").param("maxProfitOrLoss", "-0.01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.calculationCount").value(1))
+                .andExpect(jsonPath("$.averageProfitOrLoss").value(-100.0));
+
+        verify(calculationAggregates).totalsForProfitBetween(Long.MIN_VALUE, -1);
+    }
+
+    @Test
+    void getAnalytics_WithInvertedBounds_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/profit/analytics")
+                        .param("minProfitOrLoss", "10")
+                        .param("maxProfitOrLoss", "-10"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("minProfitOrLoss must not be greater than maxProfitOrLoss"));
+
+        verify(calculationAggregates, never()).totalsForProfitBetween(anyLong(), anyLong());
+    }
+
+    @Test
+    void getPortfolio_ShouldReturnRankedShipmentsMarginAndHistogram() throws Exception {
+        // Arrange
+        when(portfolioService.getPortfolio(10, 20)).thenReturn(PortfolioDTO.builder()
+                .totals(CalculationAnalyticsDTO.builder().calculationCount(3).totalIncomeCents(270_000).build())
+                .margin(0.3333)
+                .lossMakingCalculationCount(1)
+                .mostProfitableShipments(List.of(ShipmentSummaryDTO.builder().shipmentId(2L).totalProfitOrLossCents(50_000).build()))
+                .leastProfitableShipments(List.of(ShipmentSummaryDTO.builder().shipmentId(1L).totalProfitOrLossCents(40_000).build()))
+                .profitHistogram(List.of(new ProfitBucketDTO(-10_000, 20_001, 1), new ProfitBucketDTO(20_001, 50_002, 2)))
+                .build());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/profit/analytics/portfolio"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totals.calculationCount").value(3))
+                .andExpect(jsonPath("$.margin").value(0.3333))
+                .andExpect(jsonPath("$.lossMakingCalculationCount").value(1))
+                .andExpect(jsonPath("$.mostProfitableShipments[0].shipmentId").value(2))
+                .andExpect(jsonPath("$.leastProfitableShipments[0].totalProfitOrLoss").value(400.0))
+                .andExpect(jsonPath("$.profitHistogram[0].fromProfitOrLoss").value(-100.0))
+                .andExpect(jsonPath("$.profitHistogram[1].toProfitOrLoss").value(500.02))
+                .andExpect(jsonPath("$.profitHistogram[1].calculationCount").value(2));
+    }
+
+    @Test
+    void getPortfolio_WithInvalidParameters_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        when(portfolioService.getPortfolio(0, 20)).thenThrow(new BadRequestException("Shipments must be between 1 and 100"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/profit/analytics/portfolio").param("shipments", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Shipments must be between 1 and 100"));
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.profitcalculator.controller;
+
+import com.example.profitcalculator.exception.ServiceUnavailableException;
+import com.example.profitcalculator.mapper.CalculationMapper;
+import com.example.profitcalculator.service.CalculationEvent;
+import com.example.profitcalculator.service.ShipmentsDeletedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalculationEventEmittersTest {
+
+    private static final int SENDER_THREADS = 2;
+    private static final int MAX_SUBSCRIPTIONS = 3;
+
+    private final CalculationEventEmitters emitters = new CalculationEventEmitters(
+            new CalculationMapper(), new ObjectMapper(), SENDER_THREADS, MAX_SUBSCRIPTIONS);
+
+    @AfterEach
+    void tearDown() {
+        emitters.stopSending();
+    }
+
+    @Test
+    void onCalculationEvent_WhenAClientStalls_ShouldNotWaitForIt() throws Exception {
+        // Arrange
+        RecordingEmitter stalled = new RecordingEmitter();
+        RecordingEmitter healthy = new RecordingEmitter();
+        emitters.subscribe(1L, stalled);
+        emitters.subscribe(1L, healthy);
+        stalled.stall();
+
+        // Act
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            emitters.onCalculationEvent(CalculationEvent.deleted(1L, 10L));
+            emitters.onCalculationEvent(CalculationEvent.deleted(1L, 11L));
+        });
+
+        // Assert
+        assertEquals("event:deleted\ndata:[10]\n\n", healthy.next());
+        assertEquals("event:deleted\ndata:[11]\n\n", healthy.next());
+        assertEquals(2, emitters.subscribers(1L));
+        stalled.release();
+        assertEquals("event:deleted\ndata:[10]\n\n", stalled.next());
+        assertEquals("event:deleted\ndata:[11]\n\n", stalled.next());
+    }
+
+    @Test
+    void onCalculationEvent_WhenAClientFallsTooFarBehind_ShouldCompleteItsStream() throws Exception {
+        // Arrange
+        RecordingEmitter stalled = new RecordingEmitter();
+        emitters.subscribe(1L, stalled);
+        stalled.stall();
+
+        // Act: one event is being sent, the queue is full, and the next one does not fit
+        for (long id = 0; id < CalculationEventEmitters.MAX_QUEUED_EVENTS + 2; id++) {
+            emitters.onCalculationEvent(CalculationEvent.deleted(1L, id));
+        }
+
+        // Assert
+        assertEquals(0, emitters.subscribers(1L));
+        stalled.release();
+        assertTrue(stalled.completed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void onShipmentsDeleted_ShouldSendALastEventAndCompleteTheStreams() throws Exception {
+        // Arrange
+        RecordingEmitter deletedShipment = new RecordingEmitter();
+        RecordingEmitter otherShipment = new RecordingEmitter();
+        emitters.subscribe(1L, deletedShipment);
+        emitters.subscribe(2L, otherShipment);
+
+        // Act
+        emitters.onShipmentsDeleted(new ShipmentsDeletedEvent(List.of(1L, 3L)));
+
+        // Assert
+        assertEquals("event:shipment-deleted\ndata:1\n\n", deletedShipment.next());
+        assertTrue(deletedShipment.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(0, emitters.subscribers(1L));
+        assertEquals(1, emitters.subscribers(2L));
+        assertEquals(1, otherShipment.completed.getCount());
+    }
+
+    @Test
+    void onCalculationEvent_WhenManyClientsStall_ShouldUseNoMoreThanTheSenderThreads() throws Exception {
+        // Arrange
+        for (int i = 0; i < MAX_SUBSCRIPTIONS; i++) {
+            RecordingEmitter stalled = new RecordingEmitter();
+            emitters.subscribe(1L, stalled);
+            stalled.stall();
+        }
+
+        // Act
+        emitters.onCalculationEvent(CalculationEvent.deleted(1L, 10L));
+
+        // Assert
+        assertEquals(SENDER_THREADS, emitters.senderThreads());
+        assertEquals(MAX_SUBSCRIPTIONS, emitters.subscribers(1L));
+    }
+
+    @Test
+    void subscribe_BeyondTheCap_ShouldBeRejectedUntilAStreamEnds() throws Exception {
+        // Arrange
+        for (int i = 0; i < MAX_SUBSCRIPTIONS; i++) {
+            emitters.subscribe(1L, new RecordingEmitter());
+        }
+
+        // Act & Assert
+        ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class,
+                () -> emitters.subscribe(2L, new RecordingEmitter()));
+        assertEquals(CalculationEventEmitters.RETRY_AFTER_SECONDS, exception.getRetryAfterSeconds());
+        assertEquals(MAX_SUBSCRIPTIONS, emitters.openSubscriptions());
+
+        emitters.onShipmentsDeleted(new ShipmentsDeletedEvent(List.of(1L)));
+        assertEquals(0, emitters.openSubscriptions());
+        emitters.subscribe(2L, new RecordingEmitter());
+        assertEquals(1, emitters.openSubscriptions());
+    }
+
+    // Records what is sent instead of writing it; after stall(), sends block until release()
+    private static class RecordingEmitter extends SseEmitter {
+        final CountDownLatch completed = new CountDownLatch(1);
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch released = new CountDownLatch(1);
+        private volatile boolean stalled;
+
+        void stall() {
+            stalled = true;
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        String next() throws InterruptedException {
+            return sent.poll(5, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            StringBuilder text = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType data : builder.build()) {
+                text.append(data.getData());
+            }
+            if (text.charAt(0) == ':') {
+                // The subscribe comment
+                return;
+            }
+            if (stalled) {
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            sent.add(text.toString());
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+}
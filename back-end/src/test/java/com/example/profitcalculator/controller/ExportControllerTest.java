@@ -0,0 +1,82 @@
+package com.example.profitcalculator.controller;
+
+import java.io.OutputStream;
+
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.profitcalculator.service.CalculationExportService;
+
+@WebMvcTest(ExportController.class)
+class ExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CalculationExportService calculationExportService;
+
+    @Test
+    void exportCalculations_ShouldStreamNdjsonByDefault() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write("{\"id\":1}\n".getBytes());
+            return 1L;
+        }).when(calculationExportService).writeNdjson(any(OutputStream.class));
+
+        // Act & Assert
+        MvcResult result = mockMvc.perform(get("/api/profit/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"calculations.ndjson\""))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+
+    @Test
+    void exportCalculations_WithCsvFormat_ShouldStreamCsv() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write("id,shipmentId,income,cost,profitOrLoss\n".getBytes());
+            return 0L;
+        }).when(calculationExportService).writeCsv(any(OutputStream.class));
+
+        // Act & Assert
+        MvcResult result = mockMvc.perform(get("/api/profit/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string("id,shipmentId,income,cost,profitOrLoss\n"));
+    }
+
+    @Test
+    void exportCalculations_WithUnknownFormat_ShouldReturn400() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/profit/export").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Format must be ndjson or csv"));
+
+        verifyNoInteractions(calculationExportService);
+    }
+}
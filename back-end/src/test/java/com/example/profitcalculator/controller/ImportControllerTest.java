@@ -0,0 +1,89 @@
+package com.example.profitcalculator.controller;
+
+import java.io.InputStream;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.profitcalculator.dto.ImportReportDTO;
+import com.example.profitcalculator.dto.RejectedRowDTO;
+import com.example.profitcalculator.exception.BadRequestException;
+import com.example.profitcalculator.service.CalculationImportService;
+
+@WebMvcTest(ImportController.class)
+class ImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CalculationImportService calculationImportService;
+
+    private final ImportReportDTO report = ImportReportDTO.builder()
+            .rowsRead(3)
+            .rowsImported(2)
+            .rowsRejected(1)
+            .elapsedMillis(5)
+            .rowsPerSecond(600.0)
+            .rejectedRows(List.of(new RejectedRowDTO(3, "Income and Cost cannot both be 0")))
+            .build();
+
+    @Test
+    void importCsv_ShouldReturnReport() throws Exception {
+        // Arrange
+        when(calculationImportService.importCsv(any(InputStream.class))).thenReturn(report);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/profit/import")
+                        .contentType("text/csv")
+                        .content("shipmentId,income,cost\n1,10,5\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsRead").value(3))
+                .andExpect(jsonPath("$.rowsImported").value(2))
+                .andExpect(jsonPath("$.rowsRejected").value(1))
+                .andExpect(jsonPath("$.rowsPerSecond").value(600.0))
+                .andExpect(jsonPath("$.rejectedRows[0].line").value(3));
+
+        verify(calculationImportService, times(1)).importCsv(any(InputStream.class));
+    }
+
+    @Test
+    void importNdjson_ShouldReturnReport() throws Exception {
+        // Arrange
+        when(calculationImportService.importNdjson(any(InputStream.class))).thenReturn(report);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/profit/import")
+                        .contentType("application/x-ndjson")
+                        .content("{\"shipmentId\":1,\"income\":10}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsImported").value(2));
+
+        verify(calculationImportService, times(1)).importNdjson(any(InputStream.class));
+    }
+
+    @Test
+    void importCsv_WithBadHeader_ShouldReturn400() throws Exception {
+        // Arrange
+        when(calculationImportService.importCsv(any(InputStream.class)))
+                .thenThrow(new BadRequestException("CSV header must contain shipmentId, income and cost"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/profit/import")
+                        .contentType("text/csv")
+                        .content("foo\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("CSV header must contain shipmentId, income and cost"));
+    }
+}
@@ -5,34 +5,52 @@ import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.example.profitcalculator.dto.CalculationDTO;
+import com.example.profitcalculator.dto.CalculationTicketDTO;
 import com.example.profitcalculator.dto.ShipmentDTO;
+import com.example.profitcalculator.dto.ShipmentSummaryDTO;
 import com.example.profitcalculator.entity.Calculation;
 import com.example.profitcalculator.entity.Shipment;
 import com.example.profitcalculator.exception.ResourceNotFoundException;
+import com.example.profitcalculator.exception.ServiceUnavailableException;
 import com.example.profitcalculator.mapper.CalculationMapper;
 import com.example.profitcalculator.mapper.ShipmentMapper;
 import com.example.profitcalculator.service.CalculationService;
+import com.example.profitcalculator.service.CalculationWriteQueue;
 import com.example.profitcalculator.service.ShipmentService;
+import com.example.profitcalculator.service.ShipmentVersions;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 @WebMvcTest(ProfitController.class)
+@Import(ShipmentVersions.class)
 class ProfitControllerTest {
 
     @Autowired
@@ -50,6 +68,12 @@ class ProfitControllerTest {
     @MockBean
     private CalculationMapper calculationMapper;
 
+    @MockBean
+    private CalculationEventEmitters calculationEventEmitters;
+
+    @MockBean
+    private CalculationWriteQueue calculationWriteQueue;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -70,17 +94,17 @@ class ProfitControllerTest {
 
         testCalculation = Calculation.builder()
                 .id(1L)
-                .income(100.0)
-                .cost(50.0)
-                .profitOrLoss(50.0)
+                .incomeCents(10000)
+                .costCents(5000)
+                .profitOrLossCents(5000)
                 .shipment(testShipment)
                 .build();
 
         testCalculationDTO = CalculationDTO.builder()
                 .id(1L)
-                .income(100.0)
-                .cost(50.0)
-                .profitOrLoss(50.0)
+                .incomeCents(10000)
+                .costCents(5000)
+                .profitOrLossCents(5000)
                 .shipmentId(1L)
                 .build();
     }
@@ -88,19 +112,47 @@ class ProfitControllerTest {
     @Test
     void getAllShipments_ShouldReturnAllShipments() throws Exception {
         // Arrange
-        List<Shipment> shipments = Arrays.asList(testShipment);
-        List<ShipmentDTO> shipmentDTOs = Arrays.asList(testShipmentDTO);
-
-        when(shipmentService.getAll()).thenReturn(shipments);
-        when(shipmentMapper.toDTO(testShipment)).thenReturn(testShipmentDTO);
+        when(shipmentService.getAllDTOs()).thenReturn(Arrays.asList(testShipmentDTO));
 
         // Act & Assert
-        mockMvc.perform(get("/api/profit/shipments"))
+        mockMvc.perform(get("/api/profit/shipments").param("unpaged", "true"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1));
 
-        verify(shipmentService, times(1)).getAll();
-        verify(shipmentMapper, times(1)).toDTO(testShipment);
+        verify(shipmentService, times(1)).getAllDTOs();
+        verify(shipmentMapper, never()).toDTO(any());
+    }
+
+    @Test
+    void getShipments_WhenPageIsFull_ShouldReturnNextCursor() throws Exception {
+        // Arrange
+        ShipmentDTO secondShipmentDTO = ShipmentDTO.builder().id(2L).build();
+
+        when(shipmentService.getDTOPage(0L, 2)).thenReturn(Arrays.asList(testShipmentDTO, secondShipmentDTO));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/profit/shipments").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[1].id").value(2))
+                .andExpect(jsonPath("$.nextCursor").value(2));
+
+        verify(shipmentService, times(1)).getDTOPage(0L, 2);
+        verify(shipmentService, never()).getAllDTOs();
+    }
+
+    @Test
+    void getShipments_WhenPageIsPartial_ShouldReturnNullCursor() throws Exception {
+        // Arrange
+        when(shipmentService.getDTOPage(1L, 50)).thenReturn(Arrays.asList(testShipmentDTO));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/profit/shipments").param("after", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.nextCursor").isEmpty());
+
+        verify(shipmentService, times(1)).getDTOPage(1L, 50);
     }
 
     @Test
@@ -151,6 +203,45 @@ class ProfitControllerTest {
         verify(shipmentService, times(1)).getById(shipmentId);
     }
 
+    @Test
+    void getShipmentSummary_WhenShipmentExists_ShouldReturnTotals() throws Exception {
+        // Arrange
+        Long shipmentId = 1L;
+        ShipmentSummaryDTO summary = ShipmentSummaryDTO.builder()
+                .shipmentId(1L)
+                .calculationCount(2L)
+                .totalIncomeCents(120000)
+                .totalCostCents(80000)
+                .totalProfitOrLossCents(40000)
+                .build();
+        when(shipmentService.getById(shipmentId)).thenReturn(testShipment);
+        when(shipmentMapper.toSummaryDTO(testShipment)).thenReturn(summary);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/summary", shipmentId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.shipmentId").value(1))
+                .andExpect(jsonPath("$.calculationCount").value(2))
+                .andExpect(jsonPath("$.totalIncome").value(1200.0))
+                .andExpect(jsonPath("$.totalCost").value(800.0))
+                .andExpect(jsonPath("$.totalProfitOrLoss").value(400.0));
+
+        verify(calculationService, never()).getDTOsByShipmentId(any());
+    }
+
+    @Test
+    void getShipmentSummary_WhenShipmentDoesNotExist_ShouldReturn404() throws Exception {
+        // Arrange
+        Long shipmentId = 999L;
+        when(shipmentService.getById(shipmentId))
+                .thenThrow(new ResourceNotFoundException("Shipment", "id", shipmentId));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/summary", shipmentId))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Shipment not found with id : '999'"));
+    }
+
     @Test
     void deleteShipment_WhenShipmentExists_ShouldReturn200() throws Exception {
         // Arrange
@@ -181,56 +272,352 @@ class ProfitControllerTest {
         verify(shipmentService, times(1)).delete(shipmentId);
     }
 
+    @Test
+    void deleteShipments_ShouldReturnDeletedCount() throws Exception {
+        // Arrange
+        List<Long> shipmentIds = List.of(1L, 2L, 999L);
+        when(shipmentService.deleteAll(shipmentIds)).thenReturn(2);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/profit/shipments/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(shipmentIds)))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2"));
+
+        verify(shipmentService, times(1)).deleteAll(shipmentIds);
+    }
+
     @Test
     void getCalculationsByShipment_WhenShipmentExists_ShouldReturnCalculations() throws Exception {
         // Arrange
         Long shipmentId = 1L;
-        List<Calculation> calculations = Arrays.asList(testCalculation);
-        List<CalculationDTO> calculationDTOs = Arrays.asList(testCalculationDTO);
-
-        when(calculationService.getByShipmentId(shipmentId)).thenReturn(calculations);
-        when(calculationMapper.toDTO(testCalculation)).thenReturn(testCalculationDTO);
+        when(shipmentService.getById(shipmentId)).thenReturn(testShipment);
+        when(calculationService.getDTOsByShipmentId(shipmentId)).thenReturn(Arrays.asList(testCalculationDTO));
 
         // Act & Assert
-        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/calculations", shipmentId))
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/calculations", shipmentId).param("unpaged", "true"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1))
                 .andExpect(jsonPath("$[0].income").value(100.0))
                 .andExpect(jsonPath("$[0].cost").value(50.0))
                 .andExpect(jsonPath("$[0].profitOrLoss").value(50.0));
 
-        verify(calculationService, times(1)).getByShipmentId(shipmentId);
-        verify(calculationMapper, times(1)).toDTO(testCalculation);
+        verify(calculationService, times(1)).getDTOsByShipmentId(shipmentId);
+        verify(calculationMapper, never()).toDTO(any());
     }
 
     @Test
     void getCalculationsByShipment_WhenShipmentDoesNotExist_ShouldReturn404() throws Exception {
         // Arrange
         Long shipmentId = 999L;
-        when(calculationService.getByShipmentId(shipmentId))
+        when(shipmentService.getById(shipmentId))
                 .thenThrow(new ResourceNotFoundException("Shipment", "id", shipmentId));
 
         // Act & Assert
-        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/calculations", shipmentId))
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/calculations", shipmentId).param("unpaged", "true"))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.status").value(404))
                 .andExpect(jsonPath("$.error").value("Not Found"))
                 .andExpect(jsonPath("$.message").value("Shipment not found with id : '999'"));
 
-        verify(calculationService, times(1)).getByShipmentId(shipmentId);
+        verify(calculationService, never()).getDTOsByShipmentId(any());
+    }
+
+    @Test
+    void getCalculationsPage_ShouldReturnItemsAndNextCursor() throws Exception {
+        // Arrange
+        Long shipmentId = 1L;
+        when(shipmentService.getById(shipmentId)).thenReturn(testShipment);
+        when(calculationService.getDTOPageByShipmentId(shipmentId, 0L, 1)).thenReturn(Arrays.asList(testCalculationDTO));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/calculations", shipmentId).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[0].profitOrLoss").value(50.0))
+                .andExpect(jsonPath("$.nextCursor").value(1));
+
+        verify(calculationService, times(1)).getDTOPageByShipmentId(shipmentId, 0L, 1);
+        verify(calculationService, never()).getDTOsByShipmentId(any());
+    }
+
+    @Test
+    void getCalculationsPage_WhenShipmentDoesNotExist_ShouldReturn404() throws Exception {
+        // Arrange
+        Long shipmentId = 999L;
+        when(shipmentService.getById(shipmentId))
+                .thenThrow(new ResourceNotFoundException("Shipment", "id", shipmentId));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/calculations", shipmentId))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Shipment not found with id : '999'"));
+    }
+
+    @Test
+    void getCalculationsPage_WhenTagMatches_ShouldReturn304WithoutLoadingCalculations() throws Exception {
+        // Arrange
+        Long shipmentId = 1L;
+        when(shipmentService.getById(shipmentId)).thenReturn(testShipment);
+        String etag = mockMvc.perform(get("/api/profit/shipments/{shipmentId}/calculations", shipmentId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/calculations", shipmentId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        verify(calculationService, times(1)).getDTOPageByShipmentId(shipmentId, 0L, 50);
+    }
+
+    @Test
+    void getCalculationsPage_WhenShipmentVersionChanged_ShouldReturn200() throws Exception {
+        // Arrange
+        Long shipmentId = 1L;
+        when(shipmentService.getById(shipmentId)).thenReturn(testShipment);
+        String etag = mockMvc.perform(get("/api/profit/shipments/{shipmentId}/calculations", shipmentId))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        testShipment.setVersion(1);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/calculations", shipmentId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+
+        verify(calculationService, times(2)).getDTOPageByShipmentId(shipmentId, 0L, 50);
+    }
+
+    @Test
+    void getShipments_WhenTagMatches_ShouldReturn304WithoutQuerying() throws Exception {
+        // Arrange
+        String etag = mockMvc.perform(get("/api/profit/shipments"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/profit/shipments").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        verify(shipmentService, times(1)).getDTOPage(0L, 50);
+    }
+
+    @Test
+    void streamCalculationEvents_WhenShipmentExists_ShouldOpenEventStream() throws Exception {
+        // Arrange
+        Long shipmentId = 1L;
+        when(shipmentService.getById(shipmentId)).thenReturn(testShipment);
+        when(calculationEventEmitters.open(shipmentId)).thenReturn(new SseEmitter());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/events", shipmentId)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(calculationEventEmitters, times(1)).open(shipmentId);
+    }
+
+    @Test
+    void streamCalculationEvents_WhenTooManyStreamsAreOpen_ShouldReturn503() throws Exception {
+        // Arrange
+        Long shipmentId = 1L;
+        when(shipmentService.getById(shipmentId)).thenReturn(testShipment);
+        when(calculationEventEmitters.open(shipmentId))
+                .thenThrow(new ServiceUnavailableException("Too many event streams are open", 5));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/events", shipmentId)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"));
+    }
+
+    @Test
+    void streamCalculationEvents_WhenShipmentDoesNotExist_ShouldReturn404() throws Exception {
+        // Arrange
+        Long shipmentId = 999L;
+        when(shipmentService.getById(shipmentId))
+                .thenThrow(new ResourceNotFoundException("Shipment", "id", shipmentId));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/profit/shipments/{shipmentId}/events", shipmentId))
+                .andExpect(status().isNotFound());
+
+        verify(calculationEventEmitters, never()).open(any());
+    }
+
+    @Test
+    void createCalculation_ShouldReturnCreatedCalculationWithoutLoadingShipment() throws Exception {
+        // Arrange
+        Long shipmentId = 1L;
+        when(calculationMapper.toEntity(any(CalculationDTO.class), any(Shipment.class))).thenReturn(testCalculation);
+        when(calculationService.create(shipmentId, testCalculation)).thenReturn(testCalculation);
+        when(calculationMapper.toDTO(testCalculation)).thenReturn(testCalculationDTO);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/profit/shipments/{shipmentId}/calculations", shipmentId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testCalculationDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.profitOrLoss").value(50.0));
+
+        verify(shipmentService, never()).getById(any());
+        verify(calculationService, times(1)).create(shipmentId, testCalculation);
+    }
+
+    @Test
+    void createCalculation_WithRespondAsync_ShouldQueueItAndReturnTicket() throws Exception {
+        // Arrange
+        when(calculationMapper.toEntity(any(CalculationDTO.class), any(Shipment.class))).thenReturn(testCalculation);
+        when(calculationWriteQueue.submit(1L, testCalculation)).thenReturn(42L);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/profit/shipments/1/calculations")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testCalculationDTO)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/api/profit/shipments/1/calculation-tickets/42"))
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(content().json("{\"ticket\":42,\"shipmentId\":1,\"status\":\"PENDING\"}", true));
+
+        verify(calculationService, never()).create(any(), any());
+    }
+
+    @Test
+    void createCalculation_WithRespondAsyncAmongOtherPreferences_ShouldQueueIt() throws Exception {
+        // Arrange
+        when(calculationMapper.toEntity(any(CalculationDTO.class), any(Shipment.class))).thenReturn(testCalculation);
+        when(calculationWriteQueue.submit(1L, testCalculation)).thenReturn(42L);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/profit/shipments/1/calculations")
+                        .header("Prefer", "return=minimal")
+                        .header("Prefer", "Respond-Async, wait=5")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testCalculationDTO)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.ticket").value(42));
+
+        verify(calculationService, never()).create(any(), any());
+    }
+
+    @Test
+    void prefersRespondAsync_ShouldMatchThePreferenceNameOnly() {
+        assertTrue(ProfitController.prefersRespondAsync("respond-async"));
+        assertTrue(ProfitController.prefersRespondAsync("wait=5, respond-async"));
+        assertTrue(ProfitController.prefersRespondAsync(" respond-async ; foo=bar"));
+        assertFalse(ProfitController.prefersRespondAsync(null));
+        assertFalse(ProfitController.prefersRespondAsync("wait=5"));
+        assertFalse(ProfitController.prefersRespondAsync("respond-asynchronously"));
+        assertFalse(ProfitController.prefersRespondAsync("handling=respond-async"));
+    }
+
+    @Test
+    void createCalculation_WithRespondAsyncAndFullQueue_ShouldReturn503WithRetryAfter() throws Exception {
+        // Arrange
+        when(calculationMapper.toEntity(any(CalculationDTO.class), any(Shipment.class))).thenReturn(testCalculation);
+        when(calculationWriteQueue.submit(1L, testCalculation))
+                .thenThrow(new ServiceUnavailableException("Too many calculations are waiting to be saved", 1));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/profit/shipments/1/calculations")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testCalculationDTO)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.message").value("Too many calculations are waiting to be saved"));
+    }
+
+    @Test
+    void getCalculationTicket_ShouldReturnItsStatus() throws Exception {
+        // Arrange
+        when(calculationWriteQueue.status(1L, 42L)).thenReturn(CalculationTicketDTO.builder()
+                .ticket(42L)
+                .shipmentId(1L)
+                .status(CalculationTicketDTO.Status.DURABLE)
+                .calculationId(7L)
+                .build());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/profit/shipments/1/calculation-tickets/42"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("DURABLE"))
+                .andExpect(jsonPath("$.calculationId").value(7))
+                .andExpect(jsonPath("$.message").doesNotExist());
+    }
+
+    @Test
+    void getCalculationTicket_WhenUnknown_ShouldReturn404() throws Exception {
+        // Arrange
+        when(calculationWriteQueue.status(1L, 42L)).thenThrow(new ResourceNotFoundException("Ticket", "id", 42L));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/profit/shipments/1/calculation-tickets/42"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Ticket not found with id : '42'"));
+    }
+
+    @Test
+    void createCalculation_ShouldReadAndWriteAmountsAsDecimals() throws Exception {
+        // Arrange
+        ArgumentCaptor<CalculationDTO> request = ArgumentCaptor.forClass(CalculationDTO.class);
+        when(calculationMapper.toEntity(request.capture(), any(Shipment.class))).thenReturn(testCalculation);
+        when(calculationService.create(1L, testCalculation)).thenReturn(testCalculation);
+        when(calculationMapper.toDTO(testCalculation)).thenReturn(CalculationDTO.builder()
+                .id(1L).shipmentId(1L).incomeCents(1234).costCents(0).profitOrLossCents(1234).build());
+
+        // Act & Assert: cost is omitted, income has cents
+        mockMvc.perform(post("/api/profit/shipments/1/calculations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"income\":12.34}"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"id\":1,\"shipmentId\":1,\"income\":12.34,\"cost\":0.0,\"profitOrLoss\":12.34}", true));
+
+        assertEquals(1234, request.getValue().getIncomeCents());
+        assertEquals(0, request.getValue().getCostCents());
+    }
+
+    @Test
+    void createCalculations_ShouldReturnCreatedIds() throws Exception {
+        // Arrange
+        Long shipmentId = 1L;
+        Calculation secondCalculation = Calculation.builder().id(2L).incomeCents(1000).costCents(500).build();
+        when(calculationMapper.toEntity(any(CalculationDTO.class), any(Shipment.class)))
+                .thenReturn(testCalculation, secondCalculation);
+        when(calculationService.createAll(shipmentId, Arrays.asList(testCalculation, secondCalculation)))
+                .thenReturn(Arrays.asList(testCalculation, secondCalculation));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/profit/shipments/{shipmentId}/calculations/bulk", shipmentId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Arrays.asList(testCalculationDTO, testCalculationDTO))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value(1))
+                .andExpect(jsonPath("$[1]").value(2));
+
+        verify(shipmentService, never()).getById(any());
+        verify(calculationService, times(1)).createAll(shipmentId, Arrays.asList(testCalculation, secondCalculation));
     }
 
     @Test
     void deleteCalculation_WhenCalculationExists_ShouldReturn200() throws Exception {
         // Arrange
         Long calculationId = 1L;
-        doNothing().when(calculationService).delete(calculationId);
+        doNothing().when(calculationService).delete(1L, calculationId);
 
         // Act & Assert
         mockMvc.perform(delete("/api/profit/shipments/1/calculations/{calculationId}", calculationId))
                 .andExpect(status().isOk());
 
-        verify(calculationService, times(1)).delete(calculationId);
+        verify(calculationService, times(1)).delete(1L, calculationId);
     }
 
     @Test
@@ -238,7 +625,7 @@ class ProfitControllerTest {
         // Arrange
         Long calculationId = 999L;
         doThrow(new ResourceNotFoundException("Calculation", "id", calculationId))
-                .when(calculationService).delete(calculationId);
+                .when(calculationService).delete(1L, calculationId);
 
         // Act & Assert
         mockMvc.perform(delete("/api/profit/shipments/1/calculations/{calculationId}", calculationId))
@@ -247,6 +634,6 @@ class ProfitControllerTest {
                 .andExpect(jsonPath("$.error").value("Not Found"))
                 .andExpect(jsonPath("$.message").value("Calculation not found with id : '999'"));
 
-        verify(calculationService, times(1)).delete(calculationId);
+        verify(calculationService, times(1)).delete(1L, calculationId);
     }
 }
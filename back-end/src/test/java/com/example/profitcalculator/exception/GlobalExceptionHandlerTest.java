@@ -2,6 +2,7 @@ package com.example.profitcalculator.exception;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletRequest;
@@ -91,6 +92,23 @@ class GlobalExceptionHandlerTest {
         assertEquals("uri=/api/profit/shipments/999", response.getBody().getPath());
     }
 
+    @Test
+    void handleServiceUnavailableException_ShouldReturn503WithRetryAfter() {
+        // Arrange
+        ServiceUnavailableException exception = new ServiceUnavailableException("Too many calculations are waiting to be saved", 1);
+
+        // Act
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleServiceUnavailableException(exception, webRequest);
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertNotNull(response.getBody());
+        assertEquals(503, response.getBody().getStatus());
+        assertEquals("Service Unavailable", response.getBody().getError());
+        assertEquals("Too many calculations are waiting to be saved", response.getBody().getMessage());
+    }
+
     @Test
     void handleGlobalException_ShouldReturn500WithGenericMessage() {
         // Arrange
@@ -26,9 +26,9 @@ class CalculationMapperTest {
         
         Calculation calculation = Calculation.builder()
                 .id(1L)
-                .income(100.0)
-                .cost(50.0)
-                .profitOrLoss(50.0)
+                .incomeCents(10000)
+                .costCents(5000)
+                .profitOrLossCents(5000)
                 .shipment(shipment)
                 .build();
 
@@ -38,9 +38,9 @@ class CalculationMapperTest {
         // Assert
         assertNotNull(result);
         assertEquals(calculation.getId(), result.getId());
-        assertEquals(calculation.getIncome(), result.getIncome());
-        assertEquals(calculation.getCost(), result.getCost());
-        assertEquals(calculation.getProfitOrLoss(), result.getProfitOrLoss());
+        assertEquals(calculation.getIncomeCents(), result.getIncomeCents());
+        assertEquals(calculation.getCostCents(), result.getCostCents());
+        assertEquals(calculation.getProfitOrLossCents(), result.getProfitOrLossCents());
         assertEquals(calculation.getShipment().getId(), result.getShipmentId());
     }
 
@@ -62,9 +62,9 @@ class CalculationMapperTest {
         
         CalculationDTO dto = CalculationDTO.builder()
                 .id(1L)
-                .income(100.0)
-                .cost(50.0)
-                .profitOrLoss(50.0)
+                .incomeCents(10000)
+                .costCents(5000)
+                .profitOrLossCents(5000)
                 .shipmentId(1L)
                 .build();
 
@@ -74,9 +74,9 @@ class CalculationMapperTest {
         // Assert
         assertNotNull(result);
         assertEquals(dto.getId(), result.getId());
-        assertEquals(dto.getIncome(), result.getIncome());
-        assertEquals(dto.getCost(), result.getCost());
-        assertEquals(dto.getProfitOrLoss(), result.getProfitOrLoss());
+        assertEquals(dto.getIncomeCents(), result.getIncomeCents());
+        assertEquals(dto.getCostCents(), result.getCostCents());
+        assertEquals(dto.getProfitOrLossCents(), result.getProfitOrLossCents());
         assertEquals(shipment, result.getShipment());
     }
 
@@ -99,8 +99,8 @@ class CalculationMapperTest {
         // Arrange
         CalculationDTO dto = CalculationDTO.builder()
                 .id(1L)
-                .income(100.0)
-                .cost(50.0)
+                .incomeCents(10000)
+                .costCents(5000)
                 .build();
 
         // Act
@@ -1,6 +1,7 @@
 package com.example.profitcalculator.mapper;
 
 import com.example.profitcalculator.dto.ShipmentDTO;
+import com.example.profitcalculator.dto.ShipmentSummaryDTO;
 import com.example.profitcalculator.entity.Shipment;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -63,4 +64,36 @@ class ShipmentMapperTest {
         // Assert
         assertNull(result);
     }
+
+    @Test
+    void toSummaryDTO_ShouldMapShipmentTotals() {
+        // Arrange
+        Shipment shipment = Shipment.builder()
+                .id(1L)
+                .calculationCount(2L)
+                .totalIncomeCents(120000)
+                .totalCostCents(80000)
+                .totalProfitOrLossCents(40000)
+                .build();
+
+        // Act
+        ShipmentSummaryDTO result = shipmentMapper.toSummaryDTO(shipment);
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(1L, result.getShipmentId());
+        assertEquals(2L, result.getCalculationCount());
+        assertEquals(1200.0, result.getTotalIncome());
+        assertEquals(800.0, result.getTotalCost());
+        assertEquals(400.0, result.getTotalProfitOrLoss());
+    }
+
+    @Test
+    void toSummaryDTO_WithNullShipment_ShouldReturnNull() {
+        // Act
+        ShipmentSummaryDTO result = shipmentMapper.toSummaryDTO(null);
+
+        // Assert
+        assertNull(result);
+    }
 }
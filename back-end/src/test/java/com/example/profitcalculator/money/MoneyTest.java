@@ -0,0 +1,72 @@
+package com.example.profitcalculator.money;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void toCents_ShouldRoundToNearestCent() {
+        assertEquals(1234, Money.toCents(12.34));
+        assertEquals(-71, Money.toCents(-0.71));
+        assertEquals(10, Money.toCents(0.1));
+        assertEquals(12, Money.toCents(0.125));
+        assertEquals(0, Money.toCents(0.0));
+    }
+
+    @Test
+    void toCents_WithNonFiniteOrHugeAmount_ShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> Money.toCents(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> Money.toCents(Double.POSITIVE_INFINITY));
+        assertThrows(IllegalArgumentException.class, () -> Money.toCents(1e17));
+    }
+
+    @Test
+    void toDecimal_ShouldPrintAsTheDecimalAmount() {
+        assertEquals("12.34", Double.toString(Money.toDecimal(1234)));
+        assertEquals("-0.71", Double.toString(Money.toDecimal(-71)));
+        assertEquals("100.0", Double.toString(Money.toDecimal(10_000)));
+    }
+
+    @Test
+    void parseCents_ShouldParsePlainDecimalsExactly() {
+        assertEquals(1234, Money.parseCents("12.34"));
+        assertEquals(1250, Money.parseCents("12.5"));
+        assertEquals(1200, Money.parseCents("12"));
+        assertEquals(1200, Money.parseCents("12."));
+        assertEquals(50, Money.parseCents(".5"));
+        assertEquals(-71, Money.parseCents("-0.71"));
+        assertEquals(71, Money.parseCents("+0.71"));
+        assertEquals(999_999_999_999_999_999L, Money.parseCents("9999999999999999.99"));
+    }
+
+    @Test
+    void parseCents_ShouldFallBackForOtherNotations() {
+        assertEquals(150_000, Money.parseCents("1.5E3"));
+        assertEquals(12, Money.parseCents("0.125"));
+        assertEquals(14, Money.parseCents("0.135"));
+        assertEquals(12, Money.parseCents("0.1249"));
+        assertEquals(10_000_000_000_000_000_00L, Money.parseCents("10000000000000000"));
+    }
+
+    @Test
+    void parseCents_WithInvalidText_ShouldThrow() {
+        assertThrows(NumberFormatException.class, () -> Money.parseCents(""));
+        assertThrows(NumberFormatException.class, () -> Money.parseCents("-"));
+        assertThrows(NumberFormatException.class, () -> Money.parseCents("abc"));
+        assertThrows(NumberFormatException.class, () -> Money.parseCents("1,5"));
+        assertThrows(ArithmeticException.class, () -> Money.parseCents("1E30"));
+    }
+
+    @Test
+    void format_ShouldWriteOneOrTwoFractionDigits() {
+        assertEquals("100.0", Money.format(10_000));
+        assertEquals("12.34", Money.format(1234));
+        assertEquals("12.5", Money.format(1250));
+        assertEquals("0.05", Money.format(5));
+        assertEquals("-0.71", Money.format(-71));
+        assertEquals("-12.3", Money.format(-1230));
+        assertEquals("0.0", Money.format(0));
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.profitcalculator.repository;
+
+import com.example.profitcalculator.dto.CalculationAnalyticsDTO;
+import com.example.profitcalculator.dto.CalculationDTO;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.profitcalculator.repository.CalculationRepositoryTest$RecordingStatementInspector")
+class CalculationRepositoryTest {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Autowired
+    private CalculationRepository calculationRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findDTOPage_ShouldReturnRowsAfterCursorInIdOrder() {
+        // Arrange
+        insertCalculations(1_000);
+
+        // Act
+        List<CalculationDTO> firstPage = calculationRepository
+                .findDTOPageByShipmentId(1L, 0L, PageRequest.of(0, PAGE_SIZE));
+        Long cursor = firstPage.get(firstPage.size() - 1).getId();
+        List<CalculationDTO> secondPage = calculationRepository
+                .findDTOPageByShipmentId(1L, cursor, PageRequest.of(0, PAGE_SIZE));
+
+        // Assert
+        assertEquals(PAGE_SIZE, firstPage.size());
+        assertEquals(PAGE_SIZE, secondPage.size());
+        assertTrue(secondPage.get(0).getId() > cursor);
+        assertTrue(secondPage.stream().allMatch(c -> c.getShipmentId() == 1L));
+        for (int i = 1; i < secondPage.size(); i++) {
+            assertTrue(secondPage.get(i).getId() > secondPage.get(i - 1).getId());
+        }
+    }
+
+    @Test
+    void findDTOPage_ShouldReturnTheRowsWithoutManagingEntities() {
+        // Arrange
+        insertCalculations(1_000);
+        List<Long> expectedIds = jdbcTemplate.queryForList(
+                "SELECT id FROM calculation WHERE shipment_id = 1 ORDER BY id FETCH FIRST 50 ROWS ONLY", Long.class);
+
+        // Act
+        List<CalculationDTO> page = calculationRepository.findDTOPageByShipmentId(1L, 0L, PageRequest.of(0, PAGE_SIZE));
+
+        // Assert
+        assertEquals(expectedIds, page.stream().map(CalculationDTO::getId).toList());
+        for (CalculationDTO calculation : page) {
+            assertEquals(1L, calculation.getShipmentId());
+            assertEquals(calculation.getIncomeCents() - calculation.getCostCents(), calculation.getProfitOrLossCents());
+        }
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void findDTOPage_ShouldSeekOnShipmentIdAndIdIndexInALargeTable() {
+        // Arrange: with statistics on a large table, a plan over the primary key would scan every
+        // earlier row of the shipment before reaching the cursor
+        insertCalculations(100_000);
+        jdbcTemplate.execute("ANALYZE");
+        Long deepCursor = jdbcTemplate.queryForObject(
+                "SELECT id FROM calculation WHERE shipment_id = 1 ORDER BY id DESC OFFSET 1000 ROWS FETCH NEXT 1 ROW ONLY",
+                Long.class);
+        RecordingStatementInspector.STATEMENTS.clear();
+        calculationRepository.findDTOPageByShipmentId(1L, deepCursor, PageRequest.of(0, PAGE_SIZE));
+        assertEquals(1, RecordingStatementInspector.STATEMENTS.size());
+        String keysetQuery = RecordingStatementInspector.STATEMENTS.get(0);
+
+        // Act
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + keysetQuery, String.class, 1L, deepCursor, PAGE_SIZE);
+
+        // Assert
+        assertTrue(plan.contains("IDX_CALCULATION_SHIPMENT_ID_ID"), plan);
+    }
+
+    @Test
+    void sumForProfitBetween_ShouldSumOnlyTheRowsInTheRange() {
+        // Arrange
+        jdbcTemplate.update("DELETE FROM calculation");
+        insertCalculations(10);
+
+        // Act
+        CalculationAnalyticsDTO all = calculationRepository.sumForProfitBetween(Long.MIN_VALUE, Long.MAX_VALUE);
+        CalculationAnalyticsDTO range = calculationRepository.sumForProfitBetween(3, 5);
+
+        // Assert
+        assertEquals(10, all.getCalculationCount());
+        assertEquals(55, all.getTotalIncomeCents());
+        assertEquals(3, range.getCalculationCount());
+        assertEquals(12, range.getTotalIncomeCents());
+        assertEquals(0, range.getTotalCostCents());
+        assertEquals(12, range.getTotalProfitOrLossCents());
+    }
+
+    @Test
+    void profitAggregates_ShouldDescribeTheDistribution() {
+        // Arrange: profits -2 to 7
+        jdbcTemplate.update("DELETE FROM calculation");
+        jdbcTemplate.update("INSERT INTO calculation (shipment_id, income_cents, cost_cents, profit_or_loss_cents) "
+                + "SELECT 1, X, 3, X - 3 FROM SYSTEM_RANGE(1, 10)");
+
+        // Act
+        CalculationRepository.ProfitRange range = calculationRepository.findProfitRange();
+        List<CalculationRepository.ProfitBucket> buckets = calculationRepository.countPerProfitBucket(-2, 5);
+
+        // Assert
+        assertEquals(10, range.getCalculations());
+        assertEquals(2, range.getLosses());
+        assertEquals(-2, range.getLowest());
+        assertEquals(7, range.getHighest());
+        assertEquals(2, buckets.size());
+        for (CalculationRepository.ProfitBucket bucket : buckets) {
+            assertEquals(5, bucket.getCalculations());
+        }
+    }
+
+    @Test
+    void findProfitRange_WithoutCalculations_ShouldCountNone() {
+        // Arrange
+        jdbcTemplate.update("DELETE FROM calculation");
+
+        // Act
+        CalculationRepository.ProfitRange range = calculationRepository.findProfitRange();
+
+        // Assert
+        assertEquals(0, range.getCalculations());
+        assertNull(range.getLowest());
+    }
+
+    /**
+     * Inserts calculations where every tenth row belongs to shipment 1, so the shipment's rows
+     * are interleaved with the rest of the table the way they are in production.
+     */
+    private void insertCalculations(int rows) {
+        jdbcTemplate.update(
+                "INSERT INTO calculation (shipment_id, income_cents, cost_cents, profit_or_loss_cents) "
+                        + "SELECT CASEWHEN(MOD(X, 10) = 0, 1, 2), X, 0, X FROM SYSTEM_RANGE(1, ?)",
+                rows);
+    }
+
+    // Collects the SQL Hibernate sends, so tests can check the plan of the real statement
+    public static class RecordingStatementInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
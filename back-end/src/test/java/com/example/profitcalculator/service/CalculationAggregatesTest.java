@@ -0,0 +1,103 @@
+package com.example.profitcalculator.service;
+
+import com.example.profitcalculator.dto.CalculationAnalyticsDTO;
+import com.example.profitcalculator.repository.CalculationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CalculationAggregatesTest {
+
+    @Mock
+    private CalculationRepository calculationRepository;
+
+    @Mock
+    private CalculationColumns calculationColumns;
+
+    @Mock
+    private ObjectProvider<CalculationColumns> columnsProvider;
+
+    @Test
+    void totals_WithTheColumnStore_ShouldNotQueryTheDatabase() {
+        // Arrange
+        CalculationAnalyticsDTO expected = new CalculationAnalyticsDTO(1, 100, 40, 60);
+        when(columnsProvider.getIfAvailable()).thenReturn(calculationColumns);
+        when(calculationColumns.totals()).thenReturn(expected);
+
+        // Act
+        CalculationAnalyticsDTO result = new CalculationAggregates(columnsProvider, calculationRepository).totals();
+
+        // Assert
+        assertSame(expected, result);
+        verifyNoInteractions(calculationRepository);
+    }
+
+    @Test
+    void totalsForProfitBetween_WithoutTheColumnStore_ShouldSumInTheDatabase() {
+        // Arrange
+        CalculationAnalyticsDTO expected = new CalculationAnalyticsDTO(1, 100, 40, 60);
+        when(calculationRepository.sumForProfitBetween(0, 100)).thenReturn(expected);
+
+        // Act
+        CalculationAnalyticsDTO result = new CalculationAggregates(columnsProvider, calculationRepository)
+                .totalsForProfitBetween(0, 100);
+
+        // Assert
+        assertSame(expected, result);
+    }
+
+    @Test
+    void profitDistribution_WithoutTheColumnStore_ShouldBucketTheDatabaseCounts() {
+        // Arrange: profits from -500 to 1499 cents in two buckets of 1000
+        CalculationRepository.ProfitRange range = mock(CalculationRepository.ProfitRange.class);
+        when(range.getCalculations()).thenReturn(5L);
+        when(range.getLosses()).thenReturn(2L);
+        when(range.getLowest()).thenReturn(-500L);
+        when(range.getHighest()).thenReturn(1499L);
+        List<CalculationRepository.ProfitBucket> buckets = List.of(bucket(0, 3), bucket(1, 2));
+        when(calculationRepository.findProfitRange()).thenReturn(range);
+        when(calculationRepository.countPerProfitBucket(-500, 1000)).thenReturn(buckets);
+
+        // Act
+        ProfitDistribution distribution = new CalculationAggregates(columnsProvider, calculationRepository)
+                .profitDistribution(2);
+
+        // Assert
+        assertEquals(2, distribution.getLossMakingCount());
+        assertEquals(-500, distribution.getLowestCents());
+        assertEquals(1000, distribution.getBucketWidthCents());
+        assertEquals(2, distribution.getBucketCount());
+        assertEquals(3, distribution.getCount(0));
+        assertEquals(2, distribution.getCount(1));
+    }
+
+    @Test
+    void profitDistribution_WithoutCalculations_ShouldHaveNoBuckets() {
+        // Arrange
+        CalculationRepository.ProfitRange range = mock(CalculationRepository.ProfitRange.class);
+        when(calculationRepository.findProfitRange()).thenReturn(range);
+
+        // Act
+        ProfitDistribution distribution = new CalculationAggregates(columnsProvider, calculationRepository)
+                .profitDistribution(10);
+
+        // Assert
+        assertEquals(0, distribution.getBucketCount());
+        verify(calculationRepository, never()).countPerProfitBucket(anyLong(), anyLong());
+    }
+
+    private static CalculationRepository.ProfitBucket bucket(long bucket, long calculations) {
+        CalculationRepository.ProfitBucket profitBucket = mock(CalculationRepository.ProfitBucket.class);
+        when(profitBucket.getBucket()).thenReturn(bucket);
+        when(profitBucket.getCalculations()).thenReturn(calculations);
+        return profitBucket;
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.profitcalculator.service;
+
+import com.example.profitcalculator.dto.CalculationAnalyticsDTO;
+import com.example.profitcalculator.entity.Calculation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class CalculationColumnsTest {
+
+    private CalculationColumns columns;
+
+    @BeforeEach
+    void setUp() {
+        // The data source is only read by the startup load, which these tests do not run
+        columns = new CalculationColumns(mock(DataSource.class));
+    }
+
+    @Test
+    void totals_ShouldFollowAddsAndRemoves() {
+        // Arrange
+        columns.add(1, 1, 100_000, 50_000);
+        columns.add(2, 1, 20_000, 30_000);
+        columns.add(3, 2, 150_000, 100_000);
+
+        // Act
+        columns.remove(2);
+        CalculationAnalyticsDTO totals = columns.totals();
+
+        // Assert
+        assertEquals(2, totals.getCalculationCount());
+        assertEquals(250_000, totals.getTotalIncomeCents());
+        assertEquals(150_000, totals.getTotalCostCents());
+        assertEquals(100_000, totals.getTotalProfitOrLossCents());
+        assertEquals(1250.0, totals.getAverageIncome());
+        assertEquals(500.0, totals.getAverageProfitOrLoss());
+    }
+
+    @Test
+    void add_ShouldKeepIdOrderAndIgnoreDuplicates() {
+        // Arrange
+        columns.add(1, 1, 100, 0);
+        columns.add(3, 1, 300, 0);
+
+        // Act
+        columns.add(2, 1, 200, 0);
+        columns.add(3, 1, 300, 0);
+        columns.remove(2);
+
+        // Assert
+        assertEquals(2, columns.totals().getCalculationCount());
+        assertEquals(400, columns.totals().getTotalIncomeCents());
+    }
+
+    @Test
+    void add_BeyondInitialCapacity_ShouldKeepEveryRow() {
+        // Act
+        for (long id = 1; id <= CalculationColumns.INITIAL_CAPACITY * 3L; id++) {
+            columns.add(id, 1, 100, 40);
+        }
+
+        // Assert
+        assertEquals(CalculationColumns.INITIAL_CAPACITY * 3L, columns.totals().getCalculationCount());
+        assertEquals(CalculationColumns.INITIAL_CAPACITY * 3L * 60, columns.totals().getTotalProfitOrLossCents());
+    }
+
+    @Test
+    void totalsForProfitBetween_ShouldOnlyCountLiveRowsInRange() {
+        // Arrange
+        columns.add(1, 1, 100_000, 50_000);
+        columns.add(2, 1, 20_000, 30_000);
+        columns.add(3, 2, 150_000, 100_000);
+        columns.add(4, 2, 10_000, 10_000);
+        columns.remove(3);
+
+        // Act
+        CalculationAnalyticsDTO losses = columns.totalsForProfitBetween(Long.MIN_VALUE, -1);
+        CalculationAnalyticsDTO breakEvenOrBetter = columns.totalsForProfitBetween(0, Long.MAX_VALUE);
+
+        // Assert
+        assertEquals(1, losses.getCalculationCount());
+        assertEquals(-10_000, losses.getTotalProfitOrLossCents());
+        assertEquals(2, breakEvenOrBetter.getCalculationCount());
+        assertEquals(110_000, breakEvenOrBetter.getTotalIncomeCents());
+        assertEquals(50_000, breakEvenOrBetter.getTotalProfitOrLossCents());
+    }
+
+    @Test
+    void totalsForProfitBetween_WhenNothingMatches_ShouldReturnZeroAverages() {
+        // Arrange
+        columns.add(1, 1, 100_000, 50_000);
+
+        // Act
+        CalculationAnalyticsDTO result = columns.totalsForProfitBetween(Long.MIN_VALUE, -1);
+
+        // Assert
+        assertEquals(0, result.getCalculationCount());
+        assertEquals(0.0, result.getAverageIncome());
+    }
+
+    @Test
+    void profitDistribution_ShouldSpreadLiveRowsOverBucketsFromLowestToHighest() {
+        // Arrange: profits of -100, 0, 50, 99 and 200 cents, the 50 deleted
+        columns.add(1, 1, 0, 100);
+        columns.add(2, 1, 100, 100);
+        columns.add(3, 1, 50, 0);
+        columns.add(4, 2, 99, 0);
+        columns.add(5, 2, 200, 0);
+        columns.remove(3);
+
+        // Act
+        ProfitDistribution distribution = columns.profitDistribution(3);
+
+        // Assert: width 300 / 3 + 1, so the buckets start at -100, 1 and 102
+        assertEquals(1, distribution.getLossMakingCount());
+        assertEquals(-100, distribution.getLowestCents());
+        assertEquals(101, distribution.getBucketWidthCents());
+        assertEquals(3, distribution.getBucketCount());
+        assertEquals(2, distribution.getCount(0));
+        assertEquals(1, distribution.getCount(1));
+        assertEquals(1, distribution.getCount(2));
+    }
+
+    @Test
+    void profitDistribution_OverManySlices_ShouldCountEveryRowOnce() {
+        // Arrange: enough rows to be split across the fork-join pool; every fourth one a loss
+        int rows = CalculationColumns.PARALLEL_SCAN_ROWS * 3 + 7;
+        for (long id = 1; id <= rows; id++) {
+            columns.add(id, 1, id % 4 == 0 ? 0 : 1_000, 500);
+        }
+
+        // Act
+        ProfitDistribution distribution = columns.profitDistribution(2);
+
+        // Assert
+        assertEquals(rows / 4, distribution.getLossMakingCount());
+        assertEquals(rows / 4, distribution.getCount(0));
+        assertEquals(rows - rows / 4, distribution.getCount(1));
+    }
+
+    @Test
+    void profitDistribution_WithoutRows_ShouldHaveNoBuckets() {
+        // Act
+        ProfitDistribution distribution = columns.profitDistribution(10);
+
+        // Assert
+        assertEquals(0, distribution.getBucketCount());
+        assertEquals(0, distribution.getLossMakingCount());
+    }
+
+    @Test
+    void removeShipments_ShouldDropTheirRowsAndCompact() {
+        // Arrange
+        columns.add(1, 1, 100, 0);
+        columns.add(2, 2, 200, 0);
+        columns.add(3, 3, 300, 0);
+        columns.add(4, 3, 400, 0);
+
+        // Act
+        columns.removeShipments(Set.of(1L, 3L));
+
+        // Assert
+        assertEquals(1, columns.totals().getCalculationCount());
+        assertEquals(200, columns.totals().getTotalIncomeCents());
+        assertEquals(1, columns.size());
+        columns.remove(2);
+        assertEquals(0, columns.totals().getCalculationCount());
+    }
+
+    @Test
+    void onCalculationEvent_ShouldApplyCreatesAndDeletes() {
+        // Arrange
+        Calculation first = Calculation.builder().id(10L).incomeCents(100_000).costCents(40_000).build();
+        Calculation second = Calculation.builder().id(11L).incomeCents(50_000).costCents(0).build();
+
+        // Act
+        columns.onCalculationEvent(CalculationEvent.created(7L, List.of(first, second)));
+        columns.onCalculationEvent(CalculationEvent.deleted(7L, 10L));
+        columns.onShipmentsDeleted(new ShipmentsDeletedEvent(List.of(8L)));
+
+        // Assert
+        assertEquals(1, columns.totals().getCalculationCount());
+        assertEquals(50_000, columns.totals().getTotalProfitOrLossCents());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.profitcalculator.service;
+
+import com.example.profitcalculator.entity.Calculation;
+import com.example.profitcalculator.entity.Shipment;
+import com.example.profitcalculator.mapper.CalculationMapper;
+import com.example.profitcalculator.repository.CalculationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CalculationExportServiceTest {
+
+    @Mock
+    private CalculationRepository calculationRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private CalculationExportService exportService;
+
+    private final Shipment testShipment = Shipment.builder().id(1L).build();
+
+    @BeforeEach
+    void setUp() {
+        exportService = new CalculationExportService(calculationRepository, new CalculationMapper(),
+                entityManager, new ObjectMapper());
+    }
+
+    @Test
+    void writeNdjson_ShouldWriteOneObjectPerLineAndCloseStream() throws Exception {
+        // Arrange
+        AtomicBoolean closed = new AtomicBoolean();
+        when(calculationRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(
+                calculation(1L, 10000, 5000),
+                calculation(2L, 20000, 30000)
+        ).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        long rows = exportService.writeNdjson(output);
+
+        // Assert
+        assertEquals(2, rows);
+        assertEquals("""
+                {"id":1,"shipmentId":1,"income":100.0,"cost":50.0,"profitOrLoss":50.0}
+                {"id":2,"shipmentId":1,"income":200.0,"cost":300.0,"profitOrLoss":-100.0}
+                """, output.toString(StandardCharsets.UTF_8));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void writeCsv_ShouldWriteHeaderAndOneLinePerCalculation() throws Exception {
+        // Arrange
+        when(calculationRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(
+                calculation(1L, 10000, 5000),
+                calculation(3L, 1234, 1305)
+        ));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        long rows = exportService.writeCsv(output);
+
+        // Assert
+        assertEquals(2, rows);
+        assertEquals("""
+                id,shipmentId,income,cost,profitOrLoss
+                1,1,100.0,50.0,50.0
+                3,1,12.34,13.05,-0.71
+                """, output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writeCsv_ShouldClearPersistenceContextPeriodically() throws Exception {
+        // Arrange
+        int total = CalculationExportService.CLEAR_INTERVAL * 3 + 1;
+        when(calculationRepository.streamAllByOrderByIdAsc()).thenReturn(
+                LongStream.rangeClosed(1, total).mapToObj(id -> calculation(id, 100, 0)));
+
+        // Act
+        long rows = exportService.writeCsv(new ByteArrayOutputStream());
+
+        // Assert
+        assertEquals(total, rows);
+        verify(entityManager, times(3)).clear();
+    }
+
+    private Calculation calculation(Long id, long incomeCents, long costCents) {
+        return Calculation.builder()
+                .id(id)
+                .shipment(testShipment)
+                .incomeCents(incomeCents)
+                .costCents(costCents)
+                .profitOrLossCents(incomeCents - costCents)
+                .build();
+    }
+}
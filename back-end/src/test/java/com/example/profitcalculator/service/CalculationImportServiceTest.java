@@ -0,0 +1,142 @@
+package com.example.profitcalculator.service;
+
+import com.example.profitcalculator.dto.ImportReportDTO;
+import com.example.profitcalculator.entity.Calculation;
+import com.example.profitcalculator.exception.BadRequestException;
+import com.example.profitcalculator.mapper.CalculationMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CalculationImportServiceTest {
+
+    @Mock
+    private CalculationService calculationService;
+
+    private CalculationImportService importService;
+
+    private final List<Integer> chunkSizes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        importService = new CalculationImportService(calculationService, new CalculationMapper(), new ObjectMapper(), 2);
+
+        // Assign ids like the database would, skipping rows of the unknown shipment 999
+        AtomicLong ids = new AtomicLong();
+        lenient().when(calculationService.createForExistingShipments(anyList())).thenAnswer(invocation -> {
+            List<Calculation> chunk = invocation.getArgument(0);
+            chunkSizes.add(chunk.size());
+            List<Calculation> created = new ArrayList<>();
+            for (Calculation calculation : chunk) {
+                if (calculation.getShipment().getId() != 999L) {
+                    calculation.setId(ids.incrementAndGet());
+                    created.add(calculation);
+                }
+            }
+            return created;
+        });
+    }
+
+    @Test
+    void importCsv_ShouldWriteInChunksAndReportRejectedRows() throws Exception {
+        // Arrange
+        String csv = """
+                id,shipmentId,income,cost,profitOrLoss
+                7,1,100.0,50.0,50.0
+                8,1,0,0,0
+                9,2,abc,10,0
+
+                10,999,10,5,5
+                11,2,,30,-30
+                12,1,5,1,4
+                """;
+
+        // Act
+        ImportReportDTO report = importService.importCsv(stream(csv));
+
+        // Assert
+        assertEquals(6, report.getRowsRead());
+        assertEquals(3, report.getRowsImported());
+        assertEquals(3, report.getRowsRejected());
+        assertEquals(List.of(2, 2), chunkSizes);
+        assertEquals(3, report.getRejectedRows().get(0).getLine());
+        assertEquals("Income and Cost cannot both be 0", report.getRejectedRows().get(0).getReason());
+        assertEquals(4, report.getRejectedRows().get(1).getLine());
+        assertTrue(report.getRejectedRows().get(1).getReason().startsWith("Unreadable row"));
+        assertEquals(6, report.getRejectedRows().get(2).getLine());
+        assertEquals("Shipment not found with id : '999'", report.getRejectedRows().get(2).getReason());
+        assertTrue(report.getRowsPerSecond() > 0);
+    }
+
+    @Test
+    void importCsv_WithoutRequiredColumns_ShouldThrowBadRequestException() {
+        // Act & Assert
+        BadRequestException exception = assertThrows(
+                BadRequestException.class,
+                () -> importService.importCsv(stream("shipmentId,income\n1,10\n"))
+        );
+
+        assertEquals("CSV header must contain shipmentId, income and cost", exception.getMessage());
+        verify(calculationService, never()).createForExistingShipments(anyList());
+    }
+
+    @Test
+    void importNdjson_ShouldParseOneObjectPerLine() throws Exception {
+        // Arrange
+        String ndjson = """
+                {"shipmentId":1,"income":100.0,"cost":50.0}
+                {"shipmentId":2,"cost":20.0}
+                {"income":10.0}
+                {not json
+                {"shipmentId":1,"income":1.0,"cost":2.0}
+                """;
+
+        // Act
+        ImportReportDTO report = importService.importNdjson(stream(ndjson));
+
+        // Assert
+        assertEquals(5, report.getRowsRead());
+        assertEquals(3, report.getRowsImported());
+        assertEquals(2, report.getRowsRejected());
+        assertEquals(List.of(2, 1), chunkSizes);
+        assertEquals(3, report.getRejectedRows().get(0).getLine());
+        assertEquals("shipmentId is required", report.getRejectedRows().get(0).getReason());
+        assertEquals(4, report.getRejectedRows().get(1).getLine());
+    }
+
+    @Test
+    void importNdjson_ShouldCapListedRejectionsButCountAll() throws Exception {
+        // Arrange
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < CalculationImportService.MAX_REPORTED_REJECTIONS + 50; i++) {
+            ndjson.append("{\"shipmentId\":1,\"income\":0,\"cost\":0}\n");
+        }
+
+        // Act
+        ImportReportDTO report = importService.importNdjson(stream(ndjson.toString()));
+
+        // Assert
+        assertEquals(CalculationImportService.MAX_REPORTED_REJECTIONS + 50, report.getRowsRejected());
+        assertEquals(CalculationImportService.MAX_REPORTED_REJECTIONS, report.getRejectedRows().size());
+        verify(calculationService, never()).createForExistingShipments(anyList());
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.profitcalculator.service;
+
+import com.example.profitcalculator.dto.CalculationDTO;
+import com.example.profitcalculator.entity.Calculation;
+import com.example.profitcalculator.entity.Shipment;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CalculationServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int CALCULATIONS_PER_THREAD = 50;
+
+    @Autowired
+    private CalculationService calculationService;
+
+    @Autowired
+    private ShipmentService shipmentService;
+
+    @Test
+    void concurrentCreatesAndDeletes_ShouldKeepShipmentTotalsExact() throws Exception {
+        // Arrange
+        Long shipmentId = shipmentService.create(Shipment.builder().build()).getId();
+
+        // Act: every thread creates calculations on the same shipment and deletes every other one
+        List<Callable<Void>> writers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            writers.add(() -> {
+                for (int i = 0; i < CALCULATIONS_PER_THREAD; i++) {
+                    Calculation saved = calculationService.create(shipmentId, Calculation.builder()
+                            .incomeCents((thread * 100 + i + 1) * 100L)
+                            .costCents(i * 100L)
+                            .build());
+                    if (i % 2 == 1) {
+                        calculationService.delete(shipmentId, saved.getId());
+                    }
+                }
+                return null;
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Future<Void> result : executor.invokeAll(writers)) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert: the incrementally maintained totals match a full scan
+        Shipment shipment = shipmentService.getById(shipmentId);
+        List<CalculationDTO> calculations = calculationService.getDTOsByShipmentId(shipmentId);
+
+        assertEquals(THREADS * CALCULATIONS_PER_THREAD / 2, calculations.size());
+        assertEquals(calculations.size(), shipment.getCalculationCount());
+        assertEquals(calculations.stream().mapToLong(CalculationDTO::getIncomeCents).sum(), shipment.getTotalIncomeCents());
+        assertEquals(calculations.stream().mapToLong(CalculationDTO::getCostCents).sum(), shipment.getTotalCostCents());
+        assertEquals(calculations.stream().mapToLong(CalculationDTO::getProfitOrLossCents).sum(),
+                shipment.getTotalProfitOrLossCents());
+    }
+}
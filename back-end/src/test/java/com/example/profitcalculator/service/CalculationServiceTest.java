@@ -1,5 +1,6 @@
 package com.example.profitcalculator.service;
 
+import com.example.profitcalculator.dto.CalculationDTO;
 import com.example.profitcalculator.entity.Calculation;
 import com.example.profitcalculator.entity.Shipment;
 import com.example.profitcalculator.exception.BadRequestException;
@@ -9,16 +10,28 @@ import com.example.profitcalculator.repository.ShipmentRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +43,12 @@ class CalculationServiceTest {
     @Mock
     private ShipmentRepository shipmentRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private CalculationService calculationService;
 
@@ -44,33 +63,33 @@ class CalculationServiceTest {
         
         testCalculation = Calculation.builder()
                 .id(1L)
-                .income(100.0)
-                .cost(50.0)
-                .profitOrLoss(50.0)
+                .incomeCents(10000)
+                .costCents(5000)
+                .profitOrLossCents(5000)
                 .shipment(testShipment)
                 .build();
     }
 
     @Test
-    void getByShipmentId_WhenShipmentExists_ShouldReturnCalculations() {
+    void getDTOsByShipmentId_WhenShipmentExists_ShouldReturnDTOs() {
         // Arrange
         Long shipmentId = 1L;
-        List<Calculation> expectedCalculations = Arrays.asList(testCalculation);
-        
+        List<CalculationDTO> expectedCalculations = Arrays.asList(new CalculationDTO(1L, shipmentId, 10000, 5000, 5000));
+
         when(shipmentRepository.findById(shipmentId)).thenReturn(Optional.of(testShipment));
-        when(calculationRepository.findByShipment(testShipment)).thenReturn(expectedCalculations);
+        when(calculationRepository.findDTOsByShipmentId(shipmentId)).thenReturn(expectedCalculations);
 
         // Act
-        List<Calculation> result = calculationService.getByShipmentId(shipmentId);
+        List<CalculationDTO> result = calculationService.getDTOsByShipmentId(shipmentId);
 
         // Assert
         assertEquals(expectedCalculations, result);
         verify(shipmentRepository, times(1)).findById(shipmentId);
-        verify(calculationRepository, times(1)).findByShipment(testShipment);
+        verify(calculationRepository, times(1)).findDTOsByShipmentId(shipmentId);
     }
 
     @Test
-    void getByShipmentId_WhenShipmentDoesNotExist_ShouldThrowResourceNotFoundException() {
+    void getDTOPageByShipmentId_WhenShipmentDoesNotExist_ShouldThrowResourceNotFoundException() {
         // Arrange
         Long shipmentId = 999L;
         when(shipmentRepository.findById(shipmentId)).thenReturn(Optional.empty());
@@ -78,12 +97,57 @@ class CalculationServiceTest {
         // Act & Assert
         ResourceNotFoundException exception = assertThrows(
                 ResourceNotFoundException.class,
-                () -> calculationService.getByShipmentId(shipmentId)
+                () -> calculationService.getDTOPageByShipmentId(shipmentId, 0L, 10)
         );
-        
+
         assertEquals("Shipment not found with id : '999'", exception.getMessage());
+        verify(calculationRepository, never()).findDTOPageByShipmentId(any(), any(), any());
+    }
+
+    @Test
+    void getDTOPageByShipmentId_WhenShipmentExists_ShouldReturnDTOsWithoutLoadingEntities() {
+        // Arrange
+        Long shipmentId = 1L;
+        List<CalculationDTO> expectedCalculations = Arrays.asList(new CalculationDTO(1L, shipmentId, 10000, 5000, 5000));
+
+        when(shipmentRepository.findById(shipmentId)).thenReturn(Optional.of(testShipment));
+        when(calculationRepository.findDTOPageByShipmentId(shipmentId, 0L, PageRequest.of(0, 10)))
+                .thenReturn(expectedCalculations);
+
+        // Act
+        List<CalculationDTO> result = calculationService.getDTOPageByShipmentId(shipmentId, 0L, 10);
+
+        // Assert
+        assertEquals(expectedCalculations, result);
         verify(shipmentRepository, times(1)).findById(shipmentId);
-        verify(calculationRepository, never()).findByShipment(any());
+    }
+
+    @Test
+    void getDTOsByShipmentId_WhenShipmentDoesNotExist_ShouldThrowResourceNotFoundException() {
+        // Arrange
+        Long shipmentId = 999L;
+        when(shipmentRepository.findById(shipmentId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        ResourceNotFoundException exception = assertThrows(
+                ResourceNotFoundException.class,
+                () -> calculationService.getDTOsByShipmentId(shipmentId)
+        );
+
+        assertEquals("Shipment not found with id : '999'", exception.getMessage());
+        verify(calculationRepository, never()).findDTOsByShipmentId(any());
+    }
+
+    @Test
+    void getDTOPageByShipmentId_WithInvalidLimit_ShouldThrowBadRequestException() {
+        // Act & Assert
+        BadRequestException exception = assertThrows(
+                BadRequestException.class,
+                () -> calculationService.getDTOPageByShipmentId(1L, 0L, 0)
+        );
+
+        assertEquals("Limit must be between 1 and 1000", exception.getMessage());
+        verify(shipmentRepository, never()).findById(any());
     }
 
     @Test
@@ -91,11 +155,12 @@ class CalculationServiceTest {
         // Arrange
         Long shipmentId = 1L;
         Calculation newCalculation = Calculation.builder()
-                .income(100.0)
-                .cost(50.0)
+                .incomeCents(10000)
+                .costCents(5000)
                 .build();
         
-        when(shipmentRepository.findById(shipmentId)).thenReturn(Optional.of(testShipment));
+        when(shipmentRepository.getReferenceById(shipmentId)).thenReturn(testShipment);
+        when(shipmentRepository.addToTotals(eq(shipmentId), eq(1L), anyLong(), anyLong(), anyLong())).thenReturn(1);
         when(calculationRepository.save(any(Calculation.class))).thenReturn(testCalculation);
 
         // Act
@@ -104,9 +169,38 @@ class CalculationServiceTest {
         // Assert
         assertEquals(testCalculation, result);
         assertEquals(testShipment, newCalculation.getShipment());
-        assertEquals(50.0, newCalculation.getProfitOrLoss());
-        verify(shipmentRepository, times(1)).findById(shipmentId);
+        assertEquals(5000, newCalculation.getProfitOrLossCents());
+        verify(shipmentRepository, never()).findById(any());
+        verify(shipmentRepository, times(1)).addToTotals(shipmentId, 1, 10000, 5000, 5000);
         verify(calculationRepository, times(1)).save(newCalculation);
+        assertEquals(1.0, meterRegistry.counter("profit.calculations.created").count());
+
+        ArgumentCaptor<CalculationEvent> event = ArgumentCaptor.forClass(CalculationEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals(CalculationEvent.Type.CREATED, event.getValue().getType());
+        assertEquals(shipmentId, event.getValue().getShipmentId());
+        assertEquals(List.of(testCalculation), event.getValue().getCreated());
+    }
+
+    @Test
+    void create_WithoutCost_ShouldTreatCostAsZero() {
+        // Arrange
+        Long shipmentId = 1L;
+        Calculation newCalculation = Calculation.builder()
+                .incomeCents(10000)
+                .build();
+
+        when(shipmentRepository.getReferenceById(shipmentId)).thenReturn(testShipment);
+        when(shipmentRepository.addToTotals(eq(shipmentId), eq(1L), anyLong(), anyLong(), anyLong())).thenReturn(1);
+        when(calculationRepository.save(any(Calculation.class))).thenReturn(newCalculation);
+
+        // Act
+        calculationService.create(shipmentId, newCalculation);
+
+        // Assert
+        assertEquals(0, newCalculation.getCostCents());
+        assertEquals(10000, newCalculation.getProfitOrLossCents());
+        verify(shipmentRepository, times(1)).addToTotals(shipmentId, 1, 10000, 0, 10000);
     }
 
     @Test
@@ -114,11 +208,12 @@ class CalculationServiceTest {
         // Arrange
         Long shipmentId = 999L;
         Calculation newCalculation = Calculation.builder()
-                .income(100.0)
-                .cost(50.0)
+                .incomeCents(10000)
+                .costCents(5000)
                 .build();
         
-        when(shipmentRepository.findById(shipmentId)).thenReturn(Optional.empty());
+        when(shipmentRepository.getReferenceById(shipmentId)).thenReturn(Shipment.builder().id(shipmentId).build());
+        when(shipmentRepository.addToTotals(shipmentId, 1, 10000, 5000, 5000)).thenReturn(0);
 
         // Act & Assert
         ResourceNotFoundException exception = assertThrows(
@@ -127,8 +222,8 @@ class CalculationServiceTest {
         );
         
         assertEquals("Shipment not found with id : '999'", exception.getMessage());
-        verify(shipmentRepository, times(1)).findById(shipmentId);
         verify(calculationRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -136,8 +231,8 @@ class CalculationServiceTest {
         // Arrange
         Long shipmentId = 1L;
         Calculation newCalculation = Calculation.builder()
-                .income(0.0)
-                .cost(0.0)
+                .incomeCents(0)
+                .costCents(0)
                 .build();
 
         // Act & Assert
@@ -152,13 +247,10 @@ class CalculationServiceTest {
     }
 
     @Test
-    void create_WithBothIncomeAndCostNull_ShouldThrowBadRequestException() {
+    void create_WithoutIncomeAndCost_ShouldThrowBadRequestException() {
         // Arrange
         Long shipmentId = 1L;
-        Calculation newCalculation = Calculation.builder()
-                .income(null)
-                .cost(null)
-                .build();
+        Calculation newCalculation = Calculation.builder().build();
 
         // Act & Assert
         BadRequestException exception = assertThrows(
@@ -176,19 +268,20 @@ class CalculationServiceTest {
         // Arrange
         Long shipmentId = 1L;
         Calculation newCalculation = Calculation.builder()
-                .income(0.0)
-                .cost(50.0)
+                .incomeCents(0)
+                .costCents(5000)
                 .build();
         
         Calculation expectedCalculation = Calculation.builder()
                 .id(1L)
-                .income(0.0)
-                .cost(50.0)
-                .profitOrLoss(-50.0)
+                .incomeCents(0)
+                .costCents(5000)
+                .profitOrLossCents(-5000)
                 .shipment(testShipment)
                 .build();
         
-        when(shipmentRepository.findById(shipmentId)).thenReturn(Optional.of(testShipment));
+        when(shipmentRepository.getReferenceById(shipmentId)).thenReturn(testShipment);
+        when(shipmentRepository.addToTotals(eq(shipmentId), eq(1L), anyLong(), anyLong(), anyLong())).thenReturn(1);
         when(calculationRepository.save(any(Calculation.class))).thenReturn(expectedCalculation);
 
         // Act
@@ -197,8 +290,8 @@ class CalculationServiceTest {
         // Assert
         assertEquals(expectedCalculation, result);
         assertEquals(testShipment, newCalculation.getShipment());
-        assertEquals(-50.0, newCalculation.getProfitOrLoss());
-        verify(shipmentRepository, times(1)).findById(shipmentId);
+        assertEquals(-5000, newCalculation.getProfitOrLossCents());
+        verify(shipmentRepository, never()).findById(any());
         verify(calculationRepository, times(1)).save(newCalculation);
     }
 
@@ -207,19 +300,20 @@ class CalculationServiceTest {
         // Arrange
         Long shipmentId = 1L;
         Calculation newCalculation = Calculation.builder()
-                .income(100.0)
-                .cost(0.0)
+                .incomeCents(10000)
+                .costCents(0)
                 .build();
         
         Calculation expectedCalculation = Calculation.builder()
                 .id(1L)
-                .income(100.0)
-                .cost(0.0)
-                .profitOrLoss(100.0)
+                .incomeCents(10000)
+                .costCents(0)
+                .profitOrLossCents(10000)
                 .shipment(testShipment)
                 .build();
         
-        when(shipmentRepository.findById(shipmentId)).thenReturn(Optional.of(testShipment));
+        when(shipmentRepository.getReferenceById(shipmentId)).thenReturn(testShipment);
+        when(shipmentRepository.addToTotals(eq(shipmentId), eq(1L), anyLong(), anyLong(), anyLong())).thenReturn(1);
         when(calculationRepository.save(any(Calculation.class))).thenReturn(expectedCalculation);
 
         // Act
@@ -228,40 +322,182 @@ class CalculationServiceTest {
         // Assert
         assertEquals(expectedCalculation, result);
         assertEquals(testShipment, newCalculation.getShipment());
-        assertEquals(100.0, newCalculation.getProfitOrLoss());
-        verify(shipmentRepository, times(1)).findById(shipmentId);
+        assertEquals(10000, newCalculation.getProfitOrLossCents());
+        verify(shipmentRepository, never()).findById(any());
         verify(calculationRepository, times(1)).save(newCalculation);
     }
 
     @Test
-    void delete_WhenCalculationExists_ShouldDeleteSuccessfully() {
+    void createAll_WithValidData_ShouldUpdateTotalsOnceAndSaveAll() {
+        // Arrange
+        Long shipmentId = 1L;
+        List<Calculation> calculations = Arrays.asList(
+                Calculation.builder().id(42L).incomeCents(10000).costCents(5000).build(),
+                Calculation.builder().costCents(3000).build()
+        );
+
+        when(shipmentRepository.getReferenceById(shipmentId)).thenReturn(testShipment);
+        when(shipmentRepository.addToTotals(shipmentId, 2, 10000, 8000, 2000)).thenReturn(1);
+        when(calculationRepository.saveAll(calculations)).thenReturn(calculations);
+
+        // Act
+        List<Calculation> result = calculationService.createAll(shipmentId, calculations);
+
+        // Assert
+        assertEquals(calculations, result);
+        assertNull(calculations.get(0).getId());
+        assertEquals(testShipment, calculations.get(1).getShipment());
+        assertEquals(-3000, calculations.get(1).getProfitOrLossCents());
+        verify(shipmentRepository, never()).findById(any());
+        verify(shipmentRepository, times(1)).addToTotals(shipmentId, 2, 10000, 8000, 2000);
+        verify(calculationRepository, times(1)).saveAll(calculations);
+    }
+
+    @Test
+    void createAll_WhenShipmentDoesNotExist_ShouldThrowResourceNotFoundException() {
+        // Arrange
+        Long shipmentId = 999L;
+        List<Calculation> calculations = Arrays.asList(Calculation.builder().incomeCents(10000).costCents(5000).build());
+
+        when(shipmentRepository.addToTotals(shipmentId, 1, 10000, 5000, 5000)).thenReturn(0);
+
+        // Act & Assert
+        ResourceNotFoundException exception = assertThrows(
+                ResourceNotFoundException.class,
+                () -> calculationService.createAll(shipmentId, calculations)
+        );
+
+        assertEquals("Shipment not found with id : '999'", exception.getMessage());
+        verify(calculationRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void createAll_WithInvalidRow_ShouldRejectWholeRequest() {
+        // Arrange
+        List<Calculation> calculations = Arrays.asList(
+                Calculation.builder().incomeCents(10000).costCents(5000).build(),
+                Calculation.builder().incomeCents(0).costCents(0).build()
+        );
+
+        // Act & Assert
+        BadRequestException exception = assertThrows(
+                BadRequestException.class,
+                () -> calculationService.createAll(1L, calculations)
+        );
+
+        assertEquals("Calculation at index 1: Income and Cost cannot both be 0", exception.getMessage());
+        verify(shipmentRepository, never()).addToTotals(any(), anyLong(), anyLong(), anyLong(), anyLong());
+        verify(calculationRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void createAll_WithEmptyList_ShouldThrowBadRequestException() {
+        // Act & Assert
+        BadRequestException exception = assertThrows(
+                BadRequestException.class,
+                () -> calculationService.createAll(1L, List.of())
+        );
+
+        assertEquals("At least one calculation is required", exception.getMessage());
+    }
+
+    @Test
+    void createForExistingShipments_ShouldSkipRowsOfUnknownShipments() {
+        // Arrange
+        Shipment unknownShipment = Shipment.builder().id(999L).build();
+        Calculation first = Calculation.builder().incomeCents(10000).costCents(5000).shipment(testShipment).build();
+        Calculation orphan = Calculation.builder().incomeCents(1000).costCents(500).shipment(unknownShipment).build();
+        Calculation second = Calculation.builder().incomeCents(0).costCents(2000).shipment(testShipment).build();
+
+        when(shipmentRepository.getReferenceById(1L)).thenReturn(testShipment);
+        when(shipmentRepository.getReferenceById(999L)).thenReturn(unknownShipment);
+        when(shipmentRepository.addToTotals(1L, 2, 10000, 7000, 3000)).thenReturn(1);
+        when(shipmentRepository.addToTotals(999L, 1, 1000, 500, 500)).thenReturn(0);
+        when(calculationRepository.saveAll(Arrays.asList(first, second))).thenReturn(Arrays.asList(first, second));
+
+        // Act
+        List<Calculation> result = calculationService.createForExistingShipments(Arrays.asList(first, orphan, second));
+
+        // Assert
+        assertEquals(Arrays.asList(first, second), result);
+        verify(calculationRepository, times(1)).saveAll(Arrays.asList(first, second));
+
+        ArgumentCaptor<CalculationEvent> event = ArgumentCaptor.forClass(CalculationEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals(1L, event.getValue().getShipmentId());
+        assertEquals(Arrays.asList(first, second), event.getValue().getCreated());
+    }
+
+    @Test
+    void createForExistingShipments_ShouldUpdateTheShipmentsInIdOrder() {
+        // Arrange
+        List<Calculation> calculations = new ArrayList<>();
+        for (long shipmentId : new long[] {3L, 1L, 2L, 1L}) {
+            Shipment shipment = Shipment.builder().id(shipmentId).build();
+            when(shipmentRepository.getReferenceById(shipmentId)).thenReturn(shipment);
+            calculations.add(Calculation.builder().incomeCents(1000).costCents(500).shipment(shipment).build());
+        }
+        when(shipmentRepository.addToTotals(anyLong(), anyLong(), anyLong(), anyLong(), anyLong())).thenReturn(1);
+        when(calculationRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        calculationService.createForExistingShipments(calculations);
+
+        // Assert
+        InOrder inOrder = inOrder(shipmentRepository);
+        inOrder.verify(shipmentRepository).addToTotals(1L, 2, 2000, 1000, 1000);
+        inOrder.verify(shipmentRepository).addToTotals(2L, 1, 1000, 500, 500);
+        inOrder.verify(shipmentRepository).addToTotals(3L, 1, 1000, 500, 500);
+    }
+
+    @Test
+    void delete_WhenCalculationExists_ShouldSubtractFromTotalsAndDelete() {
         // Arrange
         Long calculationId = 1L;
-        when(calculationRepository.existsById(calculationId)).thenReturn(true);
-        doNothing().when(calculationRepository).deleteById(calculationId);
+        when(shipmentRepository.subtractCalculation(1L, calculationId)).thenReturn(1);
+        when(calculationRepository.deleteByIdAndShipmentId(calculationId, 1L)).thenReturn(1);
 
         // Act
-        calculationService.delete(calculationId);
+        calculationService.delete(1L, calculationId);
 
         // Assert
-        verify(calculationRepository, times(1)).existsById(calculationId);
-        verify(calculationRepository, times(1)).deleteById(calculationId);
+        verify(shipmentRepository, times(1)).subtractCalculation(1L, calculationId);
+        verify(calculationRepository, times(1)).deleteByIdAndShipmentId(calculationId, 1L);
+        verify(calculationRepository, never()).findById(any());
+        assertEquals(1.0, meterRegistry.counter("profit.calculations.deleted").count());
+
+        ArgumentCaptor<CalculationEvent> event = ArgumentCaptor.forClass(CalculationEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals(CalculationEvent.Type.DELETED, event.getValue().getType());
+        assertEquals(List.of(calculationId), event.getValue().getDeletedIds());
     }
 
     @Test
     void delete_WhenCalculationDoesNotExist_ShouldThrowResourceNotFoundException() {
         // Arrange
         Long calculationId = 999L;
-        when(calculationRepository.existsById(calculationId)).thenReturn(false);
+        when(shipmentRepository.subtractCalculation(1L, calculationId)).thenReturn(0);
 
         // Act & Assert
         ResourceNotFoundException exception = assertThrows(
                 ResourceNotFoundException.class,
-                () -> calculationService.delete(calculationId)
+                () -> calculationService.delete(1L, calculationId)
         );
         
         assertEquals("Calculation not found with id : '999'", exception.getMessage());
-        verify(calculationRepository, times(1)).existsById(calculationId);
-        verify(calculationRepository, never()).deleteById(any());
+        verify(calculationRepository, never()).deleteByIdAndShipmentId(any(), any());
+        assertEquals(0.0, meterRegistry.counter("profit.calculations.deleted").count());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void delete_WhenRowWasDeletedConcurrently_ShouldThrowResourceNotFoundException() {
+        // Arrange
+        Long calculationId = 1L;
+        when(shipmentRepository.subtractCalculation(1L, calculationId)).thenReturn(1);
+        when(calculationRepository.deleteByIdAndShipmentId(calculationId, 1L)).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> calculationService.delete(1L, calculationId));
     }
 }
@@ -0,0 +1,291 @@
+package com.example.profitcalculator.service;
+
+import com.example.profitcalculator.dto.CalculationTicketDTO;
+import com.example.profitcalculator.entity.Calculation;
+import com.example.profitcalculator.entity.Shipment;
+import com.example.profitcalculator.exception.BadRequestException;
+import com.example.profitcalculator.exception.ResourceNotFoundException;
+import com.example.profitcalculator.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CalculationWriteQueueTest {
+
+    @Mock
+    private CalculationService calculationService;
+
+    @Mock
+    private ShipmentService shipmentService;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache secondLevelCache;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private CalculationWriteQueue writeQueue;
+
+    // Shipments are never in the second-level cache unless a test puts them there
+    private CalculationWriteQueue writeQueue(int queueCapacity, int batchSize) {
+        return writeQueue(queueCapacity, batchSize, false);
+    }
+
+    private CalculationWriteQueue writeQueue(int queueCapacity, int batchSize, boolean checkpointSync) {
+        lenient().when(entityManagerFactory.getCache()).thenReturn(secondLevelCache);
+        writeQueue = new CalculationWriteQueue(calculationService, shipmentService, entityManagerFactory,
+                jdbcTemplate, new SimpleMeterRegistry(), queueCapacity, batchSize, 10, checkpointSync);
+        return writeQueue;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writeQueue != null && writeQueue.isRunning()) {
+            writeQueue.stop();
+        }
+    }
+
+    private static Calculation calculation(long shipmentId) {
+        return Calculation.builder()
+                .shipment(Shipment.builder().id(shipmentId).build())
+                .incomeCents(10_000)
+                .costCents(4_000)
+                .build();
+    }
+
+    // Saves like createForExistingShipments: ids in order, none for rows of shipment 99
+    private List<Integer> saveWithIds() {
+        List<Integer> batchSizes = new ArrayList<>();
+        AtomicLong ids = new AtomicLong(100);
+        when(calculationService.createForExistingShipments(anyList())).thenAnswer(invocation -> {
+            List<Calculation> calculations = invocation.getArgument(0);
+            batchSizes.add(calculations.size());
+            for (Calculation calculation : calculations) {
+                if (calculation.getShipment().getId() != 99L) {
+                    calculation.setId(ids.incrementAndGet());
+                }
+            }
+            return calculations;
+        });
+        return batchSizes;
+    }
+
+    @Test
+    void submit_ShouldWriteQueuedCalculationsInBatches() {
+        // Arrange
+        List<Integer> batchSizes = saveWithIds();
+        CalculationWriteQueue queue = writeQueue(100, 2);
+        queue.start();
+
+        // Act: stopping drains the queue
+        long first = queue.submit(1L, calculation(1L));
+        long second = queue.submit(1L, calculation(1L));
+        long third = queue.submit(2L, calculation(2L));
+        queue.stop();
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L), List.of(first, second, third));
+        assertEquals(3, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 2));
+        CalculationTicketDTO status = queue.status(2L, third);
+        assertEquals(CalculationTicketDTO.Status.COMMITTED, status.getStatus());
+        assertEquals(103L, status.getCalculationId());
+        assertEquals(101L, queue.status(1L, first).getCalculationId());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void status_WithCheckpointSync_ShouldBeDurableAfterOneSyncPerBatch() {
+        // Arrange
+        List<Integer> batchSizes = saveWithIds();
+        CalculationWriteQueue queue = writeQueue(100, 2, true);
+        queue.start();
+
+        // Act
+        long first = queue.submit(1L, calculation(1L));
+        long second = queue.submit(1L, calculation(1L));
+        long third = queue.submit(2L, calculation(2L));
+        queue.stop();
+
+        // Assert
+        verify(jdbcTemplate, times(batchSizes.size())).execute("CHECKPOINT SYNC");
+        for (long ticket : List.of(first, second)) {
+            assertEquals(CalculationTicketDTO.Status.DURABLE, queue.status(1L, ticket).getStatus());
+        }
+        assertEquals(CalculationTicketDTO.Status.DURABLE, queue.status(2L, third).getStatus());
+    }
+
+    @Test
+    void status_WhenTheSyncFails_ShouldStayCommitted() {
+        // Arrange
+        saveWithIds();
+        doThrow(new DataAccessResourceFailureException("Disk full")).when(jdbcTemplate).execute("CHECKPOINT SYNC");
+        CalculationWriteQueue queue = writeQueue(100, 10, true);
+        queue.start();
+
+        // Act
+        long ticket = queue.submit(1L, calculation(1L));
+        queue.stop();
+
+        // Assert
+        CalculationTicketDTO status = queue.status(1L, ticket);
+        assertEquals(CalculationTicketDTO.Status.COMMITTED, status.getStatus());
+        assertEquals(101L, status.getCalculationId());
+    }
+
+    @Test
+    void status_OfCalculationForDeletedShipment_ShouldBeFailed() {
+        // Arrange
+        saveWithIds();
+        CalculationWriteQueue queue = writeQueue(100, 10);
+        queue.start();
+
+        // Act
+        long ticket = queue.submit(99L, calculation(99L));
+        queue.stop();
+
+        // Assert
+        CalculationTicketDTO status = queue.status(99L, ticket);
+        assertEquals(CalculationTicketDTO.Status.FAILED, status.getStatus());
+        assertEquals("Shipment not found with id : '99'", status.getMessage());
+        assertNull(status.getCalculationId());
+    }
+
+    @Test
+    void status_WhenTheBatchFails_ShouldBeFailedForEveryTicketInIt() {
+        // Arrange
+        when(calculationService.createForExistingShipments(anyList())).thenThrow(new IllegalStateException("Disk full"));
+        CalculationWriteQueue queue = writeQueue(100, 10);
+        queue.start();
+
+        // Act
+        long first = queue.submit(1L, calculation(1L));
+        long second = queue.submit(1L, calculation(1L));
+        queue.stop();
+
+        // Assert
+        assertEquals(CalculationWriteQueue.WRITE_FAILED, queue.status(1L, first).getMessage());
+        assertEquals(CalculationTicketDTO.Status.FAILED, queue.status(1L, second).getStatus());
+    }
+
+    @Test
+    void status_OfUnknownTicketOrOtherShipment_ShouldThrowResourceNotFoundException() {
+        // Arrange
+        saveWithIds();
+        CalculationWriteQueue queue = writeQueue(100, 10);
+        queue.start();
+        long ticket = queue.submit(1L, calculation(1L));
+        queue.stop();
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> queue.status(1L, ticket + 1));
+        assertThrows(ResourceNotFoundException.class, () -> queue.status(1L, 0));
+        ResourceNotFoundException exception = assertThrows(
+                ResourceNotFoundException.class,
+                () -> queue.status(2L, ticket)
+        );
+        assertEquals("Ticket not found with id : '1'", exception.getMessage());
+    }
+
+    @Test
+    void submit_WhenTheQueueIsFull_ShouldThrowServiceUnavailableException() throws Exception {
+        // Arrange: the writer is held in the first batch until the queue has been filled
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(calculationService.createForExistingShipments(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        });
+        CalculationWriteQueue queue = writeQueue(1, 1);
+        queue.start();
+        long first = queue.submit(1L, calculation(1L));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        long second = queue.submit(1L, calculation(1L));
+
+        // Act & Assert
+        ServiceUnavailableException exception = assertThrows(
+                ServiceUnavailableException.class,
+                () -> queue.submit(1L, calculation(1L))
+        );
+        assertEquals(CalculationWriteQueue.RETRY_AFTER_SECONDS, exception.getRetryAfterSeconds());
+        assertEquals(CalculationTicketDTO.Status.PENDING, queue.status(1L, first).getStatus());
+        assertEquals(CalculationTicketDTO.Status.PENDING, queue.status(1L, second).getStatus());
+        release.countDown();
+    }
+
+    @Test
+    void submit_WithoutIncomeAndCost_ShouldThrowBadRequestExceptionWithoutQueueing() {
+        // Arrange
+        CalculationWriteQueue queue = writeQueue(100, 10);
+        queue.start();
+        Calculation empty = Calculation.builder().shipment(Shipment.builder().id(1L).build()).build();
+
+        // Act & Assert
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> queue.submit(1L, empty));
+        assertEquals("Income and Cost cannot both be 0", exception.getMessage());
+        verify(shipmentService, never()).getById(any());
+    }
+
+    @Test
+    void submit_ForCachedShipment_ShouldNotLoadIt() {
+        // Arrange
+        CalculationWriteQueue queue = writeQueue(100, 10);
+        when(secondLevelCache.contains(Shipment.class, 1L)).thenReturn(true);
+        queue.start();
+
+        // Act
+        queue.submit(1L, calculation(1L));
+
+        // Assert
+        verify(shipmentService, never()).getById(any());
+    }
+
+    @Test
+    void submit_ForMissingShipment_ShouldThrowResourceNotFoundException() {
+        // Arrange
+        when(shipmentService.getById(5L)).thenThrow(new ResourceNotFoundException("Shipment", "id", 5L));
+        CalculationWriteQueue queue = writeQueue(100, 10);
+        queue.start();
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> queue.submit(5L, calculation(5L)));
+        queue.stop();
+        verify(calculationService, never()).createForExistingShipments(anyList());
+    }
+
+    @Test
+    void submit_WhenStopped_ShouldThrowServiceUnavailableException() {
+        // Arrange
+        CalculationWriteQueue queue = writeQueue(100, 10);
+
+        // Act & Assert
+        assertThrows(ServiceUnavailableException.class, () -> queue.submit(1L, calculation(1L)));
+    }
+
+    @Test
+    void constructor_WithMoreQueuedTicketsThanRemembered_ShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> writeQueue(CalculationWriteQueue.TICKET_HISTORY, 1));
+    }
+}
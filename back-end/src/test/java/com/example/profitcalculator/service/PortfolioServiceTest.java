@@ -0,0 +1,110 @@
+package com.example.profitcalculator.service;
+
+import com.example.profitcalculator.dto.CalculationAnalyticsDTO;
+import com.example.profitcalculator.dto.PortfolioDTO;
+import com.example.profitcalculator.entity.Shipment;
+import com.example.profitcalculator.exception.BadRequestException;
+import com.example.profitcalculator.mapper.ShipmentMapper;
+import com.example.profitcalculator.repository.ShipmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PortfolioServiceTest {
+
+    @Mock
+    private ShipmentRepository shipmentRepository;
+
+    @Mock
+    private CalculationAggregates calculationAggregates;
+
+    private PortfolioService portfolioService;
+
+    @BeforeEach
+    void setUp() {
+        portfolioService = new PortfolioService(shipmentRepository, calculationAggregates, new ShipmentMapper());
+    }
+
+    @Test
+    void getPortfolio_ShouldCombineRankedShipmentsTotalsAndDistribution() {
+        // Arrange
+        Shipment best = Shipment.builder().id(1L).build();
+        best.setTotalProfitOrLossCents(40_000);
+        Shipment worst = Shipment.builder().id(2L).build();
+        worst.setTotalProfitOrLossCents(-10_000);
+        when(shipmentRepository.findByCalculationCountGreaterThanOrderByTotalProfitOrLossCentsDescIdAsc(0, PageRequest.of(0, 1)))
+                .thenReturn(List.of(best));
+        when(shipmentRepository.findByCalculationCountGreaterThanOrderByTotalProfitOrLossCentsAscIdAsc(0, PageRequest.of(0, 1)))
+                .thenReturn(List.of(worst));
+        when(calculationAggregates.totals()).thenReturn(CalculationAnalyticsDTO.builder()
+                .calculationCount(3)
+                .totalIncomeCents(120_000)
+                .totalCostCents(90_000)
+                .totalProfitOrLossCents(30_000)
+                .build());
+        when(calculationAggregates.profitDistribution(2))
+                .thenReturn(new ProfitDistribution(1, -10_000, 25_001, new long[]{1, 2}));
+
+        // Act
+        PortfolioDTO portfolio = portfolioService.getPortfolio(1, 2);
+
+        // Assert
+        assertEquals(0.25, portfolio.getMargin());
+        assertEquals(1, portfolio.getLossMakingCalculationCount());
+        assertEquals(3, portfolio.getTotals().getCalculationCount());
+        assertEquals(1L, portfolio.getMostProfitableShipments().get(0).getShipmentId());
+        assertEquals(-10_000, portfolio.getLeastProfitableShipments().get(0).getTotalProfitOrLossCents());
+        assertEquals(2, portfolio.getProfitHistogram().size());
+        assertEquals(-10_000, portfolio.getProfitHistogram().get(0).getFromProfitOrLossCents());
+        assertEquals(15_001, portfolio.getProfitHistogram().get(0).getToProfitOrLossCents());
+        assertEquals(15_001, portfolio.getProfitHistogram().get(1).getFromProfitOrLossCents());
+        assertEquals(2, portfolio.getProfitHistogram().get(1).getCalculationCount());
+    }
+
+    @Test
+    void getPortfolio_WithoutIncome_ShouldHaveNoMargin() {
+        // Arrange
+        when(calculationAggregates.totals()).thenReturn(CalculationAnalyticsDTO.builder().build());
+        when(calculationAggregates.profitDistribution(20)).thenReturn(new ProfitDistribution(0, 0, 1, new long[0]));
+
+        // Act
+        PortfolioDTO portfolio = portfolioService.getPortfolio(10, 20);
+
+        // Assert
+        assertNull(portfolio.getMargin());
+        assertTrue(portfolio.getProfitHistogram().isEmpty());
+    }
+
+    @Test
+    void getPortfolio_WithTooManyShipments_ShouldThrowBadRequestException() {
+        // Act & Assert
+        BadRequestException exception = assertThrows(
+                BadRequestException.class,
+                () -> portfolioService.getPortfolio(PortfolioService.MAX_SHIPMENTS + 1, 20)
+        );
+
+        assertEquals("Shipments must be between 1 and 100", exception.getMessage());
+        verifyNoInteractions(shipmentRepository, calculationAggregates);
+    }
+
+    @Test
+    void getPortfolio_WithNoBuckets_ShouldThrowBadRequestException() {
+        // Act & Assert
+        BadRequestException exception = assertThrows(
+                BadRequestException.class,
+                () -> portfolioService.getPortfolio(10, 0)
+        );
+
+        assertEquals("Buckets must be between 1 and 100", exception.getMessage());
+        verifyNoInteractions(shipmentRepository, calculationAggregates);
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.profitcalculator.service;
 
+import com.example.profitcalculator.dto.ShipmentDTO;
 import com.example.profitcalculator.entity.Shipment;
+import com.example.profitcalculator.exception.BadRequestException;
 import com.example.profitcalculator.exception.ResourceNotFoundException;
 import com.example.profitcalculator.repository.ShipmentRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,13 +11,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +30,12 @@ class ShipmentServiceTest {
     @Mock
     private ShipmentRepository shipmentRepository;
 
+    @Mock
+    private ShipmentVersions shipmentVersions;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ShipmentService shipmentService;
 
@@ -37,20 +49,55 @@ class ShipmentServiceTest {
     }
 
     @Test
-    void getAll_ShouldReturnAllShipments() {
+    void getAllDTOs_ShouldReturnAllShipments() {
         // Arrange
-        List<Shipment> expectedShipments = Arrays.asList(
-                Shipment.builder().id(1L).build(),
-                Shipment.builder().id(2L).build()
+        List<ShipmentDTO> expectedShipments = Arrays.asList(new ShipmentDTO(1L), new ShipmentDTO(2L));
+        when(shipmentRepository.findAllDTOs()).thenReturn(expectedShipments);
+
+        // Act
+        List<ShipmentDTO> result = shipmentService.getAllDTOs();
+
+        // Assert
+        assertEquals(expectedShipments, result);
+        verify(shipmentRepository, times(1)).findAllDTOs();
+    }
+
+    @Test
+    void getDTOPage_WithLimitOutOfRange_ShouldThrowBadRequestException() {
+        // Act & Assert
+        BadRequestException exception = assertThrows(
+                BadRequestException.class,
+                () -> shipmentService.getDTOPage(0L, 1001)
         );
-        when(shipmentRepository.findAll()).thenReturn(expectedShipments);
+
+        assertEquals("Limit must be between 1 and 1000", exception.getMessage());
+        verify(shipmentRepository, never()).findDTOPage(any(), any());
+    }
+
+    @Test
+    void getDTOPage_ShouldQueryDTOsAfterCursorWithLimit() {
+        // Arrange
+        List<ShipmentDTO> expectedShipments = Arrays.asList(new ShipmentDTO(11L), new ShipmentDTO(12L));
+        when(shipmentRepository.findDTOPage(10L, PageRequest.of(0, 2))).thenReturn(expectedShipments);
 
         // Act
-        List<Shipment> result = shipmentService.getAll();
+        List<ShipmentDTO> result = shipmentService.getDTOPage(10L, 2);
 
         // Assert
         assertEquals(expectedShipments, result);
-        verify(shipmentRepository, times(1)).findAll();
+        verify(shipmentRepository, times(1)).findDTOPage(10L, PageRequest.of(0, 2));
+    }
+
+    @Test
+    void getDTOPage_WithNegativeCursor_ShouldThrowBadRequestException() {
+        // Act & Assert
+        BadRequestException exception = assertThrows(
+                BadRequestException.class,
+                () -> shipmentService.getDTOPage(-1L, 10)
+        );
+
+        assertEquals("Cursor must not be negative", exception.getMessage());
+        verify(shipmentRepository, never()).findDTOPage(any(), any());
     }
 
     @Test
@@ -95,28 +142,31 @@ class ShipmentServiceTest {
         // Assert
         assertEquals(testShipment, result);
         verify(shipmentRepository, times(1)).save(newShipment);
+        verify(shipmentVersions, times(1)).listChanged();
     }
 
     @Test
     void delete_WhenShipmentExists_ShouldDeleteSuccessfully() {
         // Arrange
         Long shipmentId = 1L;
-        when(shipmentRepository.existsById(shipmentId)).thenReturn(true);
-        doNothing().when(shipmentRepository).deleteById(shipmentId);
+        when(shipmentRepository.deleteShipmentById(shipmentId)).thenReturn(1);
 
         // Act
         shipmentService.delete(shipmentId);
 
         // Assert
-        verify(shipmentRepository, times(1)).existsById(shipmentId);
-        verify(shipmentRepository, times(1)).deleteById(shipmentId);
+        verify(shipmentRepository, times(1)).deleteShipmentById(shipmentId);
+        verify(shipmentRepository, never()).existsById(any());
+        verify(shipmentVersions, times(1)).listChanged();
+        verify(eventPublisher, times(1)).publishEvent(
+                argThat((ShipmentsDeletedEvent event) -> event.getShipmentIds().equals(List.of(1L))));
     }
 
     @Test
     void delete_WhenShipmentDoesNotExist_ShouldThrowResourceNotFoundException() {
         // Arrange
         Long shipmentId = 999L;
-        when(shipmentRepository.existsById(shipmentId)).thenReturn(false);
+        when(shipmentRepository.deleteShipmentById(shipmentId)).thenReturn(0);
 
         // Act & Assert
         ResourceNotFoundException exception = assertThrows(
@@ -125,7 +175,55 @@ class ShipmentServiceTest {
         );
         
         assertEquals("Shipment not found with id : '999'", exception.getMessage());
-        verify(shipmentRepository, times(1)).existsById(shipmentId);
-        verify(shipmentRepository, never()).deleteById(any());
+        verify(shipmentRepository, times(1)).deleteShipmentById(shipmentId);
+        verify(shipmentVersions, never()).listChanged();
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void deleteAll_ShouldDeleteWithOneStatementAndReturnCount() {
+        // Arrange
+        List<Long> ids = List.of(1L, 2L, 999L);
+        when(shipmentRepository.deleteShipmentsByIdIn(ids)).thenReturn(2);
+
+        // Act
+        int deleted = shipmentService.deleteAll(ids);
+
+        // Assert
+        assertEquals(2, deleted);
+        verify(shipmentRepository, times(1)).deleteShipmentsByIdIn(ids);
+        verify(shipmentRepository, never()).deleteShipmentById(any());
+        verify(shipmentVersions, times(1)).listChanged();
+        verify(eventPublisher, times(1)).publishEvent(
+                argThat((ShipmentsDeletedEvent event) -> event.getShipmentIds().equals(ids)));
+    }
+
+    @Test
+    void deleteAll_WhenNoIds_ShouldThrowBadRequestException() {
+        // Act & Assert
+        BadRequestException exception = assertThrows(
+                BadRequestException.class,
+                () -> shipmentService.deleteAll(List.of())
+        );
+
+        assertEquals("At least one shipment id is required", exception.getMessage());
+        verifyNoInteractions(shipmentRepository);
+    }
+
+    @Test
+    void deleteAll_WhenTooManyIds_ShouldThrowBadRequestException() {
+        // Arrange
+        List<Long> ids = LongStream.rangeClosed(1, ShipmentService.MAX_BULK_DELETE_SIZE + 1)
+                .boxed()
+                .toList();
+
+        // Act & Assert
+        BadRequestException exception = assertThrows(
+                BadRequestException.class,
+                () -> shipmentService.deleteAll(ids)
+        );
+
+        assertEquals("At most 1000 shipments can be deleted at once", exception.getMessage());
+        verifyNoInteractions(shipmentRepository);
     }
 }
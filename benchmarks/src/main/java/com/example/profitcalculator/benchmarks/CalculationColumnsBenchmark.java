@@ -0,0 +1,161 @@
+package com.example.profitcalculator.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.example.profitcalculator.dto.CalculationAnalyticsDTO;
+import com.example.profitcalculator.entity.Calculation;
+import com.example.profitcalculator.entity.Shipment;
+import com.example.profitcalculator.service.CalculationColumns;
+import com.example.profitcalculator.service.CalculationEvent;
+
+/**
+ * Aggregates over {@code calculations} rows held in {@link CalculationColumns} against the same rows
+ * as a list of {@link Calculation} entities, the shape a query through Hibernate returns. Only the
+ * chosen store is built, and the heap it takes is printed once per fork. The 20-bucket profit
+ * distribution runs in parallel in both stores, on the columns through the fork-join pool and on
+ * the entities as parallel streams.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms3g", "-Xmx3g"})
+public class CalculationColumnsBenchmark {
+
+    static final int CALCULATIONS_PER_SHIPMENT = 1_000;
+
+    @Param({"columns", "entities"})
+    private String store;
+
+    @Param({"10000000"})
+    private int calculations;
+
+    private CalculationColumns columns;
+    private List<Calculation> entities;
+
+    @Setup
+    public void setUp() {
+        long heapBefore = heapInUse();
+        if (store.equals("columns")) {
+            // The startup load is not run, so the data source is never connected to
+            columns = new CalculationColumns(new DriverManagerDataSource("jdbc:h2:mem:unused"));
+            List<Calculation> shipmentRows = new ArrayList<>(CALCULATIONS_PER_SHIPMENT);
+            for (long id = 1; id <= calculations; id++) {
+                shipmentRows.add(calculation(id, null));
+                if (shipmentRows.size() == CALCULATIONS_PER_SHIPMENT) {
+                    columns.onCalculationEvent(CalculationEvent.created(id / CALCULATIONS_PER_SHIPMENT, shipmentRows));
+                    shipmentRows = new ArrayList<>(CALCULATIONS_PER_SHIPMENT);
+                }
+            }
+        } else {
+            entities = new ArrayList<>(calculations);
+            Shipment shipment = null;
+            for (long id = 1; id <= calculations; id++) {
+                if (id % CALCULATIONS_PER_SHIPMENT == 1) {
+                    shipment = Shipment.builder().id(id / CALCULATIONS_PER_SHIPMENT + 1).build();
+                }
+                entities.add(calculation(id, shipment));
+            }
+        }
+        System.out.printf("%n%s: %,d MB of heap for %,d calculations%n", store,
+                (heapInUse() - heapBefore) / (1024 * 1024), calculations);
+    }
+
+    // Every tenth calculation is a loss
+    private static Calculation calculation(long id, Shipment shipment) {
+        long incomeCents = id % 10 == 0 ? 5_000 : 10_000 + id % 1_000;
+        long costCents = 7_500;
+        return Calculation.builder()
+                .id(id)
+                .shipment(shipment)
+                .incomeCents(incomeCents)
+                .costCents(costCents)
+                .profitOrLossCents(incomeCents - costCents)
+                .build();
+    }
+
+    private static long heapInUse() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    @Benchmark
+    public CalculationAnalyticsDTO totals() {
+        if (columns != null) {
+            return columns.totals();
+        }
+        long income = 0;
+        long cost = 0;
+        for (Calculation calculation : entities) {
+            income += calculation.getIncomeCents();
+            cost += calculation.getCostCents();
+        }
+        return CalculationAnalyticsDTO.builder()
+                .calculationCount(entities.size())
+                .totalIncomeCents(income)
+                .totalCostCents(cost)
+                .totalProfitOrLossCents(income - cost)
+                .build();
+    }
+
+    @Benchmark
+    public CalculationAnalyticsDTO losses() {
+        if (columns != null) {
+            return columns.totalsForProfitBetween(Long.MIN_VALUE, -1);
+        }
+        long count = 0;
+        long income = 0;
+        long cost = 0;
+        for (Calculation calculation : entities) {
+            if (calculation.getProfitOrLossCents() < 0) {
+                count++;
+                income += calculation.getIncomeCents();
+                cost += calculation.getCostCents();
+            }
+        }
+        return CalculationAnalyticsDTO.builder()
+                .calculationCount(count)
+                .totalIncomeCents(income)
+                .totalCostCents(cost)
+                .totalProfitOrLossCents(income - cost)
+                .build();
+    }
+
+    @Benchmark
+    public Object profitDistribution() {
+        if (columns != null) {
+            return columns.profitDistribution(20);
+        }
+        LongSummaryStatistics range = entities.parallelStream()
+                .mapToLong(Calculation::getProfitOrLossCents)
+                .summaryStatistics();
+        long width = (range.getMax() - range.getMin()) / 20 + 1;
+        return entities.parallelStream()
+                .mapToInt(calculation -> (int) ((calculation.getProfitOrLossCents() - range.getMin()) / width))
+                .collect(() -> new long[20], (counts, bucket) -> counts[bucket]++, (left, right) -> {
+                    for (int bucket = 0; bucket < 20; bucket++) {
+                        left[bucket] += right[bucket];
+                    }
+                });
+    }
+}
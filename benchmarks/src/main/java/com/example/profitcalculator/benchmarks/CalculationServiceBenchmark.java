@@ -0,0 +1,63 @@
+package com.example.profitcalculator.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.profitcalculator.ProfitCalculatorApplication;
+import com.example.profitcalculator.entity.Calculation;
+import com.example.profitcalculator.entity.Shipment;
+import com.example.profitcalculator.service.CalculationService;
+import com.example.profitcalculator.service.ShipmentService;
+
+/**
+ * {@link CalculationService#create} end to end against the application's embedded H2 database,
+ * including the transaction, the totals UPDATE and the INSERT.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalculationServiceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private CalculationService calculationService;
+    private Long shipmentId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ProfitCalculatorApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--logging.level.root=WARN", "--spring.h2.console.enabled=false");
+        calculationService = context.getBean(CalculationService.class);
+        shipmentId = context.getBean(ShipmentService.class).create(Shipment.builder().build()).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Calculation create() {
+        return calculationService.create(shipmentId, Calculation.builder()
+                .incomeCents(100_000)
+                .costCents(40_000)
+                .build());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.profitcalculator.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.profitcalculator.dto.CalculationDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Serializing a list of calculations the way the controllers' JSON responses are written.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private ObjectWriter writer;
+    private List<CalculationDTO> calculations;
+
+    @Setup
+    public void setUp() {
+        // Same defaults as the ObjectMapper Spring Boot configures for the message converters
+        writer = Jackson2ObjectMapperBuilder.json().build().writerFor(List.class);
+        calculations = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            long incomeCents = 10_000 + i * 101;
+            long costCents = 5_000 + i % 100 * 100;
+            calculations.add(CalculationDTO.builder()
+                    .id(i)
+                    .shipmentId(1 + i % 10)
+                    .incomeCents(incomeCents)
+                    .costCents(costCents)
+                    .profitOrLossCents(incomeCents - costCents)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(calculations);
+    }
+}
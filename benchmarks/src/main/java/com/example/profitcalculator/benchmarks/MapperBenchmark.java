@@ -0,0 +1,87 @@
+package com.example.profitcalculator.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.profitcalculator.dto.CalculationDTO;
+import com.example.profitcalculator.dto.ShipmentDTO;
+import com.example.profitcalculator.dto.ShipmentSummaryDTO;
+import com.example.profitcalculator.entity.Calculation;
+import com.example.profitcalculator.entity.Shipment;
+import com.example.profitcalculator.mapper.CalculationMapper;
+import com.example.profitcalculator.mapper.ShipmentMapper;
+
+/**
+ * Cost of the entity/DTO mappings done on every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final CalculationMapper calculationMapper = new CalculationMapper();
+    private final ShipmentMapper shipmentMapper = new ShipmentMapper();
+
+    private Shipment shipment;
+    private Calculation calculation;
+    private CalculationDTO calculationDTO;
+    private ShipmentDTO shipmentDTO;
+
+    @Setup
+    public void setUp() {
+        shipment = Shipment.builder()
+                .id(1L)
+                .calculationCount(3L)
+                .totalIncomeCents(270_000)
+                .totalCostCents(180_000)
+                .totalProfitOrLossCents(90_000)
+                .build();
+        calculation = Calculation.builder()
+                .id(1L)
+                .shipment(shipment)
+                .incomeCents(100_000)
+                .costCents(50_000)
+                .profitOrLossCents(50_000)
+                .build();
+        calculationDTO = calculationMapper.toDTO(calculation);
+        shipmentDTO = shipmentMapper.toDTO(shipment);
+    }
+
+    @Benchmark
+    public CalculationDTO calculationToDTO() {
+        return calculationMapper.toDTO(calculation);
+    }
+
+    @Benchmark
+    public Calculation calculationToEntity() {
+        return calculationMapper.toEntity(calculationDTO, shipment);
+    }
+
+    @Benchmark
+    public ShipmentDTO shipmentToDTO() {
+        return shipmentMapper.toDTO(shipment);
+    }
+
+    @Benchmark
+    public ShipmentSummaryDTO shipmentToSummaryDTO() {
+        return shipmentMapper.toSummaryDTO(shipment);
+    }
+
+    @Benchmark
+    public Shipment shipmentToEntity() {
+        return shipmentMapper.toEntity(shipmentDTO);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.profitcalculator.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.example.profitcalculator.dto.CalculationDTO;
+import com.example.profitcalculator.entity.Calculation;
+import com.example.profitcalculator.entity.Shipment;
+import com.example.profitcalculator.mapper.CalculationMapper;
+
+/**
+ * Amounts as {@code long} cents against the boxed {@code Double} amounts calculations used
+ * before, on the per-row work of a create: mapping the request to an entity, computing the
+ * profit, and summing a batch into the shipment totals. The boxed variants reproduce the old
+ * mapper and {@code CalculationService} code. Run with {@code -prof gc} to see the allocation
+ * per operation next to the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    @Param({"1000"})
+    private int rows;
+
+    private final CalculationMapper calculationMapper = new CalculationMapper();
+    private final Shipment shipment = Shipment.builder().id(1L).build();
+
+    private List<CalculationDTO> requests;
+    private List<Calculation> calculations;
+    private List<BoxedCalculation> boxedRequests;
+    private List<BoxedCalculation> boxedCalculations;
+
+    @Setup
+    public void setUp() {
+        requests = new ArrayList<>(rows);
+        boxedRequests = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            long incomeCents = 10_000 + i * 101L;
+            long costCents = 5_000 + i % 100 * 37L;
+            requests.add(CalculationDTO.builder().incomeCents(incomeCents).costCents(costCents).build());
+            boxedRequests.add(new BoxedCalculation(null, null, incomeCents / 100.0, costCents / 100.0, null));
+        }
+        calculations = mapCents();
+        boxedCalculations = mapBoxed();
+    }
+
+    @Benchmark
+    public List<Calculation> mapCents() {
+        List<Calculation> mapped = new ArrayList<>(rows);
+        for (CalculationDTO request : requests) {
+            Calculation calculation = calculationMapper.toEntity(request, shipment);
+            calculation.setProfitOrLossCents(calculation.getIncomeCents() - calculation.getCostCents());
+            mapped.add(calculation);
+        }
+        return mapped;
+    }
+
+    @Benchmark
+    public List<BoxedCalculation> mapBoxed() {
+        List<BoxedCalculation> mapped = new ArrayList<>(rows);
+        for (BoxedCalculation request : boxedRequests) {
+            BoxedCalculation calculation = new BoxedCalculation(
+                    request.id, shipment, request.income, request.cost, request.profitOrLoss);
+            double income = calculation.income == null ? 0 : calculation.income;
+            double cost = calculation.cost == null ? 0 : calculation.cost;
+            calculation.income = income;
+            calculation.cost = cost;
+            calculation.profitOrLoss = income - cost;
+            mapped.add(calculation);
+        }
+        return mapped;
+    }
+
+    @Benchmark
+    public void aggregateCents(Blackhole blackhole) {
+        long incomeCents = 0;
+        long costCents = 0;
+        for (Calculation calculation : calculations) {
+            incomeCents += calculation.getIncomeCents();
+            costCents += calculation.getCostCents();
+        }
+        blackhole.consume(incomeCents);
+        blackhole.consume(costCents);
+        blackhole.consume(incomeCents - costCents);
+    }
+
+    @Benchmark
+    public void aggregateBoxed(Blackhole blackhole) {
+        double income = 0;
+        double cost = 0;
+        for (BoxedCalculation calculation : boxedCalculations) {
+            income += calculation.income;
+            cost += calculation.cost;
+        }
+        blackhole.consume(income);
+        blackhole.consume(cost);
+        blackhole.consume(income - cost);
+    }
+
+    /**
+     * The calculation entity as it was with boxed amounts.
+     */
+    public static class BoxedCalculation {
+        Long id;
+        Shipment shipment;
+        Double income;
+        Double cost;
+        Double profitOrLoss;
+
+        BoxedCalculation(Long id, Shipment shipment, Double income, Double cost, Double profitOrLoss) {
+            this.id = id;
+            this.shipment = shipment;
+            this.income = income;
+            this.cost = cost;
+            this.profitOrLoss = profitOrLoss;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.profitcalculator.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.jpa.HibernateHints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.profitcalculator.ProfitCalculatorApplication;
+import com.example.profitcalculator.dto.CalculationDTO;
+import com.example.profitcalculator.entity.Calculation;
+import com.example.profitcalculator.entity.Shipment;
+import com.example.profitcalculator.mapper.CalculationMapper;
+import com.example.profitcalculator.repository.CalculationRepository;
+import com.example.profitcalculator.service.CalculationService;
+import com.example.profitcalculator.service.ShipmentService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * The calculation reads behind {@code GET /shipments/{id}/calculations}, from the service call to
+ * the DTOs the controller serializes: a page of {@value #PAGE_ROWS} rows and the unpaged list of
+ * a shipment with {@value #SHIPMENT_ROWS}. {@code entity} loads managed {@code Calculation}s and
+ * maps them with {@link CalculationMapper}, as the endpoints did before; the service no longer
+ * has those reads, so the benchmark runs their query itself. {@code projection} has the
+ * repository build {@link CalculationDTO}s with a constructor expression. Scores are per row;
+ * run with {@code -prof gc} for the allocation per row.
+ *
+ * <p>With {@code queryCache=false} every read runs its SQL. With {@code true} a read is served
+ * from the query cache, as repeated reads of an unchanged shipment are.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class ProjectionBenchmark {
+
+    static final int PAGE_ROWS = 1_000;
+    static final int SHIPMENT_ROWS = 10_000;
+
+    @Param({"entity", "projection"})
+    private String path;
+
+    @Param({"false", "true"})
+    private boolean queryCache;
+
+    private ConfigurableApplicationContext context;
+    private CalculationService calculationService;
+    private CalculationMapper calculationMapper;
+    private ShipmentService shipmentService;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private Long shipmentId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ProfitCalculatorApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--logging.level.root=WARN", "--spring.h2.console.enabled=false",
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=" + queryCache);
+        calculationService = context.getBean(CalculationService.class);
+        calculationMapper = context.getBean(CalculationMapper.class);
+        shipmentService = context.getBean(ShipmentService.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        shipmentId = shipmentService.create(Shipment.builder().build()).getId();
+        context.getBean(JdbcTemplate.class).update(
+                "INSERT INTO calculation (shipment_id, income_cents, cost_cents, profit_or_loss_cents) "
+                        + "SELECT ?, 10000 + X, 4000, 6000 + X FROM SYSTEM_RANGE(1, ?)",
+                shipmentId, SHIPMENT_ROWS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_ROWS)
+    public List<CalculationDTO> page() {
+        if (path.equals("projection")) {
+            return calculationService.getDTOPageByShipmentId(shipmentId, 0L, PAGE_ROWS);
+        }
+        return readEntities(PAGE_ROWS).stream()
+                .map(calculationMapper::toDTO)
+                .toList();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SHIPMENT_ROWS)
+    public List<CalculationDTO> unpaged() {
+        if (path.equals("projection")) {
+            return calculationService.getDTOsByShipmentId(shipmentId);
+        }
+        return readEntities(SHIPMENT_ROWS).stream()
+                .map(calculationMapper::toDTO)
+                .toList();
+    }
+
+    // The service's former entity read: the shipment check, then a cached query in a read-only
+    // transaction, as Spring Data ran it
+    private List<Calculation> readEntities(int maxRows) {
+        shipmentService.getById(shipmentId);
+        return readOnly.execute(status -> entityManager.createQuery(
+                        "SELECT c FROM Calculation c WHERE c.shipment.id = :shipmentId AND c.id > 0 ORDER BY c.id",
+                        Calculation.class)
+                .setParameter("shipmentId", shipmentId)
+                .setMaxResults(maxRows)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setHint(HibernateHints.HINT_CACHE_REGION, CalculationRepository.BY_SHIPMENT_CACHE_REGION)
+                .getResultList());
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.profitcalculator.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.profitcalculator.dto.CalculationDTO;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Server-side cost of writing a 100k-calculation list in each format the controllers negotiate.
+ * {@code json-gzip} adds the compression Tomcat applies when the client sends Accept-Encoding:
+ * gzip. The payload size of each format is printed once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseFormatBenchmark {
+
+    @Param({"json", "json-gzip", "cbor", "smile"})
+    private String format;
+
+    private ObjectWriter writer;
+    private boolean gzip;
+    private List<CalculationDTO> calculations;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Built like the message converters in BinaryFormatsConfig
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (format.equals("cbor")) {
+            builder.factory(new CBORFactory());
+        } else if (format.equals("smile")) {
+            builder.factory(new SmileFactory());
+        }
+        writer = builder.build().writerFor(List.class);
+        gzip = format.equals("json-gzip");
+
+        calculations = new ArrayList<>(100_000);
+        for (long i = 1; i <= 100_000; i++) {
+            long incomeCents = 10_000 + i * 101;
+            long costCents = 5_000 + i % 100 * 100;
+            calculations.add(CalculationDTO.builder()
+                    .id(i)
+                    .shipmentId(1L)
+                    .incomeCents(incomeCents)
+                    .costCents(costCents)
+                    .profitOrLossCents(incomeCents - costCents)
+                    .build());
+        }
+        System.out.printf("%n%s payload: %,d bytes%n", format, serialize().length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        if (!gzip) {
+            return writer.writeValueAsBytes(calculations);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            writer.writeValue(out, calculations);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.profitcalculator.benchmarks;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to the first successful request: launches the application in a new JVM and polls
+ * {@value #FIRST_REQUEST_PATH} until it answers 200. {@code executable-jar} is the executable jar
+ * of the default build. The others run {@code target/startup} of the {@code fast-startup} build:
+ * {@code aot} with the AOT-generated bean definitions, {@code aot-cds} with the class-data
+ * sharing archive as well, {@code aot-cds-lazy} with lazy initialization on top and
+ * {@code aot-cds-lazy-c1} additionally limited to the C1 JIT compiler.
+ *
+ * <p>The back end's target directory is taken from {@code -Dstartup.target}, by default the one
+ * next to this module.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+
+    static final String FIRST_REQUEST_PATH = "/api/profit/shipments/1";
+    static final String JAR = "profit-calculator-0.0.1-SNAPSHOT";
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    @Param({"executable-jar", "aot", "aot-cds", "aot-cds-lazy", "aot-cds-lazy-c1"})
+    private String launch;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private Process application;
+
+    @Benchmark
+    public int timeToFirstRequest() throws Exception {
+        int port = freePort();
+        application = new ProcessBuilder(command(launch, port))
+                .directory(directory(launch).toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + FIRST_REQUEST_PATH))
+                .GET().build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!application.isAlive()) {
+                throw new IllegalStateException("The application exited with " + application.exitValue()
+                        + " before answering; run it by hand with " + command(launch, port));
+            }
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return response.statusCode();
+                }
+            } catch (ConnectException notListeningYet) {
+                // Tomcat has not opened the port yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("The application did not answer within " + STARTUP_TIMEOUT);
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopApplication() throws InterruptedException {
+        if (application != null) {
+            application.destroy();
+            application.waitFor();
+        }
+    }
+
+    static List<String> command(String launch, int port) {
+        List<String> command = new ArrayList<>(List.of("java"));
+        switch (launch) {
+            case "executable-jar" -> command.addAll(List.of("-jar", JAR + "-exec.jar"));
+            case "aot" -> command.add("-Dspring.aot.enabled=true");
+            case "aot-cds" -> command.addAll(List.of("-XX:SharedArchiveFile=application.jsa",
+                    "-Dspring.aot.enabled=true"));
+            case "aot-cds-lazy" -> command.addAll(List.of("-XX:SharedArchiveFile=application.jsa",
+                    "-Dspring.aot.enabled=true", "-Dspring.main.lazy-initialization=true"));
+            case "aot-cds-lazy-c1" -> command.addAll(List.of("-XX:TieredStopAtLevel=1",
+                    "-XX:SharedArchiveFile=application.jsa", "-Dspring.aot.enabled=true",
+                    "-Dspring.main.lazy-initialization=true"));
+            default -> throw new IllegalArgumentException("Unknown launch " + launch);
+        }
+        if (!launch.equals("executable-jar")) {
+            command.addAll(List.of("-jar", JAR + "-startup.jar"));
+        }
+        command.add("--server.port=" + port);
+        return command;
+    }
+
+    static Path directory(String launch) throws IOException {
+        Path target = Path.of(System.getProperty("startup.target", "../back-end/target"));
+        Path directory = launch.equals("executable-jar") ? target : target.resolve("startup");
+        if (!Files.isDirectory(directory)) {
+            throw new IOException(directory.toAbsolutePath() + " does not exist; build the back end with "
+                    + "mvn -f back-end/pom.xml install -DskipTests -Pfast-startup first");
+        }
+        return directory;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
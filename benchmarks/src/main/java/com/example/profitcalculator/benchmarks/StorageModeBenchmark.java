@@ -0,0 +1,142 @@
+package com.example.profitcalculator.benchmarks;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.profitcalculator.ProfitCalculatorApplication;
+import com.example.profitcalculator.dto.CalculationDTO;
+import com.example.profitcalculator.entity.Calculation;
+import com.example.profitcalculator.service.CalculationService;
+
+/**
+ * Read and write latency of the in-memory database against the {@code file} profile, with
+ * {@code calculations} rows spread over shipments of {@value #CALCULATIONS_PER_SHIPMENT}. Reads
+ * are the first 100-row keyset page of a random shipment, writes single creates into one. The
+ * second-level cache is off, so every read reaches the database. The heap in use once the data
+ * is loaded, and the size of the database file, are printed once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms3g", "-Xmx3g"})
+public class StorageModeBenchmark {
+
+    static final int CALCULATIONS_PER_SHIPMENT = 1_000;
+    static final int INSERT_CHUNK = 1_000_000;
+
+    @Param({"mem", "file"})
+    private String storage;
+
+    @Param({"10000000"})
+    private int calculations;
+
+    private ConfigurableApplicationContext context;
+    private CalculationService calculationService;
+    private Path storageDir;
+    private long firstShipmentId;
+    private int shipments;
+
+    @Setup
+    public void setUp() throws IOException {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ProfitCalculatorApplication.class)
+                .web(WebApplicationType.NONE);
+        String[] args = {"--logging.level.root=WARN", "--spring.h2.console.enabled=false",
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=false", ""};
+        if (storage.equals("file")) {
+            storageDir = Files.createTempDirectory("profit-storage-benchmark");
+            builder.profiles("file");
+            args[args.length - 1] = "--profit.storage.dir=" + storageDir.toAbsolutePath();
+        }
+        context = builder.run(args);
+        calculationService = context.getBean(CalculationService.class);
+
+        long started = System.nanoTime();
+        seed(context.getBean(JdbcTemplate.class));
+        System.out.printf("%n%s: loaded %,d calculations in %,d s%n", storage, calculations,
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started));
+        printHeapInUse();
+        if (storageDir != null) {
+            System.out.printf("%s: database file %,d MB%n", storage,
+                    Files.size(storageDir.resolve("profitdb.mv.db")) / (1024 * 1024));
+        }
+    }
+
+    // Whole shipments with their totals, inserted set-based in chunks so no transaction gets huge
+    private void seed(JdbcTemplate jdbcTemplate) {
+        shipments = calculations / CALCULATIONS_PER_SHIPMENT;
+        firstShipmentId = jdbcTemplate.queryForObject("SELECT MAX(id) + 1 FROM shipment", Long.class);
+        jdbcTemplate.update("INSERT INTO shipment (calculation_count, total_income_cents, total_cost_cents, "
+                        + "total_profit_or_loss_cents) SELECT ?, ?, ?, ? FROM SYSTEM_RANGE(1, ?)",
+                CALCULATIONS_PER_SHIPMENT, CALCULATIONS_PER_SHIPMENT * 100_000L, CALCULATIONS_PER_SHIPMENT * 40_000L,
+                CALCULATIONS_PER_SHIPMENT * 60_000L, shipments);
+        int shipmentsPerChunk = INSERT_CHUNK / CALCULATIONS_PER_SHIPMENT;
+        for (long from = firstShipmentId; from < firstShipmentId + shipments; from += shipmentsPerChunk) {
+            jdbcTemplate.update("INSERT INTO calculation (shipment_id, income_cents, cost_cents, profit_or_loss_cents) "
+                            + "SELECT s.x, 100000, 40000, 60000 FROM SYSTEM_RANGE(?, ?) s, SYSTEM_RANGE(1, ?) c",
+                    from, Math.min(from + shipmentsPerChunk, firstShipmentId + shipments) - 1,
+                    CALCULATIONS_PER_SHIPMENT);
+        }
+    }
+
+    private void printHeapInUse() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        long used = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        System.out.printf("%s: heap in use %,d MB%n", storage, used / (1024 * 1024));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        if (storageDir != null) {
+            try (Stream<Path> files = Files.walk(storageDir)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public List<CalculationDTO> readPage() {
+        long shipmentId = firstShipmentId + ThreadLocalRandom.current().nextInt(shipments);
+        return calculationService.getDTOPageByShipmentId(shipmentId, 0L, 100);
+    }
+
+    @Benchmark
+    public Calculation create() {
+        long shipmentId = firstShipmentId + ThreadLocalRandom.current().nextInt(shipments);
+        return calculationService.create(shipmentId, Calculation.builder()
+                .incomeCents(100_000)
+                .costCents(40_000)
+                .build());
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.profitcalculator.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.profitcalculator.ProfitCalculatorApplication;
+import com.example.profitcalculator.dto.CalculationTicketDTO;
+import com.example.profitcalculator.entity.Calculation;
+import com.example.profitcalculator.entity.Shipment;
+import com.example.profitcalculator.service.CalculationService;
+import com.example.profitcalculator.service.CalculationWriteQueue;
+
+/**
+ * A burst of {@code burst} single calculation creates spread over {@value #SHIPMENTS} shipments,
+ * timed until the last one is committed. {@code sync} creates each in its own transaction, as a
+ * plain POST does; {@code async} submits them to {@link CalculationWriteQueue}, which commits them
+ * in batches on its writer thread. For {@code async} the time until the whole burst is accepted is
+ * printed as well; that is how long a client waits in total before its 202s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class WriteBehindBenchmark {
+
+    static final int SHIPMENTS = 1_000;
+
+    @Param({"sync", "async"})
+    private String mode;
+
+    @Param({"50000"})
+    private int burst;
+
+    private ConfigurableApplicationContext context;
+    private CalculationService calculationService;
+    private CalculationWriteQueue writeQueue;
+    private long firstShipmentId;
+
+    @Setup
+    public void setUp() {
+        // The queue holds the whole burst, so none of it is turned away
+        context = new SpringApplicationBuilder(ProfitCalculatorApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--logging.level.root=WARN", "--spring.h2.console.enabled=false",
+                        "--profit.write-behind.queue-capacity=" + burst);
+        calculationService = context.getBean(CalculationService.class);
+        writeQueue = context.getBean(CalculationWriteQueue.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        firstShipmentId = jdbcTemplate.queryForObject("SELECT MAX(id) + 1 FROM shipment", Long.class);
+        jdbcTemplate.update("INSERT INTO shipment (calculation_count, total_income_cents, total_cost_cents, "
+                + "total_profit_or_loss_cents) SELECT 0, 0, 0, 0 FROM SYSTEM_RANGE(1, ?)", SHIPMENTS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    private Calculation calculation(long shipmentId) {
+        return Calculation.builder()
+                .shipment(Shipment.builder().id(shipmentId).build())
+                .incomeCents(100_000)
+                .costCents(40_000)
+                .build();
+    }
+
+    @Benchmark
+    public long burst() throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (mode.equals("sync")) {
+            long last = 0;
+            for (int i = 0; i < burst; i++) {
+                long shipmentId = firstShipmentId + random.nextInt(SHIPMENTS);
+                last = calculationService.create(shipmentId, calculation(shipmentId)).getId();
+            }
+            return last;
+        }
+
+        long started = System.nanoTime();
+        long shipmentId = 0;
+        long ticket = 0;
+        for (int i = 0; i < burst; i++) {
+            shipmentId = firstShipmentId + random.nextInt(SHIPMENTS);
+            ticket = writeQueue.submit(shipmentId, calculation(shipmentId));
+        }
+        long accepted = System.nanoTime() - started;
+        CalculationTicketDTO status = writeQueue.status(shipmentId, ticket);
+        while (status.getStatus() == CalculationTicketDTO.Status.PENDING) {
+            Thread.sleep(1);
+            status = writeQueue.status(shipmentId, ticket);
+        }
+        System.out.printf("%naccepted %,d in %,d ms%n", burst, TimeUnit.NANOSECONDS.toMillis(accepted));
+        return status.getCalculationId();
+    }
+}
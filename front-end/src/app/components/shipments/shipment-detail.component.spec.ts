@@ -2,7 +2,7 @@ import { ComponentFixture, TestBed } from '@angular/core/testing';
 import { ActivatedRoute } from '@angular/router';
 import { NoopAnimationsModule } from '@angular/platform-browser/animations';
 import { FormsModule } from '@angular/forms';
-import { of, throwError } from 'rxjs';
+import { NEVER, of, Subject, throwError } from 'rxjs';
 
 import { MatTableModule } from '@angular/material/table';
 import { MatPaginatorModule } from '@angular/material/paginator';
@@ -20,6 +20,7 @@ import { ValidationService } from '../../services/validation.service';
 import { NotificationService } from '../../services/notification.service';
 import { AppService } from '../../app.service';
 import { Calculation } from '../../models/calculation.model';
+import { CalculationEvent } from '../../models/calculation-event.model';
 
 describe('ShipmentDetailComponent', () => {
   let component: ShipmentDetailComponent;
@@ -35,7 +36,8 @@ describe('ShipmentDetailComponent', () => {
   ];
 
   beforeEach(async () => {
-    const calculationSpy = jasmine.createSpyObj('CalculationService', ['getAll', 'create', 'delete']);
+    const calculationSpy = jasmine.createSpyObj('CalculationService', ['getAll', 'create', 'delete', 'events']);
+    calculationSpy.events.and.returnValue(NEVER);
     const validationSpy = jasmine.createSpyObj('ValidationService', ['validateCalculation', 'validateShipmentId', 'validateCalculationId']);
     const notificationSpy = jasmine.createSpyObj('NotificationService', ['showSuccess', 'showError', 'showWarning']);
     const appSpy = jasmine.createSpyObj('AppService', ['goTo']);
@@ -122,6 +124,98 @@ describe('ShipmentDetailComponent', () => {
     });
   });
 
+  describe('calculation events', () => {
+    let events: Subject<CalculationEvent>;
+
+    beforeEach(() => {
+      events = new Subject<CalculationEvent>();
+      calculationService.events.and.returnValue(events);
+      calculationService.getAll.and.returnValue(of([mockCalculations[0]]));
+      validationService.validateShipmentId.and.returnValue({ isValid: true, errors: [] });
+      component.ngOnInit();
+    });
+
+    it('should subscribe to the shipment events before loading the list', () => {
+      expect(calculationService.events).toHaveBeenCalledWith(1);
+      expect(calculationService.events).toHaveBeenCalledBefore(calculationService.getAll);
+    });
+
+    it('should append created calculations without reloading', () => {
+      events.next({ type: 'created', calculations: [mockCalculations[1]] });
+
+      expect(component.dataSource.data).toEqual(mockCalculations);
+      expect(calculationService.getAll).toHaveBeenCalledTimes(1);
+    });
+
+    it('should skip created calculations that are already listed', () => {
+      events.next({ type: 'created', calculations: [mockCalculations[0]] });
+
+      expect(component.dataSource.data).toEqual([mockCalculations[0]]);
+    });
+
+    it('should remove deleted calculations without reloading', () => {
+      events.next({ type: 'deleted', calculationIds: [1] });
+
+      expect(component.dataSource.data).toEqual([]);
+      expect(calculationService.getAll).toHaveBeenCalledTimes(1);
+    });
+
+    it('should reload after the stream reconnects', () => {
+      events.next({ type: 'reconnected' });
+
+      expect(calculationService.getAll).toHaveBeenCalledTimes(2);
+    });
+
+    it('should leave the page once the shipment is deleted', () => {
+      events.next({ type: 'shipmentDeleted' });
+
+      expect(notificationService.showWarning).toHaveBeenCalledWith('This shipment was deleted');
+      expect(appService.goTo).toHaveBeenCalledWith(['shipments']);
+    });
+
+    it('should apply changes that arrive during a reload on top of the reloaded list', () => {
+      const reload = new Subject<Calculation[]>();
+      calculationService.getAll.and.returnValue(reload);
+      events.next({ type: 'reconnected' });
+
+      events.next({ type: 'created', calculations: [mockCalculations[1]] });
+      events.next({ type: 'deleted', calculationIds: [1] });
+      expect(component.dataSource.data).toEqual([mockCalculations[0]]);
+
+      reload.next([mockCalculations[0]]);
+
+      expect(component.dataSource.data).toEqual([mockCalculations[1]]);
+    });
+
+    it('should skip held back calculations that the reloaded list already has', () => {
+      const reload = new Subject<Calculation[]>();
+      calculationService.getAll.and.returnValue(reload);
+      events.next({ type: 'reconnected' });
+
+      events.next({ type: 'created', calculations: [mockCalculations[1]] });
+      reload.next(mockCalculations);
+
+      expect(component.dataSource.data).toEqual(mockCalculations);
+    });
+
+    it('should keep held back changes when the reload fails', () => {
+      const reload = new Subject<Calculation[]>();
+      calculationService.getAll.and.returnValue(reload);
+      events.next({ type: 'reconnected' });
+
+      events.next({ type: 'created', calculations: [mockCalculations[1]] });
+      reload.error(new Error('Network error'));
+
+      expect(component.dataSource.data).toEqual(mockCalculations);
+    });
+
+    it('should stop listening on destroy', () => {
+      component.ngOnDestroy();
+
+      expect(events.observed).toBe(false);
+    });
+  });
+
   describe('form validation', () => {
     beforeEach(() => {
       validationService.validateCalculation.and.returnValue({ isValid: true, errors: [] });
@@ -191,7 +285,8 @@ describe('ShipmentDetailComponent', () => {
       component.addCalculation();
 
       expect(calculationService.create).toHaveBeenCalledWith(1, { income: 1000, cost: 500 });
-      expect(calculationService.getAll).toHaveBeenCalled();
+      expect(calculationService.getAll).not.toHaveBeenCalled();
+      expect(component.dataSource.data).toEqual([mockCalculations[0]]);
       expect(notificationService.showSuccess).toHaveBeenCalledWith('Calculation added successfully');
       expect(component.income).toBe(0);
       expect(component.cost).toBe(0);
@@ -233,10 +328,13 @@ describe('ShipmentDetailComponent', () => {
     });
 
     it('should delete calculation successfully', () => {
+      component.dataSource.data = mockCalculations;
+
       component.deleteCalculation(1);
 
       expect(calculationService.delete).toHaveBeenCalledWith(1, 1);
-      expect(calculationService.getAll).toHaveBeenCalled();
+      expect(calculationService.getAll).not.toHaveBeenCalled();
+      expect(component.dataSource.data).toEqual([mockCalculations[1]]);
       expect(notificationService.showSuccess).toHaveBeenCalledWith('Calculation deleted successfully');
     });
 
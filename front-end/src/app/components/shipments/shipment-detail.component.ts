@@ -2,7 +2,7 @@ import { Component, ViewChild, OnInit, OnDestroy } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { ActivatedRoute } from '@angular/router';
 import { FormsModule } from '@angular/forms';
-import { Subject, takeUntil } from 'rxjs';
+import { Subject, Subscription, takeUntil } from 'rxjs';
 
 import { MatPaginator, MatPaginatorModule } from '@angular/material/paginator';
 import { MatTableDataSource, MatTableModule } from '@angular/material/table';
@@ -22,6 +22,7 @@ import { ValidationService } from '../../services/validation.service';
 import { NotificationService } from '../../services/notification.service';
 
 import { Calculation } from '../../models/calculation.model';
+import { CalculationEvent } from '../../models/calculation-event.model';
 
 
 /**
@@ -302,6 +303,9 @@ export class ShipmentDetailComponent implements OnInit, OnDestroy {
   @ViewChild(MatSort) sort!: MatSort;
 
   private destroy$ = new Subject<void>();
+  // Changes that arrive while the list is loading, applied once it lands
+  private pendingEvents: CalculationEvent[] | null = null;
+  private loading?: Subscription;
 
   constructor(
     private route: ActivatedRoute,
@@ -324,6 +328,8 @@ export class ShipmentDetailComponent implements OnInit, OnDestroy {
       return;
     }
 
+    // Listening first, so changes committed while the list loads are not missed
+    this.listenForChanges();
     this.loadCalculations();
     this.setDataFilterPredicate();
   }
@@ -340,10 +346,14 @@ export class ShipmentDetailComponent implements OnInit, OnDestroy {
 
   /**
    * Loads calculations for the current shipment
+   * Changes that arrive meanwhile are held back and applied on top of the
+   * loaded list, so the response cannot overwrite them
    */
   loadCalculations(): void {
     this.isLoading = true;
-    this._calculations
+    this.pendingEvents = [];
+    this.loading?.unsubscribe();
+    this.loading = this._calculations
       .getAll(this.shipmentId)
       .pipe(takeUntil(this.destroy$))
       .subscribe({
@@ -351,9 +361,11 @@ export class ShipmentDetailComponent implements OnInit, OnDestroy {
           this.dataSource.data = data;
           this.dataSource.paginator = this.paginator;
           this.isLoading = false;
+          this.applyPendingEvents();
         },
         error: (error) => {
           this.isLoading = false;
+          this.applyPendingEvents();
           this._notification.showError(
             `Failed to load calculations: ${error.message}`
           );
@@ -361,6 +373,66 @@ export class ShipmentDetailComponent implements OnInit, OnDestroy {
       });
   }
 
+  /**
+   * Keeps the table current with changes made by anyone on this shipment,
+   * instead of reloading the whole list after each one
+   */
+  listenForChanges(): void {
+    this._calculations
+      .events(this.shipmentId)
+      .pipe(takeUntil(this.destroy$))
+      .subscribe((event) => this.applyEvent(event));
+  }
+
+  /**
+   * Applies a calculation change to the loaded list
+   * Changes made here arrive twice, from the response and from the stream,
+   * so created calculations that are already listed are skipped
+   * @param event - The change to apply
+   */
+  applyEvent(event: CalculationEvent): void {
+    if (
+      this.pendingEvents &&
+      (event.type === 'created' || event.type === 'deleted')
+    ) {
+      this.pendingEvents.push(event);
+      return;
+    }
+    switch (event.type) {
+      case 'created': {
+        const listed = new Set(this.dataSource.data.map((calc) => calc.id));
+        const added = event.calculations.filter((calc) => !listed.has(calc.id));
+        if (added.length > 0) {
+          this.dataSource.data = [...this.dataSource.data, ...added];
+        }
+        break;
+      }
+      case 'deleted': {
+        const removed = new Set(event.calculationIds);
+        this.dataSource.data = this.dataSource.data.filter(
+          (calc) => !removed.has(calc.id)
+        );
+        break;
+      }
+      case 'reconnected':
+        this.loadCalculations();
+        break;
+      case 'shipmentDeleted':
+        this._notification.showWarning('This shipment was deleted');
+        this._app.goTo(['shipments']);
+        break;
+    }
+  }
+
+  /**
+   * Applies the changes held back while the list was loading, in arrival order
+   */
+  private applyPendingEvents(): void {
+    const pending = this.pendingEvents ?? [];
+    this.pendingEvents = null;
+    pending.forEach((event) => this.applyEvent(event));
+  }
+
   /**
    * Applies filter to the table data
    * @param event - The input event containing the filter value
@@ -424,11 +496,12 @@ export class ShipmentDetailComponent implements OnInit, OnDestroy {
       .create(this.shipmentId, { income: this.income, cost: this.cost })
       .pipe(takeUntil(this.destroy$))
       .subscribe({
-        next: () => {
+        next: (created) => {
           this.income = 0;
           this.cost = 0;
           this.validationErrors = {};
-          this.loadCalculations();
+          this.isLoading = false;
+          this.applyEvent({ type: 'created', calculations: [created] });
           this._notification.showSuccess('Calculation added successfully');
         },
         error: (error) => {
@@ -459,7 +532,8 @@ export class ShipmentDetailComponent implements OnInit, OnDestroy {
       .pipe(takeUntil(this.destroy$))
       .subscribe({
         next: () => {
-          this.loadCalculations();
+          this.isLoading = false;
+          this.applyEvent({ type: 'deleted', calculationIds: [id] });
           this._notification.showSuccess('Calculation deleted successfully');
         },
         error: (error) => {
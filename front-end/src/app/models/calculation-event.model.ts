@@ -0,0 +1,14 @@
+import { Calculation } from './calculation.model';
+
+/**
+ * A change to a shipment's calculations, pushed by the server once it is committed
+ */
+export type CalculationEvent =
+  /** Calculations added to the shipment */
+  | { type: 'created'; calculations: Calculation[] }
+  /** IDs of calculations removed from the shipment */
+  | { type: 'deleted'; calculationIds: number[] }
+  /** The shipment itself was deleted; the stream ends after this event */
+  | { type: 'shipmentDeleted' }
+  /** The stream dropped and reconnected; changes in between were missed */
+  | { type: 'reconnected' };
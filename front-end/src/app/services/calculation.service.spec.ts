@@ -38,7 +38,7 @@ describe('CalculationService', () => {
         expect(calculations).toEqual(mockCalculations);
       });
 
-      const req = httpMock.expectOne(`/api/profit/shipments/${shipmentId}/calculations`);
+      const req = httpMock.expectOne(`/api/profit/shipments/${shipmentId}/calculations?unpaged=true`);
       expect(req.request.method).toBe('GET');
       req.flush(mockCalculations);
     });
@@ -54,7 +54,7 @@ describe('CalculationService', () => {
         }
       });
 
-      const req = httpMock.expectOne(`/api/profit/shipments/${shipmentId}/calculations`);
+      const req = httpMock.expectOne(`/api/profit/shipments/${shipmentId}/calculations?unpaged=true`);
       req.flush(errorMessage, { status: 500, statusText: 'Internal Server Error' });
     });
 
@@ -66,15 +66,99 @@ describe('CalculationService', () => {
       });
 
       // First request fails
-      const req1 = httpMock.expectOne(`/api/profit/shipments/${shipmentId}/calculations`);
+      const req1 = httpMock.expectOne(`/api/profit/shipments/${shipmentId}/calculations?unpaged=true`);
       req1.flush('Network error', { status: 0, statusText: 'Network Error' });
 
       // Second request succeeds (retry)
-      const req2 = httpMock.expectOne(`/api/profit/shipments/${shipmentId}/calculations`);
+      const req2 = httpMock.expectOne(`/api/profit/shipments/${shipmentId}/calculations?unpaged=true`);
       req2.flush(mockCalculations);
     });
   });
 
+  describe('events', () => {
+    class FakeEventSource {
+      static last: FakeEventSource;
+      onopen: (() => void) | null = null;
+      listeners: { [type: string]: (event: MessageEvent) => void } = {};
+      closed = false;
+
+      constructor(public url: string) {
+        FakeEventSource.last = this;
+      }
+
+      addEventListener(type: string, listener: (event: MessageEvent) => void): void {
+        this.listeners[type] = listener;
+      }
+
+      emit(type: string, data: unknown): void {
+        this.listeners[type](new MessageEvent(type, { data: JSON.stringify(data) }));
+      }
+
+      close(): void {
+        this.closed = true;
+      }
+    }
+
+    let originalEventSource: typeof EventSource;
+
+    beforeEach(() => {
+      originalEventSource = window.EventSource;
+      (window as any).EventSource = FakeEventSource;
+    });
+
+    afterEach(() => {
+      window.EventSource = originalEventSource;
+    });
+
+    it('should open the shipment event stream and parse its events', () => {
+      const received: unknown[] = [];
+
+      service.events(1).subscribe(event => received.push(event));
+      const source = FakeEventSource.last;
+      source.emit('created', [mockCalculations[0]]);
+      source.emit('deleted', [2]);
+
+      expect(source.url).toBe('/api/profit/shipments/1/events');
+      expect(received).toEqual([
+        { type: 'created', calculations: [mockCalculations[0]] },
+        { type: 'deleted', calculationIds: [2] }
+      ]);
+    });
+
+    it('should close the stream and complete once the shipment is deleted', () => {
+      const received: unknown[] = [];
+      let completed = false;
+
+      service.events(1).subscribe({
+        next: event => received.push(event),
+        complete: () => (completed = true)
+      });
+      FakeEventSource.last.emit('shipment-deleted', 1);
+
+      expect(received).toEqual([{ type: 'shipmentDeleted' }]);
+      expect(completed).toBe(true);
+      expect(FakeEventSource.last.closed).toBe(true);
+    });
+
+    it('should report reconnects but not the first open', () => {
+      const received: unknown[] = [];
+
+      service.events(1).subscribe(event => received.push(event));
+      FakeEventSource.last.onopen!();
+      FakeEventSource.last.onopen!();
+
+      expect(received).toEqual([{ type: 'reconnected' }]);
+    });
+
+    it('should close the stream on unsubscribe', () => {
+      const subscription = service.events(1).subscribe();
+
+      subscription.unsubscribe();
+
+      expect(FakeEventSource.last.closed).toBe(true);
+    });
+  });
+
   describe('create', () => {
     it('should create a new calculation', () => {
       const shipmentId = 1;
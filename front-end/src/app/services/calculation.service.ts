@@ -4,6 +4,7 @@ import { Observable, throwError } from 'rxjs';
 import { catchError, retry } from 'rxjs/operators';
 
 import { Calculation } from '../models/calculation.model';
+import { CalculationEvent } from '../models/calculation-event.model';
 
 /**
  * Service responsible for managing calculation operations
@@ -28,19 +29,65 @@ export class CalculationService {
 
   /**
    * Retrieves all calculations for a specific shipment
+   * The API pages by default, so the full list is requested explicitly
    * @param shipmentId - The ID of the shipment
    * @returns Observable of calculation array
    * @throws HttpErrorResponse if the request fails
    */
   getAll(shipmentId: number): Observable<Calculation[]> {
     return this.http
-      .get<Calculation[]>(`${this.baseUrl}/${shipmentId}/calculations`)
+      .get<Calculation[]>(`${this.baseUrl}/${shipmentId}/calculations`, {
+        params: { unpaged: true },
+      })
       .pipe(
         retry(1), // Retry once on failure
         catchError(this.handleError)
       );
   }
 
+  /**
+   * Streams the shipment's calculation changes as the server commits them,
+   * so a loaded list can be kept current without fetching it again.
+   * The browser reconnects a dropped stream by itself; a 'reconnected' event
+   * tells the subscriber to reload, as changes in between were missed.
+   * Once the shipment is deleted the stream emits 'shipmentDeleted' and completes.
+   * @param shipmentId - The ID of the shipment
+   * @returns Observable of calculation events; unsubscribing closes the stream
+   */
+  events(shipmentId: number): Observable<CalculationEvent> {
+    return new Observable<CalculationEvent>((subscriber) => {
+      const source = new EventSource(`${this.baseUrl}/${shipmentId}/events`);
+      let opened = false;
+
+      source.onopen = () => {
+        if (opened) {
+          subscriber.next({ type: 'reconnected' });
+        }
+        opened = true;
+      };
+      source.addEventListener('created', (event) =>
+        subscriber.next({
+          type: 'created',
+          calculations: JSON.parse((event as MessageEvent).data),
+        })
+      );
+      source.addEventListener('deleted', (event) =>
+        subscriber.next({
+          type: 'deleted',
+          calculationIds: JSON.parse((event as MessageEvent).data),
+        })
+      );
+      source.addEventListener('shipment-deleted', () => {
+        // Closed here, or the browser would reconnect to a shipment that is gone
+        source.close();
+        subscriber.next({ type: 'shipmentDeleted' });
+        subscriber.complete();
+      });
+
+      return () => source.close();
+    });
+  }
+
   /**
    * Creates a new calculation for a shipment
    * @param shipmentId - The ID of the shipment
@@ -37,7 +37,7 @@ describe('ShipmentService', () => {
         expect(shipments).toEqual(mockShipments);
       });
 
-      const req = httpMock.expectOne('/api/profit/shipments');
+      const req = httpMock.expectOne('/api/profit/shipments?unpaged=true');
       expect(req.request.method).toBe('GET');
       req.flush(mockShipments);
     });
@@ -47,7 +47,7 @@ describe('ShipmentService', () => {
         expect(shipments).toEqual([]);
       });
 
-      const req = httpMock.expectOne('/api/profit/shipments');
+      const req = httpMock.expectOne('/api/profit/shipments?unpaged=true');
       req.flush([]);
     });
 
@@ -61,7 +61,7 @@ describe('ShipmentService', () => {
         }
       });
 
-      const req = httpMock.expectOne('/api/profit/shipments');
+      const req = httpMock.expectOne('/api/profit/shipments?unpaged=true');
       req.flush(errorMessage, { status: 500, statusText: 'Internal Server Error' });
     });
 
@@ -71,11 +71,11 @@ describe('ShipmentService', () => {
       });
 
       // First request fails
-      const req1 = httpMock.expectOne('/api/profit/shipments');
+      const req1 = httpMock.expectOne('/api/profit/shipments?unpaged=true');
       req1.flush('Network error', { status: 0, statusText: 'Network Error' });
 
       // Second request succeeds (retry)
-      const req2 = httpMock.expectOne('/api/profit/shipments');
+      const req2 = httpMock.expectOne('/api/profit/shipments?unpaged=true');
       req2.flush(mockShipments);
     });
 
@@ -87,7 +87,7 @@ describe('ShipmentService', () => {
         }
       });
 
-      const req = httpMock.expectOne('/api/profit/shipments');
+      const req = httpMock.expectOne('/api/profit/shipments?unpaged=true');
       req.flush('Not Found', { status: 404, statusText: 'Not Found' });
     });
 
@@ -99,7 +99,7 @@ describe('ShipmentService', () => {
         }
       });
 
-      const req = httpMock.expectOne('/api/profit/shipments');
+      const req = httpMock.expectOne('/api/profit/shipments?unpaged=true');
       req.flush('Forbidden', { status: 403, statusText: 'Forbidden' });
     });
   });
@@ -28,11 +28,12 @@ export class ShipmentService {
 
   /**
    * Retrieves all shipments
+   * The API pages by default, so the full list is requested explicitly
    * @returns Observable of shipment array
    * @throws HttpErrorResponse if the request fails
    */
   getAll(): Observable<Shipment[]> {
-    return this.http.get<Shipment[]>(this.baseUrl).pipe(
+    return this.http.get<Shipment[]>(this.baseUrl, { params: { unpaged: true } }).pipe(
       retry(1), // Retry once on failure
       catchError(this.handleError)
     );
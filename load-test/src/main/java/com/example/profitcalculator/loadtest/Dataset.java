@@ -0,0 +1,58 @@
+package com.example.profitcalculator.loadtest;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * The data the workload runs against. Reads and creates go to the seeded shipments, picked at
+ * random. Deletes take ids from pools, so every delete removes something that exists: the
+ * disposable shipments seeded for them, the shipments the load creates and the calculations it
+ * creates in the seeded shipments, which keeps those at about their seeded size.
+ */
+final class Dataset {
+    static final int CALCULATIONS_PER_DISPOSABLE_SHIPMENT = 10;
+
+    private long firstShipmentId;
+    private int shipments;
+    final Queue<Long> deletableShipments = new ConcurrentLinkedQueue<>();
+    // Pairs of shipment and calculation id
+    final Queue<long[]> deletableCalculations = new ConcurrentLinkedQueue<>();
+    // The most recent write-behind ticket, as the Location the submit answered with
+    final AtomicReference<String> latestTicket = new AtomicReference<>();
+
+    /**
+     * Inserts set-based in SQL, which is much faster than through the API. The calculation
+     * column store and the second-level cache were filled at startup, so they only see the
+     * seeded rows as the workload touches them.
+     */
+    void seed(JdbcTemplate jdbcTemplate, LoadSettings settings, int disposableShipments) {
+        firstShipmentId = insertShipments(jdbcTemplate, settings.shipments, settings.calculationsPerShipment);
+        shipments = settings.shipments;
+        long firstDisposableId = insertShipments(jdbcTemplate, disposableShipments, CALCULATIONS_PER_DISPOSABLE_SHIPMENT);
+        for (long id = firstDisposableId; id < firstDisposableId + disposableShipments; id++) {
+            deletableShipments.add(id);
+        }
+    }
+
+    // Returns the first new id; the ids are generated in one statement, so the others follow it
+    private static long insertShipments(JdbcTemplate jdbcTemplate, int count, int calculationsEach) {
+        long lastExisting = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM shipment", Long.class);
+        jdbcTemplate.update("INSERT INTO shipment (calculation_count, total_income_cents, total_cost_cents, "
+                        + "total_profit_or_loss_cents) SELECT ?, ?, ?, ? FROM SYSTEM_RANGE(1, ?)",
+                calculationsEach, calculationsEach * 10_000L, calculationsEach * 4_000L, calculationsEach * 6_000L,
+                count);
+        jdbcTemplate.update("INSERT INTO calculation (shipment_id, income_cents, cost_cents, profit_or_loss_cents) "
+                        + "SELECT s.id, 10000, 4000, 6000 FROM shipment s, SYSTEM_RANGE(1, ?) c WHERE s.id > ?",
+                calculationsEach, lastExisting);
+        Long first = jdbcTemplate.queryForObject("SELECT MIN(id) FROM shipment WHERE id > ?", Long.class, lastExisting);
+        return first != null ? first : lastExisting + 1;
+    }
+
+    long randomShipment() {
+        return firstShipmentId + ThreadLocalRandom.current().nextInt(shipments);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.profitcalculator.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Writes a summary table per route, then each route's full HdrHistogram percentile distribution,
+ * which can be plotted with HdrHistogram's plotter. Latencies are in milliseconds and count from
+ * when a request was due to start, so time spent waiting behind a stalled server is included.
+ */
+final class LatencyReport {
+    private static final double MICROS_PER_MILLI = 1_000.0;
+
+    private LatencyReport() {
+    }
+
+    static void write(Path file, LoadSettings settings, List<Route> routes, double measuredSeconds) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, "UTF-8")) {
+            write(out, settings, routes, measuredSeconds);
+        }
+    }
+
+    static void write(PrintStream out, LoadSettings settings, List<Route> routes, double measuredSeconds) {
+        Histogram all = new Histogram(Route.MAX_LATENCY_MICROS, 3);
+        long succeeded = 0;
+        for (Route route : routes) {
+            all.add(route.latencies);
+            succeeded += route.succeeded.sum();
+        }
+
+        out.printf("Profit calculator load test, %s%n", Instant.now());
+        out.printf("Target %,d requests/s for %d s after a %d s warm-up; %,d shipments of %,d calculations%n",
+                settings.rate, settings.durationSeconds, settings.warmupSeconds, settings.shipments,
+                settings.calculationsPerShipment);
+        out.printf("Completed %,d requests, %.1f/s, of which %,d succeeded%n%n",
+                all.getTotalCount(), all.getTotalCount() / measuredSeconds, succeeded);
+
+        String format = "%-52s %9s %9s %9s %7s %7s %8s %9s %9s %9s %9s %9s%n";
+        out.printf(format, "Route", "Count", "Req/s", "2xx", "503", "Failed", "Skipped",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Route route : routes) {
+            row(out, format, route.name, route.latencies, route.succeeded.sum(), route.shed.sum(),
+                    route.failed.sum(), route.skipped.sum(), measuredSeconds);
+        }
+        long shed = routes.stream().mapToLong(route -> route.shed.sum()).sum();
+        long failed = routes.stream().mapToLong(route -> route.failed.sum()).sum();
+        long skipped = routes.stream().mapToLong(route -> route.skipped.sum()).sum();
+        row(out, format, "All", all, succeeded, shed, failed, skipped, measuredSeconds);
+
+        for (Route route : routes) {
+            if (route.latencies.getTotalCount() > 0) {
+                out.printf("%n%s%n", route.name);
+                route.latencies.outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    private static void row(PrintStream out, String format, String name, Histogram latencies, long succeeded,
+                            long shed, long failed, long skipped, double measuredSeconds) {
+        out.printf(format, name, String.format("%,d", latencies.getTotalCount()),
+                String.format("%.1f", latencies.getTotalCount() / measuredSeconds),
+                String.format("%,d", succeeded), String.format("%,d", shed), String.format("%,d", failed),
+                String.format("%,d", skipped),
+                millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(90)),
+                millis(latencies.getValueAtPercentile(99)), millis(latencies.getValueAtPercentile(99.9)),
+                millis(latencies.getMaxValue()));
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2f", micros / MICROS_PER_MILLI);
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.profitcalculator.loadtest;
+
+import java.io.InputStream;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.profitcalculator.ProfitCalculatorApplication;
+
+/**
+ * Starts the application on a random port, seeds it and drives {@link Workload} at a fixed rate,
+ * then writes a {@link LatencyReport}.
+ *
+ * <p>The load is an open model: request {@code n} is due {@code n / rate} seconds after the
+ * start and is sent then, whether or not earlier requests have been answered, and its latency
+ * counts from when it was due. A stalled server thus shows up as the queue of late requests it
+ * causes, instead of as a pause in sending that hides it, which is coordinated omission.
+ * Requests are sent asynchronously, so the sending thread never waits on a response.
+ */
+public final class LoadGenerator {
+    // Spare disposable shipments beyond the expected number of shipment deletes
+    static final double DISPOSABLE_MARGIN = 1.5;
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadSettings settings = LoadSettings.parse(args);
+        List<String> applicationArgs = new ArrayList<>(List.of(
+                "--server.port=0", "--logging.level.root=WARN", "--spring.h2.console.enabled=false"));
+        applicationArgs.addAll(settings.applicationArgs);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProfitCalculatorApplication.class)
+                .run(applicationArgs.toArray(String[]::new))) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            Dataset dataset = new Dataset();
+            Workload workload = new Workload("http://localhost:" + port, dataset, settings);
+            int disposableShipments = (int) Math.ceil(
+                    settings.totalRequests() * workload.shipmentDeletesPerRequest() * DISPOSABLE_MARGIN);
+            long seedStarted = System.nanoTime();
+            dataset.seed(context.getBean(JdbcTemplate.class), settings, disposableShipments);
+            System.out.printf("Seeded %,d shipments of %,d calculations and %,d disposable shipments in %,d ms%n",
+                    settings.shipments, settings.calculationsPerShipment, disposableShipments,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStarted));
+
+            double measuredSeconds = run(workload, settings);
+            LatencyReport.write(settings.report, settings, workload.routes, measuredSeconds);
+            LatencyReport.write(System.out, settings, workload.routes, measuredSeconds);
+            System.out.printf("%nReport written to %s%n", settings.report.toAbsolutePath());
+        }
+    }
+
+    /**
+     * @return the length of the measured period in seconds
+     */
+    static double run(Workload workload, LoadSettings settings) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Workload.REQUEST_TIMEOUT)
+                .build();
+        AtomicLong outstanding = new AtomicLong();
+
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(settings.warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(settings.durationSeconds);
+        System.out.printf("Sending %,d requests/s for %d s, the first %d s as warm-up%n",
+                settings.rate, settings.warmupSeconds + settings.durationSeconds, settings.warmupSeconds);
+
+        for (long n = 0; ; n++) {
+            // From n rather than by adding an interval, so rounding does not drift
+            long due = start + n * 1_000_000_000L / settings.rate;
+            if (due >= end) {
+                break;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Route route = workload.pick();
+            boolean measured = due >= measureFrom;
+            HttpRequest request = route.nextRequest();
+            if (request == null) {
+                if (measured) {
+                    route.skipped.increment();
+                }
+                continue;
+            }
+            outstanding.incrementAndGet();
+            if (route.stream) {
+                client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                        .whenComplete((response, error) -> {
+                            if (response != null) {
+                                close(response.body());
+                            }
+                            complete(route, measured, due, response == null ? -1 : response.statusCode(), null);
+                            outstanding.decrementAndGet();
+                        });
+            } else {
+                client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                        .whenComplete((response, error) -> {
+                            complete(route, measured, due, response == null ? -1 : response.statusCode(), response);
+                            outstanding.decrementAndGet();
+                        });
+            }
+        }
+
+        long drainUntil = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+        while (outstanding.get() > 0 && System.nanoTime() < drainUntil) {
+            Thread.sleep(10);
+        }
+        if (outstanding.get() > 0) {
+            System.out.printf("%,d requests were still unanswered after the run%n", outstanding.get());
+        }
+        return settings.durationSeconds;
+    }
+
+    private static void complete(Route route, boolean measured, long due, int status, HttpResponse<String> response) {
+        long latency = System.nanoTime() - due;
+        // Warm-up responses still feed the id pools
+        if (measured) {
+            route.record(latency, status, response);
+        } else if (response != null && status >= 200 && status < 300) {
+            route.harvest(response);
+        }
+    }
+
+    // An event stream stays open until the client goes; only the time to its headers is measured
+    private static void close(InputStream body) {
+        try {
+            body.close();
+        } catch (IOException ignored) {
+            // The server notices on its next send either way
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.profitcalculator.loadtest;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The load generator's options, given as {@code --name=value}. Any other argument is passed on to
+ * the application, e.g. {@code --spring.profiles.active=file}.
+ */
+final class LoadSettings {
+    // Requests started per second, whatever the responses do
+    int rate = 200;
+    int warmupSeconds = 10;
+    int durationSeconds = 60;
+    int shipments = 1_000;
+    int calculationsPerShipment = 100;
+    // Calculations per bulk create and shipments per bulk delete
+    int bulkSize = 50;
+    Path report = Path.of("load-report.txt");
+    final List<String> applicationArgs = new ArrayList<>();
+
+    static LoadSettings parse(String[] args) {
+        LoadSettings settings = new LoadSettings();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            String name = equals > 0 ? arg.substring(0, equals) : arg;
+            String value = equals > 0 ? arg.substring(equals + 1) : "";
+            switch (name) {
+                case "--rate" -> settings.rate = positive(name, value);
+                case "--warmup" -> settings.warmupSeconds = Integer.parseInt(value);
+                case "--duration" -> settings.durationSeconds = positive(name, value);
+                case "--shipments" -> settings.shipments = positive(name, value);
+                case "--calculations-per-shipment" -> settings.calculationsPerShipment = Integer.parseInt(value);
+                case "--bulk-size" -> settings.bulkSize = positive(name, value);
+                case "--report" -> settings.report = Path.of(value);
+                default -> settings.applicationArgs.add(arg);
+            }
+        }
+        return settings;
+    }
+
+    private static int positive(String name, String value) {
+        int parsed = Integer.parseInt(value);
+        if (parsed < 1) {
+            throw new IllegalArgumentException(name + " must be at least 1, but was " + value);
+        }
+        return parsed;
+    }
+
+    long totalRequests() {
+        return (long) rate * (warmupSeconds + durationSeconds);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.profitcalculator.loadtest;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * One endpoint of the workload, with its share of the requests and what it recorded during the
+ * measured period. Latencies are in microseconds from the request's intended start.
+ */
+final class Route {
+    // Anything slower is recorded as a minute
+    static final long MAX_LATENCY_MICROS = 60_000_000;
+
+    final String name;
+    final int weight;
+    // Event streams are only read up to their headers, then closed
+    final boolean stream;
+    private final Supplier<HttpRequest> request;
+    private final Consumer<HttpResponse<String>> onSuccess;
+
+    final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    final LongAdder succeeded = new LongAdder();
+    final LongAdder shed = new LongAdder();
+    final LongAdder failed = new LongAdder();
+    final LongAdder skipped = new LongAdder();
+
+    Route(String name, int weight, boolean stream, Supplier<HttpRequest> request,
+          Consumer<HttpResponse<String>> onSuccess) {
+        this.name = name;
+        this.weight = weight;
+        this.stream = stream;
+        this.request = request;
+        this.onSuccess = onSuccess;
+    }
+
+    // Null when there is nothing to send, e.g. no shipment left to delete
+    HttpRequest nextRequest() {
+        return request.get();
+    }
+
+    void record(long latencyNanos, int status, HttpResponse<String> response) {
+        latencies.recordValue(Math.min(latencyNanos / 1_000, MAX_LATENCY_MICROS));
+        if (status >= 200 && status < 300) {
+            succeeded.increment();
+            if (response != null) {
+                harvest(response);
+            }
+        } else if (status == 503) {
+            shed.increment();
+        } else {
+            failed.increment();
+        }
+    }
+
+    // Hands a successful response to the route, e.g. to pool the id it created
+    void harvest(HttpResponse<String> response) {
+        onSuccess.accept(response);
+    }
+
+    long completed() {
+        return succeeded.sum() + shed.sum() + failed.sum();
+    }
+}
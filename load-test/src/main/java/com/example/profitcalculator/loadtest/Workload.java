@@ -0,0 +1,176 @@
+package com.example.profitcalculator.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The request mix: every {@code ProfitController} route, weighted roughly as a dashboard-heavy
+ * client base would call them. Reads of single shipments and pages dominate; unpaged lists and
+ * bulk writes are rare but expensive.
+ */
+final class Workload {
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUri;
+    private final Dataset dataset;
+    private final int bulkSize;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    final List<Route> routes;
+    private final int totalWeight;
+
+    Workload(String baseUri, Dataset dataset, LoadSettings settings) {
+        this.baseUri = baseUri + "/api/profit/shipments";
+        this.dataset = dataset;
+        this.bulkSize = settings.bulkSize;
+        this.routes = List.of(
+                new Route("GET /shipments", 10, false,
+                        () -> get("?limit=50"), ignored()),
+                new Route("GET /shipments?unpaged", 1, false,
+                        () -> get("?unpaged=true"), ignored()),
+                new Route("POST /shipments", 4, false,
+                        () -> post("", ""), response -> dataset.deletableShipments.add(id(response))),
+                new Route("GET /shipments/{id}", 15, false,
+                        () -> get("/" + dataset.randomShipment()), ignored()),
+                new Route("GET /shipments/{id}/summary", 10, false,
+                        () -> get("/" + dataset.randomShipment() + "/summary"), ignored()),
+                new Route("DELETE /shipments/{id}", 2, false,
+                        this::deleteShipment, ignored()),
+                new Route("POST /shipments/bulk-delete", 1, false,
+                        this::deleteShipments, ignored()),
+                new Route("GET /shipments/{id}/calculations", 20, false,
+                        () -> get("/" + dataset.randomShipment() + "/calculations?limit=50"), ignored()),
+                new Route("GET /shipments/{id}/calculations?unpaged", 2, false,
+                        () -> get("/" + dataset.randomShipment() + "/calculations?unpaged=true"), ignored()),
+                new Route("POST /shipments/{id}/calculations", 15, false,
+                        this::createCalculation, this::addDeletableCalculation),
+                new Route("POST /shipments/{id}/calculations (respond-async)", 5, false,
+                        this::submitCalculation,
+                        response -> response.headers().firstValue("Location").ifPresent(dataset.latestTicket::set)),
+                new Route("GET /shipments/{id}/calculation-tickets/{ticket}", 5, false,
+                        this::getTicket, ignored()),
+                new Route("POST /shipments/{id}/calculations/bulk", 2, false,
+                        this::createCalculations, ignored()),
+                new Route("GET /shipments/{id}/events", 3, true,
+                        () -> request("/" + dataset.randomShipment() + "/events").GET().build(), ignored()),
+                new Route("DELETE /shipments/{id}/calculations/{id}", 5, false,
+                        this::deleteCalculation, ignored()));
+        this.totalWeight = routes.stream().mapToInt(route -> route.weight).sum();
+    }
+
+    Route pick() {
+        int point = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Route route : routes) {
+            point -= route.weight;
+            if (point < 0) {
+                return route;
+            }
+        }
+        throw new IllegalStateException("Weights changed while picking");
+    }
+
+    // The share of all requests that each remove one seeded disposable shipment
+    double shipmentDeletesPerRequest() {
+        return (2.0 + bulkSize) / totalWeight;
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUri + path)).timeout(REQUEST_TIMEOUT);
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).header("Accept", "application/json").GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static String calculationJson() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return "{\"income\":" + random.nextInt(1, 100_000) / 100.0 + ",\"cost\":" + random.nextInt(100_000) / 100.0 + "}";
+    }
+
+    private HttpRequest createCalculation() {
+        return post("/" + dataset.randomShipment() + "/calculations", calculationJson());
+    }
+
+    private HttpRequest submitCalculation() {
+        return request("/" + dataset.randomShipment() + "/calculations")
+                .header("Content-Type", "application/json")
+                .header("Prefer", "respond-async")
+                .POST(HttpRequest.BodyPublishers.ofString(calculationJson()))
+                .build();
+    }
+
+    private HttpRequest createCalculations() {
+        StringJoiner rows = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < bulkSize; i++) {
+            rows.add(calculationJson());
+        }
+        return post("/" + dataset.randomShipment() + "/calculations/bulk", rows.toString());
+    }
+
+    private HttpRequest getTicket() {
+        String ticket = dataset.latestTicket.get();
+        return ticket == null ? null : HttpRequest.newBuilder(URI.create(ticket)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private HttpRequest deleteShipment() {
+        Long shipmentId = dataset.deletableShipments.poll();
+        return shipmentId == null ? null : request("/" + shipmentId).DELETE().build();
+    }
+
+    private HttpRequest deleteShipments() {
+        StringJoiner ids = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < bulkSize; i++) {
+            Long shipmentId = dataset.deletableShipments.poll();
+            if (shipmentId == null) {
+                break;
+            }
+            ids.add(shipmentId.toString());
+        }
+        return ids.length() == 2 ? null : post("/bulk-delete", ids.toString());
+    }
+
+    private HttpRequest deleteCalculation() {
+        long[] calculation = dataset.deletableCalculations.poll();
+        return calculation == null
+                ? null
+                : request("/" + calculation[0] + "/calculations/" + calculation[1]).DELETE().build();
+    }
+
+    private void addDeletableCalculation(HttpResponse<String> response) {
+        JsonNode calculation = json(response);
+        dataset.deletableCalculations.add(
+                new long[]{calculation.get("shipmentId").asLong(), calculation.get("id").asLong()});
+    }
+
+    private long id(HttpResponse<String> response) {
+        return json(response).get("id").asLong();
+    }
+
+    private JsonNode json(HttpResponse<String> response) {
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable response from " + response.uri(), e);
+        }
+    }
+
+    private static Consumer<HttpResponse<String>> ignored() {
+        return response -> { };
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.profitcalculator.reactive;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.profitcalculator.dto.CalculationDTO;
+import com.example.profitcalculator.dto.CursorPageDTO;
+import com.example.profitcalculator.dto.ShipmentDTO;
+import com.example.profitcalculator.dto.ShipmentSummaryDTO;
+import com.example.profitcalculator.exception.BadRequestException;
+import com.example.profitcalculator.exception.ResourceNotFoundException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only counterpart of the back end's ProfitController, on the same paths and with the same
+ * JSON. The lists answer with the back end's cursor page by default. With {@code unpaged=true}
+ * they stream every row after the optional {@code after} cursor, as a JSON array or, with
+ * Accept: application/x-ndjson, one object per line as rows arrive.
+ */
+@RestController
+@RequestMapping("/api/profit/shipments")
+public class ReactiveProfitController {
+    // The back end's page defaults and bounds
+    static final String DEFAULT_LIMIT = "50";
+    static final int MAX_LIMIT = 1000;
+
+    private final ShipmentReadRepository shipmentReadRepository;
+
+    public ReactiveProfitController(ShipmentReadRepository shipmentReadRepository) {
+        this.shipmentReadRepository = shipmentReadRepository;
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<CursorPageDTO<ShipmentDTO>> getShipments(@RequestParam(defaultValue = "0") long after,
+                                                         @RequestParam(defaultValue = DEFAULT_LIMIT) int limit) {
+        checkPage(after, limit);
+        return shipmentReadRepository.findShipmentPage(after, limit)
+                .collectList()
+                .map(shipments -> CursorPageDTO.of(shipments, limit, ShipmentDTO::getId));
+    }
+
+    @GetMapping(params = "unpaged=true", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<ShipmentDTO> getAllShipments(@RequestParam(defaultValue = "0") long after) {
+        return shipmentReadRepository.findShipmentsAfter(after);
+    }
+
+    @GetMapping("/{shipmentId}")
+    public Mono<ShipmentDTO> getShipmentById(@PathVariable long shipmentId) {
+        return getSummary(shipmentId)
+                .map(summary -> ShipmentDTO.builder().id(summary.getShipmentId()).build());
+    }
+
+    @GetMapping("/{shipmentId}/summary")
+    public Mono<ShipmentSummaryDTO> getShipmentSummary(@PathVariable long shipmentId) {
+        return getSummary(shipmentId);
+    }
+
+    // The existence checks come first so a missing shipment is a 404, not an empty list
+    @GetMapping(value = "/{shipmentId}/calculations", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<CursorPageDTO<CalculationDTO>> getCalculations(@PathVariable long shipmentId,
+                                                               @RequestParam(defaultValue = "0") long after,
+                                                               @RequestParam(defaultValue = DEFAULT_LIMIT) int limit) {
+        checkPage(after, limit);
+        return getSummary(shipmentId)
+                .flatMap(summary -> shipmentReadRepository.findCalculationPage(shipmentId, after, limit).collectList())
+                .map(calculations -> CursorPageDTO.of(calculations, limit, CalculationDTO::getId));
+    }
+
+    @GetMapping(value = "/{shipmentId}/calculations", params = "unpaged=true",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<CalculationDTO> getAllCalculations(@PathVariable long shipmentId,
+                                                   @RequestParam(defaultValue = "0") long after) {
+        return getSummary(shipmentId)
+                .flatMapMany(summary -> shipmentReadRepository.findCalculationsAfter(shipmentId, after));
+    }
+
+    private Mono<ShipmentSummaryDTO> getSummary(long shipmentId) {
+        return shipmentReadRepository.findSummary(shipmentId)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Shipment", "id", shipmentId)));
+    }
+
+    private static void checkPage(long after, int limit) {
+        if (after < 0) {
+            throw new BadRequestException("Cursor must not be negative");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.profitcalculator.reactive;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.example.profitcalculator.dto.CalculationDTO;
+import com.example.profitcalculator.dto.ShipmentDTO;
+import com.example.profitcalculator.dto.ShipmentSummaryDTO;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The back end's shipment and calculation reads in plain SQL over R2DBC. Rows are mapped straight
+ * to the DTOs, and the Fluxes emit them as the subscriber requests them, so a slow client holds
+ * back the query instead of buffering the result.
+ */
+@Repository
+public class ShipmentReadRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public ShipmentReadRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<ShipmentDTO> findShipmentsAfter(long after) {
+        return databaseClient.sql("SELECT id FROM shipment WHERE id > :after ORDER BY id")
+                .bind("after", after)
+                .map(row -> ShipmentDTO.builder().id(row.get("id", Long.class)).build())
+                .all();
+    }
+
+    public Flux<ShipmentDTO> findShipmentPage(long after, int limit) {
+        return databaseClient.sql("SELECT id FROM shipment WHERE id > :after ORDER BY id LIMIT :limit")
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(row -> ShipmentDTO.builder().id(row.get("id", Long.class)).build())
+                .all();
+    }
+
+    public Mono<ShipmentSummaryDTO> findSummary(long shipmentId) {
+        return databaseClient.sql("SELECT id, calculation_count, total_income_cents, total_cost_cents, "
+                        + "total_profit_or_loss_cents FROM shipment WHERE id = :id")
+                .bind("id", shipmentId)
+                .map(row -> ShipmentSummaryDTO.builder()
+                        .shipmentId(row.get("id", Long.class))
+                        .calculationCount(longOf(row, "calculation_count"))
+                        .totalIncomeCents(longOf(row, "total_income_cents"))
+                        .totalCostCents(longOf(row, "total_cost_cents"))
+                        .totalProfitOrLossCents(longOf(row, "total_profit_or_loss_cents"))
+                        .build())
+                .one();
+    }
+
+    // Keyset on (shipment_id, id), the index the back end's calculation pages use
+    public Flux<CalculationDTO> findCalculationsAfter(long shipmentId, long after) {
+        return databaseClient.sql("SELECT id, shipment_id, income_cents, cost_cents, profit_or_loss_cents "
+                        + "FROM calculation WHERE shipment_id = :shipmentId AND id > :after ORDER BY id")
+                .bind("shipmentId", shipmentId)
+                .bind("after", after)
+                .map(ShipmentReadRepository::calculationOf)
+                .all();
+    }
+
+    public Flux<CalculationDTO> findCalculationPage(long shipmentId, long after, int limit) {
+        return databaseClient.sql("SELECT id, shipment_id, income_cents, cost_cents, profit_or_loss_cents "
+                        + "FROM calculation WHERE shipment_id = :shipmentId AND id > :after ORDER BY id LIMIT :limit")
+                .bind("shipmentId", shipmentId)
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(ShipmentReadRepository::calculationOf)
+                .all();
+    }
+
+    private static CalculationDTO calculationOf(Readable row) {
+        return CalculationDTO.builder()
+                .id(row.get("id", Long.class))
+                .shipmentId(row.get("shipment_id", Long.class))
+                .incomeCents(longOf(row, "income_cents"))
+                .costCents(longOf(row, "cost_cents"))
+                .profitOrLossCents(longOf(row, "profit_or_loss_cents"))
+                .build();
+    }
+
+    private static long longOf(Readable row, String column) {
+        return row.get(column, Long.class);
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.profitcalculator.reactive;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import org.h2.tools.Server;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.example.profitcalculator.dto.CalculationDTO;
+
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=classpath:schema.sql",
+        "spring.sql.init.data-locations=classpath:data.sql"
+})
+@AutoConfigureWebTestClient
+class ReactiveReadIntegrationTest {
+
+    // Stands in for the back end serving its database with profit.h2.tcp-port; the back end's
+    // SharedDatabaseIntegrationTest covers reading its writes over this connection
+    private static final Server DATABASE = startDatabase();
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.r2dbc.properties.url",
+                () -> "tcp://localhost:" + DATABASE.getPort() + "/mem:profitdb;DB_CLOSE_DELAY=-1");
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ShipmentReadRepository shipmentReadRepository;
+
+    @Test
+    void shipmentReads_ShouldMatchTheBackEndsJson() {
+        webTestClient.get().uri("/api/profit/shipments")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items[0].id").isEqualTo(1)
+                .jsonPath("$.items[1].id").isEqualTo(2);
+
+        webTestClient.get().uri("/api/profit/shipments?limit=1")
+                .exchange()
+                .expectBody()
+                .jsonPath("$.items.length()").isEqualTo(1)
+                .jsonPath("$.nextCursor").isEqualTo(1);
+
+        webTestClient.get().uri("/api/profit/shipments?after=1&unpaged=true")
+                .exchange()
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(2);
+
+        webTestClient.get().uri("/api/profit/shipments/1/summary")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.shipmentId").isEqualTo(1)
+                .jsonPath("$.calculationCount").isEqualTo(2)
+                .jsonPath("$.totalIncome").isEqualTo(1200.0)
+                .jsonPath("$.totalProfitOrLoss").isEqualTo(400.0);
+    }
+
+    @Test
+    void calculations_ShouldBePagedAsInTheBackEnd() {
+        webTestClient.get().uri("/api/profit/shipments/1/calculations?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items.length()").isEqualTo(1)
+                .jsonPath("$.items[0].income").isEqualTo(1000.0)
+                .jsonPath("$.nextCursor").isNumber();
+
+        webTestClient.get().uri("/api/profit/shipments/1/calculations?limit=1001")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Limit must be between 1 and 1000");
+    }
+
+    @Test
+    void calculations_ShouldStreamAsNdjson() {
+        List<CalculationDTO> calculations = webTestClient.get().uri("/api/profit/shipments/1/calculations?unpaged=true")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(CalculationDTO.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertEquals(2, calculations.size());
+        assertEquals(100000, calculations.get(0).getIncomeCents());
+        assertEquals(-10000, calculations.get(1).getProfitOrLossCents());
+    }
+
+    @Test
+    void calculations_ShouldOnlyReadWhatTheSubscriberRequests() {
+        databaseClient.sql("INSERT INTO shipment DEFAULT VALUES").then().block();
+        long shipmentId = databaseClient.sql("SELECT MAX(id) AS id FROM shipment")
+                .map(row -> row.get("id", Long.class)).one().block();
+        databaseClient.sql("INSERT INTO calculation (shipment_id, income_cents, cost_cents, profit_or_loss_cents) "
+                        + "SELECT :shipmentId, 1000, 400, 600 FROM SYSTEM_RANGE(1, 10000)")
+                .bind("shipmentId", shipmentId)
+                .then().block();
+
+        Flux<CalculationDTO> calculations = shipmentReadRepository.findCalculationsAfter(shipmentId, 0);
+
+        StepVerifier.create(calculations, 3)
+                .expectNextCount(3)
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void missingShipment_ShouldReturnTheBackEndsErrorBody() {
+        webTestClient.get().uri("/api/profit/shipments/999/calculations")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404)
+                .jsonPath("$.error").isEqualTo("Not Found")
+                .jsonPath("$.message").isEqualTo("Shipment not found with id : '999'")
+                .jsonPath("$.path").isEqualTo("uri=/api/profit/shipments/999/calculations");
+    }
+
+    private static Server startDatabase() {
+        try {
+            // Unlike the back end's server, lets the test create the database it serves
+            return Server.createTcpServer("-tcpPort", "0", "-tcpDaemon", "-ifNotExists").start();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}